@@ -3,6 +3,7 @@ package com.xxl.job.admin.controller;
 import com.xxl.job.admin.controller.interceptor.PermissionInterceptor;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLogGlue;
+import com.xxl.job.admin.core.trigger.JobMetadataCache;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogGlueDao;
@@ -79,6 +80,7 @@ public class JobCodeController {
 
 		existsJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(existsJobInfo);
+		JobMetadataCache.getInstance().invalidateJob(existsJobInfo.getId());
 
 		// log old code
 		XxlJobLogGlue xxlJobLogGlue = new XxlJobLogGlue();
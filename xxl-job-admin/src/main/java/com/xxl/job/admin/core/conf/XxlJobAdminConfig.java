@@ -3,6 +3,7 @@ package com.xxl.job.admin.core.conf;
 import com.xxl.job.admin.core.alarm.JobAlarmer;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.dao.*;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
@@ -64,9 +65,78 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Value("${xxl.job.triggerpool.slow.max}")
     private int triggerPoolSlowMax;
 
+    @Value("${xxl.job.triggerpool.broadcast.max}")
+    private int triggerPoolBroadcastMax;
+
+    @Value("${xxl.job.triggerpool.slow.threshold}")
+    private long triggerPoolSlowThreshold;
+
+    @Value("${xxl.job.triggerpool.slow.recover}")
+    private long triggerPoolSlowRecover;
+
+    @Value("${xxl.job.triggerpool.slow.halflife}")
+    private long triggerPoolSlowHalfLife;
+
+    @Value("${xxl.job.threadpool.virtual.enable}")
+    private boolean threadPoolVirtualEnable;
+
+    @Value("${xxl.job.threadpool.virtual.max}")
+    private int threadPoolVirtualMax;
+
+    @Value("${xxl.job.route.consistenthash.mode}")
+    private String routeConsistentHashMode;
+
+    @Value("${xxl.job.route.probe.fanout}")
+    private int routeProbeFanout;
+
+    @Value("${xxl.job.route.probe.hedgedelay}")
+    private long routeProbeHedgeDelay;
+
+    @Value("${xxl.job.route.probe.cachettl}")
+    private long routeProbeCacheTtl;
+
     @Value("${xxl.job.logretentiondays}")
     private int logretentiondays;
 
+    @Value("${xxl.job.schedule.partition.enable}")
+    private boolean schedulePartitionEnable;
+
+    @Value("${xxl.job.schedule.partition.slotcount}")
+    private int schedulePartitionSlotCount;
+
+    @Value("${xxl.job.schedule.index.enable}")
+    private boolean scheduleIndexEnable;
+
+    @Value("${xxl.job.log.asyncwrite.enable}")
+    private boolean logAsyncWriteEnable;
+
+    @Value("${xxl.job.trigger.async.enable}")
+    private boolean triggerAsyncEnable;
+
+    @Value("${xxl.job.trigger.async.maxinflight}")
+    private int triggerAsyncMaxInflight;
+
+    @Value("${xxl.job.trigger.batch.window}")
+    private long triggerBatchWindow;
+
+    @Value("${xxl.job.trigger.coalesce.enable}")
+    private boolean triggerCoalesceEnable;
+
+    @Value("${xxl.job.trigger.ratelimit.global}")
+    private int triggerRateLimitGlobal;
+
+    @Value("${xxl.job.trigger.ratelimit.group}")
+    private int triggerRateLimitGroup;
+
+    @Value("${xxl.job.trigger.ratelimit.job}")
+    private int triggerRateLimitJob;
+
+    @Value("${xxl.job.trigger.ratelimit.overflow}")
+    private String triggerRateLimitOverflow;
+
+    @Value("${xxl.job.registry.beat.flushinterval}")
+    private int registryBeatFlushInterval;
+
     // dao, service
 
     @Resource
@@ -80,6 +150,10 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Resource
     private XxlJobLogReportDao xxlJobLogReportDao;
     @Resource
+    private XxlJobScheduleSlotDao xxlJobScheduleSlotDao;
+    @Resource
+    private XxlJobIdSegmentDao xxlJobIdSegmentDao;
+    @Resource
     private JavaMailSender mailSender;
     @Resource
     private DataSource dataSource;
@@ -116,6 +190,73 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return triggerPoolSlowMax;
     }
 
+    public int getTriggerPoolBroadcastMax() {
+        if (triggerPoolBroadcastMax < 10) {
+            return 10;
+        }
+        return triggerPoolBroadcastMax;
+    }
+
+    public long getTriggerPoolSlowThreshold() {
+        if (triggerPoolSlowThreshold <= 0) {
+            return 500;
+        }
+        return triggerPoolSlowThreshold;
+    }
+
+    public long getTriggerPoolSlowRecover() {
+        if (triggerPoolSlowRecover <= 0 || triggerPoolSlowRecover > getTriggerPoolSlowThreshold()) {
+            return getTriggerPoolSlowThreshold() / 2;
+        }
+        return triggerPoolSlowRecover;
+    }
+
+    public long getTriggerPoolSlowHalfLife() {
+        if (triggerPoolSlowHalfLife <= 0) {
+            return 60;
+        }
+        return triggerPoolSlowHalfLife;
+    }
+
+    public boolean isThreadPoolVirtualEnable() {
+        return threadPoolVirtualEnable;
+    }
+
+    public int getThreadPoolVirtualMax() {
+        if (threadPoolVirtualMax < 1000) {
+            return 1000;
+        }
+        return threadPoolVirtualMax;
+    }
+
+    public String getRouteConsistentHashMode() {
+        return routeConsistentHashMode;
+    }
+
+    public int getRouteProbeFanout() {
+        if (routeProbeFanout < 1) {
+            return 1;
+        }
+        if (routeProbeFanout > 10) {
+            return 10;
+        }
+        return routeProbeFanout;
+    }
+
+    public long getRouteProbeHedgeDelay() {
+        if (routeProbeHedgeDelay < 0) {
+            return 0;
+        }
+        return routeProbeHedgeDelay;
+    }
+
+    public long getRouteProbeCacheTtl() {
+        if (routeProbeCacheTtl < 0) {
+            return 0;
+        }
+        return routeProbeCacheTtl;
+    }
+
     public int getLogretentiondays() {
         if (logretentiondays < 7) {
             return -1;  // Limit greater than or equal to 7, otherwise close
@@ -123,6 +264,70 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return logretentiondays;
     }
 
+    public boolean isSchedulePartitionEnable() {
+        return schedulePartitionEnable;
+    }
+
+    public int getSchedulePartitionSlotCount() {
+        if (schedulePartitionSlotCount < 1) {
+            return 1;
+        }
+        return schedulePartitionSlotCount;
+    }
+
+    public boolean isScheduleIndexEnable() {
+        return scheduleIndexEnable;
+    }
+
+    public boolean isLogAsyncWriteEnable() {
+        return logAsyncWriteEnable;
+    }
+
+    public boolean isTriggerAsyncEnable() {
+        return triggerAsyncEnable;
+    }
+
+    public int getTriggerAsyncMaxInflight() {
+        if (triggerAsyncMaxInflight < 100) {
+            return 100;
+        }
+        return triggerAsyncMaxInflight;
+    }
+
+    public long getTriggerBatchWindow() {
+        return triggerBatchWindow;
+    }
+
+    public boolean isTriggerCoalesceEnable() {
+        return triggerCoalesceEnable;
+    }
+
+    public int getTriggerRateLimitGlobal() {
+        return triggerRateLimitGlobal;
+    }
+
+    public int getTriggerRateLimitGroup() {
+        return triggerRateLimitGroup;
+    }
+
+    public int getTriggerRateLimitJob() {
+        return triggerRateLimitJob;
+    }
+
+    public String getTriggerRateLimitOverflow() {
+        return triggerRateLimitOverflow;
+    }
+
+    public int getRegistryBeatFlushInterval() {
+        if (registryBeatFlushInterval < 0) {
+            return 0;
+        }
+        if (registryBeatFlushInterval > 30) {
+            return 30;      // one beat, flushed before dead timeout
+        }
+        return registryBeatFlushInterval;
+    }
+
     public XxlJobLogDao getXxlJobLogDao() {
         return xxlJobLogDao;
     }
@@ -143,6 +348,14 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return xxlJobLogReportDao;
     }
 
+    public XxlJobScheduleSlotDao getXxlJobScheduleSlotDao() {
+        return xxlJobScheduleSlotDao;
+    }
+
+    public XxlJobIdSegmentDao getXxlJobIdSegmentDao() {
+        return xxlJobIdSegmentDao;
+    }
+
     public JavaMailSender getMailSender() {
         return mailSender;
     }
@@ -151,6 +364,13 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return dataSource;
     }
 
+    /**
+     * datasource max pool size, 0 if unknown
+     */
+    public int getDataSourceMaxPoolSize() {
+        return dataSource instanceof HikariDataSource ? ((HikariDataSource) dataSource).getMaximumPoolSize() : 0;
+    }
+
     public JobAlarmer getJobAlarmer() {
         return jobAlarmer;
     }
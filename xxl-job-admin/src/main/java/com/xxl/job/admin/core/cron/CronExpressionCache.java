@@ -0,0 +1,84 @@
+package com.xxl.job.admin.core.cron;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * compiled cron expression cache, key "cronExpression + timeZone", LRU bounded
+ *
+ *      1、avoid parsing cron (seven TreeSet field) on each next-trigger-time computation;
+ *      2、cached expression is shared and immutable, compiled as bitmask ({@link FastCronExpression});
+ *
+ * @author xuxueli 2024-11-23
+ */
+public class CronExpressionCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    private static final Map<String, FastCronExpression> cacheRepository = new LinkedHashMap<String, FastCronExpression>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FastCronExpression> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * get compiled cron expression, with default time zone
+     *
+     * @param cronExpression
+     * @return
+     * @throws ParseException   invalid cron expression (not cached)
+     */
+    public static FastCronExpression get(String cronExpression) throws ParseException {
+        return get(cronExpression, TimeZone.getDefault());
+    }
+
+    /**
+     * get compiled cron expression
+     *
+     * @param cronExpression
+     * @param timeZone
+     * @return
+     * @throws ParseException   invalid cron expression (not cached)
+     */
+    public static FastCronExpression get(String cronExpression, TimeZone timeZone) throws ParseException {
+        String key = cronExpression + "@" + timeZone.getID();
+        synchronized (cacheRepository) {
+            FastCronExpression expression = cacheRepository.get(key);
+            if (expression != null) {
+                return expression;
+            }
+        }
+
+        // parse out of lock
+        FastCronExpression expression = new FastCronExpression(cronExpression, timeZone);
+        synchronized (cacheRepository) {
+            cacheRepository.put(key, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * valid cron expression, valid one is cached for later computation
+     *
+     * @param cronExpression
+     * @return
+     */
+    public static boolean isValidExpression(String cronExpression) {
+        try {
+            get(cronExpression);
+            return true;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    public static int size() {
+        synchronized (cacheRepository) {
+            return cacheRepository.size();
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+package com.xxl.job.admin.core.cron;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * bitmask cron expression, same syntax and result as {@link CronExpression} ("L", "W", "#", "?")
+ *
+ *      1、parse by CronExpression, then each field is stored as bitmask (year as long array);
+ *      2、next time is computed by epoch-day arithmetic on primitive fields, no Calendar and no allocation per call;
+ *      3、time zone observes daylight saving time, delegate to CronExpression (keep its gap / overlap behavior);
+ *
+ * @author xuxueli 2024-11-24
+ */
+public final class FastCronExpression {
+
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = Math.min(CronExpression.MAX_YEAR, 2999);
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final CronExpression cronExpression;
+    private final TimeZone timeZone;
+    private final boolean daylightZone;
+
+    private final long secondBits;
+    private final long minuteBits;
+    private final int hourBits;
+    private final int dayOfMonthBits;
+    private final int monthBits;
+    private final int dayOfWeekBits;
+    private final long[] yearBits;
+
+    private final boolean dayOfMonthSpec;
+    private final boolean lastdayOfMonth;
+    private final boolean nearestWeekday;
+    private final int lastdayOffset;
+    private final int firstDayOfMonth;
+    private final boolean lastdayOfWeek;
+    private final int nthdayOfWeek;
+    private final int firstDayOfWeek;
+
+    public FastCronExpression(String cronExpression) throws ParseException {
+        this(cronExpression, TimeZone.getDefault());
+    }
+
+    public FastCronExpression(String cronExpression, TimeZone timeZone) throws ParseException {
+        this.cronExpression = new CronExpression(cronExpression);
+        this.cronExpression.setTimeZone(timeZone);
+        this.timeZone = timeZone;
+        this.daylightZone = timeZone.observesDaylightTime();
+
+        CronExpression expression = this.cronExpression;
+        this.secondBits = toBits(expression.seconds, 0, 59);
+        this.minuteBits = toBits(expression.minutes, 0, 59);
+        this.hourBits = (int) toBits(expression.hours, 0, 23);
+        this.dayOfMonthBits = (int) toBits(expression.daysOfMonth, 1, 31);
+        this.monthBits = (int) toBits(expression.months, 1, 12);
+        this.dayOfWeekBits = (int) toBits(expression.daysOfWeek, 1, 7);
+
+        this.yearBits = new long[((MAX_YEAR - MIN_YEAR) >> 6) + 1];
+        for (Integer year: expression.years) {
+            if (year >= MIN_YEAR && year <= MAX_YEAR) {
+                yearBits[(year - MIN_YEAR) >> 6] |= 1L << (year - MIN_YEAR);
+            }
+        }
+
+        this.dayOfMonthSpec = !expression.daysOfMonth.contains(CronExpression.NO_SPEC);
+        this.lastdayOfMonth = expression.lastdayOfMonth;
+        this.nearestWeekday = expression.nearestWeekday;
+        this.lastdayOffset = expression.lastdayOffset;
+        this.firstDayOfMonth = dayOfMonthBits!=0 ? Integer.numberOfTrailingZeros(dayOfMonthBits) : 0;
+        this.lastdayOfWeek = expression.lastdayOfWeek;
+        this.nthdayOfWeek = expression.nthdayOfWeek;
+        this.firstDayOfWeek = dayOfWeekBits!=0 ? Integer.numberOfTrailingZeros(dayOfWeekBits) : 0;
+    }
+
+    private static long toBits(Set<Integer> values, int min, int max) {
+        long bits = 0;
+        for (Integer value: values) {
+            if (value >= min && value <= max) {
+                bits |= 1L << value;
+            }
+        }
+        return bits;
+    }
+
+    public String getCronExpression() {
+        return cronExpression.getCronExpression();
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    public Date getNextValidTimeAfter(Date date) {
+        if (daylightZone) {
+            return cronExpression.getNextValidTimeAfter(date);
+        }
+        long nextTime = getNextValidTimeAfter(date.getTime());
+        return nextTime >= 0 ? new Date(nextTime) : null;
+    }
+
+    /**
+     * next valid time after "afterTime" (second precision)
+     *
+     * @param afterTime epoch millis
+     * @return          epoch millis, -1 if none
+     */
+    public long getNextValidTimeAfter(long afterTime) {
+        if (daylightZone) {
+            Date nextTime = cronExpression.getNextValidTimeAfter(new Date(afterTime));
+            return nextTime != null ? nextTime.getTime() : -1;
+        }
+
+        // local time, start from next second
+        long localSecond = Math.floorDiv(afterTime + timeZone.getOffset(afterTime), 1000) + 1;
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) (localSecond - epochDay * SECONDS_PER_DAY);
+
+        // civil from epoch day
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+
+        // each field find next valid value; overflow carry to upper field and reset lower field
+        while (true) {
+            if (year > MAX_YEAR) {
+                return -1;
+            }
+
+            // year
+            int nextYear = nextYear(year);
+            if (nextYear < 0) {
+                return -1;
+            }
+            if (nextYear != year) {
+                year = nextYear;
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+
+            // month
+            int nextMonth = nextBit(monthBits, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+
+            // day
+            int nextDay = nextDay(year, month, day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+
+            // hour
+            int nextHour = nextBit(hourBits, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = 0;
+                second = 0;
+            }
+
+            // minute
+            int nextMinute = nextBit(minuteBits, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+
+            // second
+            int nextSecond = nextBit(secondBits, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            second = nextSecond;
+
+            // local to epoch millis
+            long localTime = ((epochDay(year, month, day) * SECONDS_PER_DAY) + hour * 3600 + minute * 60 + second) * 1000;
+            int offset = timeZone.getOffset(localTime - timeZone.getRawOffset());
+            long nextTime = localTime - offset;
+            int nextOffset = timeZone.getOffset(nextTime);
+            if (nextOffset != offset) {
+                nextTime = localTime - nextOffset;
+            }
+            if (nextTime <= afterTime) {
+                // offset changed (zone rule), go on
+                second++;
+                continue;
+            }
+            return nextTime;
+        }
+    }
+
+    /**
+     * next valid day of month, from "day" (include), -1 if none in this month
+     */
+    private int nextDay(int year, int month, int day) {
+        int lastDay = lastDayOfMonth(year, month);
+        if (day > lastDay) {
+            return -1;
+        }
+
+        // day of month rule
+        if (dayOfMonthSpec) {
+            if (lastdayOfMonth || nearestWeekday) {
+                int target = lastdayOfMonth ? (lastDay - lastdayOffset) : firstDayOfMonth;
+                if (target < 1 || (target > lastDay && !nearestWeekday)) {
+                    return -1;
+                }
+                if (nearestWeekday) {
+                    // "nW" past month end (as CronExpression): day of week of overflowed date in next month, in this month only when shifted back from saturday
+                    int dayOfWeek = dayOfWeek(year, month, target);
+                    if (dayOfWeek == 7 && target == 1) {
+                        target += 2;
+                    } else if (dayOfWeek == 7) {
+                        target -= 1;
+                    } else if (dayOfWeek == 1 && target == lastDay) {
+                        target -= 2;
+                    } else if (dayOfWeek == 1) {
+                        target += 1;
+                    }
+                }
+                return (target >= day && target <= lastDay) ? target : -1;
+            }
+            int nextDay = nextBit(dayOfMonthBits, day);
+            return (nextDay > 0 && nextDay <= lastDay) ? nextDay : -1;
+        }
+
+        // day of week rule
+        if (lastdayOfWeek) {
+            int target = lastDay - ((dayOfWeek(year, month, lastDay) - firstDayOfWeek + 7) % 7);
+            return target >= day ? target : -1;
+        }
+        if (nthdayOfWeek != 0) {
+            int target = 1 + ((firstDayOfWeek - dayOfWeek(year, month, 1) + 7) % 7) + (nthdayOfWeek - 1) * 7;
+            return (target >= day && target <= lastDay) ? target : -1;
+        }
+        int dayOfWeek = dayOfWeek(year, month, day);
+        for (int i = 0; i < 7 && day + i <= lastDay; i++) {
+            if ((dayOfWeekBits & (1 << ((dayOfWeek - 1 + i) % 7 + 1))) != 0) {
+                return day + i;
+            }
+        }
+        return -1;
+    }
+
+    private int nextYear(int year) {
+        if (year < MIN_YEAR) {
+            year = MIN_YEAR;
+        }
+        int index = year - MIN_YEAR;
+        int word = index >> 6;
+        if (word >= yearBits.length) {
+            return -1;
+        }
+        long bits = yearBits[word] & (-1L << index);
+        while (true) {
+            if (bits != 0) {
+                return MIN_YEAR + (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == yearBits.length) {
+                return -1;
+            }
+            bits = yearBits[word];
+        }
+    }
+
+    private static int nextBit(long bits, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long masked = bits & (-1L << from);
+        return masked != 0 ? Long.numberOfTrailingZeros(masked) : -1;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lastDayOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * epoch day from civil date (proleptic gregorian)
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        int yoe = (int) (y - era * 400);
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * day of week, 1-SUN ... 7-SAT (same as Calendar)
+     */
+    private static int dayOfWeek(int year, int month, int day) {
+        return (int) Math.floorMod(epochDay(year, month, day) + 4, 7) + 1;
+    }
+
+}
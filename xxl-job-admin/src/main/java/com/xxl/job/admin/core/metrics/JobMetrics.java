@@ -0,0 +1,169 @@
+package com.xxl.job.admin.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * scheduler and trigger metrics, registered in micrometer global registry (bound by spring boot actuator)
+ *
+ *      /actuator/metrics/{name}, /actuator/prometheus
+ *
+ * @author xuxueli 2024-11-26
+ */
+public class JobMetrics {
+
+    public static final String POOL_FAST = "fast";
+    public static final String POOL_SLOW = "slow";
+
+    // ---------------------- schedule ----------------------
+
+    private static final Timer scheduleScanTimer = Timer.builder("xxl.job.schedule.scan")
+            .description("schedule thread scan duration (lock, pre-read, push time-ring, update)")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private static final Timer scheduleLockWaitTimer = Timer.builder("xxl.job.schedule.lock.wait")
+            .description("schedule lock wait duration")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private static final DistributionSummary scheduleScanJobs = DistributionSummary.builder("xxl.job.schedule.scan.jobs")
+            .description("pre-read job count each scan")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private static final Counter scheduleMisfireCounter = Counter.builder("xxl.job.schedule.misfire")
+            .description("misfire job count")
+            .register(Metrics.globalRegistry);
+    private static final Timer scheduleFireDelayTimer = Timer.builder("xxl.job.schedule.fire.delay")
+            .description("time-ring fire time delay from trigger-next-time, fire-time accuracy")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
+    public static void recordScheduleScan(long costMs, int jobCount) {
+        scheduleScanTimer.record(costMs, TimeUnit.MILLISECONDS);
+        scheduleScanJobs.record(jobCount);
+    }
+
+    public static void recordScheduleLockWait(long costMs) {
+        scheduleLockWaitTimer.record(costMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static void incrementScheduleMisfire() {
+        scheduleMisfireCounter.increment();
+    }
+
+    public static void recordScheduleFireDelay(long delayMs) {
+        scheduleFireDelayTimer.record(Math.max(delayMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    // ---------------------- trigger pool ----------------------
+
+    private static final Counter triggerRouteFastCounter = triggerRouteCounter(POOL_FAST);
+    private static final Counter triggerRouteSlowCounter = triggerRouteCounter(POOL_SLOW);
+    private static final Timer triggerFastTimer = triggerTimer(POOL_FAST);
+    private static final Timer triggerSlowTimer = triggerTimer(POOL_SLOW);
+
+    private static Counter triggerRouteCounter(String pool) {
+        return Counter.builder("xxl.job.trigger.route")
+                .description("trigger pool routing decision (fast / slow)")
+                .tag("pool", pool)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static Timer triggerTimer(String pool) {
+        return Timer.builder("xxl.job.trigger.latency")
+                .description("trigger latency in trigger pool (db + route + rpc)")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    public static void recordTriggerRoute(boolean slow) {
+        (slow ? triggerRouteSlowCounter : triggerRouteFastCounter).increment();
+    }
+
+    public static void recordTriggerLatency(boolean slow, long costMs) {
+        (slow ? triggerSlowTimer : triggerFastTimer).record(costMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ---------------------- trigger admission ----------------------
+
+    public static final String REJECT_RATE_LIMIT = "ratelimit";
+    public static final String REJECT_POOL_FULL = "pool_full";
+    public static final String COALESCE_PENDING = "pending";
+
+    private static final Counter triggerRejectRateLimitCounter = triggerRejectCounter(REJECT_RATE_LIMIT);
+    private static final Counter triggerRejectPoolFullCounter = triggerRejectCounter(REJECT_POOL_FULL);
+    private static final Counter triggerDelayCounter = Counter.builder("xxl.job.trigger.delayed")
+            .description("trigger delayed by rate limit")
+            .register(Metrics.globalRegistry);
+    private static final Counter triggerCoalesceRateLimitCounter = triggerCoalesceCounter(REJECT_RATE_LIMIT);
+    private static final Counter triggerCoalescePendingCounter = triggerCoalesceCounter(COALESCE_PENDING);
+
+    private static Counter triggerRejectCounter(String reason) {
+        return Counter.builder("xxl.job.trigger.rejected")
+                .description("trigger rejected (rate limit / trigger pool full)")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static Counter triggerCoalesceCounter(String reason) {
+        return Counter.builder("xxl.job.trigger.coalesced")
+                .description("trigger collapsed into pending trigger of same job (rate limit delayed / trigger pool pending)")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
+    public static void incrementTriggerRejected(String reason) {
+        (REJECT_POOL_FULL.equals(reason) ? triggerRejectPoolFullCounter : triggerRejectRateLimitCounter).increment();
+    }
+
+    public static void incrementTriggerDelayed() {
+        triggerDelayCounter.increment();
+    }
+
+    public static void incrementTriggerCoalesced(String reason) {
+        (COALESCE_PENDING.equals(reason) ? triggerCoalescePendingCounter : triggerCoalesceRateLimitCounter).increment();
+    }
+
+    // ---------------------- trigger process ----------------------
+
+    private static final Timer triggerDbTimer = Timer.builder("xxl.job.trigger.db")
+            .description("trigger log save and update duration")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private static final Timer triggerRpcTimer = Timer.builder("xxl.job.trigger.rpc")
+            .description("executor run rpc duration")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
+    public static void recordTriggerDb(long costMs) {
+        triggerDbTimer.record(costMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static void recordTriggerRpc(long costMs) {
+        triggerRpcTimer.record(costMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ---------------------- gauge ----------------------
+
+    /**
+     * register gauge, value read on each scrape
+     *
+     * @param name
+     * @param description
+     * @param value
+     * @param tags          key, value pairs
+     */
+    public static void gauge(String name, String description, Supplier<Number> value, String... tags) {
+        Gauge.builder(name, value)
+                .description(description)
+                .tags(tags)
+                .register(Metrics.globalRegistry);
+    }
+
+}
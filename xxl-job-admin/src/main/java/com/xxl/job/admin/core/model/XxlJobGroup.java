@@ -19,9 +19,11 @@ public class XxlJobGroup {
 
     // registry list
     private List<String> registryList;  // 执行器地址列表(系统注册)
+    private String registryListSource;  // address list parsed, re-split only when changed
     public List<String> getRegistryList() {
-        if (addressList!=null && addressList.trim().length()>0) {
+        if (addressList!=null && addressList.trim().length()>0 && addressList != registryListSource) {
             registryList = new ArrayList<String>(Arrays.asList(addressList.split(",")));
+            registryListSource = addressList;
         }
         return registryList;
     }
@@ -42,6 +42,9 @@ public class XxlJobInfo {
 	private long triggerLastTime;	// 上次调度时间
 	private long triggerNextTime;	// 下次调度时间
 
+	private long triggerCostAvg = -1;	// 平均触发耗时，单位毫秒，-1 未触发（非持久化）
+	private boolean triggerSlow;		// 慢任务，在慢线程池触发（非持久化）
+
 
 	public int getId() {
 		return id;
@@ -234,4 +237,20 @@ public class XxlJobInfo {
 	public void setTriggerNextTime(long triggerNextTime) {
 		this.triggerNextTime = triggerNextTime;
 	}
+
+	public long getTriggerCostAvg() {
+		return triggerCostAvg;
+	}
+
+	public void setTriggerCostAvg(long triggerCostAvg) {
+		this.triggerCostAvg = triggerCostAvg;
+	}
+
+	public boolean isTriggerSlow() {
+		return triggerSlow;
+	}
+
+	public void setTriggerSlow(boolean triggerSlow) {
+		this.triggerSlow = triggerSlow;
+	}
 }
@@ -11,6 +11,8 @@ public class XxlJobRegistry {
     private String registryGroup;
     private String registryKey;
     private String registryValue;
+    private int weight;
+    private int maxConcurrency;
     private Date updateTime;
 
     public int getId() {
@@ -45,6 +47,22 @@ public class XxlJobRegistry {
         this.registryValue = registryValue;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
     public Date getUpdateTime() {
         return updateTime;
     }
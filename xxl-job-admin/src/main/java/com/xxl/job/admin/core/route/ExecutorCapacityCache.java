@@ -0,0 +1,81 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.core.enums.RegistryConfig;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * executor capacity cache, weight and max concurrency declared by executor in registry
+ *
+ *      1、fresh: all online executor, loaded from registry table (by registry monitor, same on all admin);
+ *      2、put: registry beat received by this admin, take effect before next fresh;
+ *
+ * @author xuxueli 2024-12-08
+ */
+public class ExecutorCapacityCache {
+
+    private static ExecutorCapacityCache instance = new ExecutorCapacityCache();
+    public static ExecutorCapacityCache getInstance(){
+        return instance;
+    }
+
+    private static class Capacity {
+        private final int weight;
+        private final int maxConcurrency;
+
+        private Capacity(int weight, int maxConcurrency) {
+            this.weight = Math.max(weight, 1);
+            this.maxConcurrency = Math.max(maxConcurrency, 0);
+        }
+    }
+
+    private volatile Map<String, Capacity> capacityMap = new HashMap<>();
+
+    /**
+     * fresh by online registry, replace all
+     */
+    public synchronized void fresh(List<XxlJobRegistry> registryList) {
+        Map<String, Capacity> newCapacityMap = new HashMap<>();
+        if (registryList != null) {
+            for (XxlJobRegistry item : registryList) {
+                if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())) {
+                    newCapacityMap.put(item.getRegistryValue(), new Capacity(item.getWeight(), item.getMaxConcurrency()));
+                }
+            }
+        }
+        capacityMap = newCapacityMap;
+    }
+
+    /**
+     * registry received, copy on write
+     */
+    public synchronized void put(String address, int weight, int maxConcurrency) {
+        Capacity capacity = capacityMap.get(address);
+        if (capacity != null && capacity.weight == Math.max(weight, 1) && capacity.maxConcurrency == Math.max(maxConcurrency, 0)) {
+            return;
+        }
+        Map<String, Capacity> newCapacityMap = new HashMap<>(capacityMap);
+        newCapacityMap.put(address, new Capacity(weight, maxConcurrency));
+        capacityMap = newCapacityMap;
+    }
+
+    /**
+     * @return weight, 1 if not declared
+     */
+    public int getWeight(String address) {
+        Capacity capacity = capacityMap.get(address);
+        return capacity != null ? capacity.weight : 1;
+    }
+
+    /**
+     * @return max concurrency, 0 not limit
+     */
+    public int getMaxConcurrency(String address) {
+        Capacity capacity = capacityMap.get(address);
+        return capacity != null ? capacity.maxConcurrency : 0;
+    }
+
+}
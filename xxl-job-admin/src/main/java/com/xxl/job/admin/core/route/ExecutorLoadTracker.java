@@ -0,0 +1,139 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.enums.RegistryConfig;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * executor load tracker, for load-aware route
+ *
+ *      1、report: executor load reported in registry beat (active job thread, trigger queue, biz thread, cpu load);
+ *      2、dispatched: trigger routed to executor by this admin since last report (load report is one beat late);
+ *      3、outstanding work: reported work + dispatched, weighted by cpu load; report expired (or not reported, old executor), dispatched only;
+ *
+ * @author xuxueli 2024-12-07
+ */
+public class ExecutorLoadTracker {
+
+    private static ExecutorLoadTracker instance = new ExecutorLoadTracker();
+    public static ExecutorLoadTracker getInstance(){
+        return instance;
+    }
+
+    private static final long REPORT_EXPIRE_MS = RegistryConfig.DEAD_TIMEOUT * 1000L;
+    private static final long DISPATCH_WINDOW_MS = RegistryConfig.BEAT_TIMEOUT * 1000L;
+    private static final double CPU_LOAD_MAX = 4;
+    private static final int CLEAN_SIZE = 1000;
+
+    private static class ExecutorLoad {
+        private volatile int reportedWork = -1;                 // -1: not reported
+        private volatile double cpuLoad = -1;
+        private volatile long reportTime = 0;
+        private volatile long dispatchWindowStart = System.currentTimeMillis();
+        private final AtomicInteger dispatched = new AtomicInteger();
+    }
+
+    private final ConcurrentMap<String, ExecutorLoad> loadMap = new ConcurrentHashMap<>();
+
+    /**
+     * load reported in registry beat
+     */
+    public void report(RegistryParam registryParam) {
+        if (registryParam.getJobThreadCount() < 0) {
+            return;     // old executor, not reported
+        }
+        long now = System.currentTimeMillis();
+        ExecutorLoad load = loadOf(registryParam.getRegistryValue());
+        load.reportedWork = registryParam.getJobThreadCount()
+                + Math.max(registryParam.getTriggerQueueSize(), 0)
+                + Math.max(registryParam.getBizThreadActive(), 0);
+        load.cpuLoad = registryParam.getCpuLoad();
+        load.reportTime = now;
+
+        // dispatched before report, counted in reported work
+        load.dispatched.set(0);
+        load.dispatchWindowStart = now;
+
+        // clean expired
+        if (loadMap.size() > CLEAN_SIZE) {
+            for (Iterator<Map.Entry<String, ExecutorLoad>> it = loadMap.entrySet().iterator(); it.hasNext(); ) {
+                ExecutorLoad item = it.next().getValue();
+                if (now - Math.max(item.reportTime, item.dispatchWindowStart) > REPORT_EXPIRE_MS) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * executor removed
+     */
+    public void remove(String address) {
+        loadMap.remove(address);
+    }
+
+    /**
+     * trigger routed to executor
+     */
+    public void dispatched(String address) {
+        ExecutorLoad load = loadOf(address);
+        long now = System.currentTimeMillis();
+        if (now - load.dispatchWindowStart > DISPATCH_WINDOW_MS && now - load.reportTime > DISPATCH_WINDOW_MS) {
+            // no report in window (old executor, or report to other admin), count recent dispatched only
+            load.dispatched.set(0);
+            load.dispatchWindowStart = now;
+        }
+        load.dispatched.incrementAndGet();
+    }
+
+    /**
+     * outstanding work of executor, less is better
+     */
+    public double outstandingWork(String address) {
+        ExecutorLoad load = loadMap.get(address);
+        if (load == null) {
+            return 0;
+        }
+        double work = load.dispatched.get();
+        if (isReported(load)) {
+            work += load.reportedWork;
+            if (load.cpuLoad > 0) {
+                work *= 1 + Math.min(load.cpuLoad, CPU_LOAD_MAX);
+            }
+        }
+        return work;
+    }
+
+    /**
+     * outstanding trigger of executor (running, queued and dispatched), not weighted
+     */
+    public int outstandingCount(String address) {
+        ExecutorLoad load = loadMap.get(address);
+        if (load == null) {
+            return 0;
+        }
+        return load.dispatched.get() + (isReported(load) ? load.reportedWork : 0);
+    }
+
+    private static boolean isReported(ExecutorLoad load) {
+        return load.reportedWork >= 0 && System.currentTimeMillis() - load.reportTime <= REPORT_EXPIRE_MS;
+    }
+
+    private ExecutorLoad loadOf(String address) {
+        ExecutorLoad load = loadMap.get(address);
+        if (load == null) {
+            ExecutorLoad newLoad = new ExecutorLoad();
+            load = loadMap.putIfAbsent(address, newLoad);
+            if (load == null) {
+                load = newLoad;
+            }
+        }
+        return load;
+    }
+
+}
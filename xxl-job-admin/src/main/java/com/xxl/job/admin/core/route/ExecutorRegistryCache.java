@@ -0,0 +1,98 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.core.enums.RegistryConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * executor registry cache, executor beat received by this admin (appname - address - beat time)
+ *
+ *      1、beat: update beat time, return true when address online (new, or dead before), group address list should be fresh at once;
+ *      2、remove: executor stop (registry remove), or dead (no beat in dead timeout);
+ *      3、only beat received by this admin, executor beat other admin not included; group address list merged by registry table;
+ *
+ * @author xuxueli 2024-12-09
+ */
+public class ExecutorRegistryCache {
+
+    private static ExecutorRegistryCache instance = new ExecutorRegistryCache();
+    public static ExecutorRegistryCache getInstance(){
+        return instance;
+    }
+
+    private static final long DEAD_TIMEOUT_MS = RegistryConfig.DEAD_TIMEOUT * 1000L;
+
+    private final Map<String, Map<String, Long>> appAddressMap = new HashMap<>();
+
+    /**
+     * executor beat
+     *
+     * @return true if address online, false if already online
+     */
+    public synchronized boolean beat(String appname, String address, long beatTime) {
+        Map<String, Long> addressMap = appAddressMap.get(appname);
+        if (addressMap == null) {
+            addressMap = new HashMap<>();
+            appAddressMap.put(appname, addressMap);
+        }
+        Long lastBeatTime = addressMap.put(address, beatTime);
+        if (lastBeatTime != null && lastBeatTime > beatTime) {
+            addressMap.put(address, lastBeatTime);      // beat out of order, keep latest
+        }
+        return lastBeatTime == null || beatTime - lastBeatTime > DEAD_TIMEOUT_MS;
+    }
+
+    /**
+     * executor removed
+     *
+     * @return true if address online before
+     */
+    public synchronized boolean remove(String appname, String address) {
+        Map<String, Long> addressMap = appAddressMap.get(appname);
+        if (addressMap == null) {
+            return false;
+        }
+        boolean removed = addressMap.remove(address) != null;
+        if (addressMap.isEmpty()) {
+            appAddressMap.remove(appname);
+        }
+        return removed;
+    }
+
+    /**
+     * remove dead executor, no beat in dead timeout
+     *
+     * @return appname of dead executor
+     */
+    public synchronized Set<String> removeDead(long nowTime) {
+        Set<String> deadAppnameSet = new HashSet<>();
+        for (Iterator<Map.Entry<String, Map<String, Long>>> appIt = appAddressMap.entrySet().iterator(); appIt.hasNext(); ) {
+            Map.Entry<String, Map<String, Long>> appEntry = appIt.next();
+            for (Iterator<Long> it = appEntry.getValue().values().iterator(); it.hasNext(); ) {
+                if (nowTime - it.next() > DEAD_TIMEOUT_MS) {
+                    it.remove();
+                    deadAppnameSet.add(appEntry.getKey());
+                }
+            }
+            if (appEntry.getValue().isEmpty()) {
+                appIt.remove();
+            }
+        }
+        return deadAppnameSet;
+    }
+
+    /**
+     * online address of appname, beat received by this admin
+     */
+    public synchronized List<String> findAddress(String appname) {
+        Map<String, Long> addressMap = appAddressMap.get(appname);
+        return addressMap != null ? new ArrayList<>(addressMap.keySet()) : new ArrayList<String>();
+    }
+
+}
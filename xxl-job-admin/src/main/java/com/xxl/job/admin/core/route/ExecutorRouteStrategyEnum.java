@@ -17,6 +17,8 @@ public enum ExecutorRouteStrategyEnum {
     LEAST_RECENTLY_USED(I18nUtil.getString("jobconf_route_lru"), new ExecutorRouteLRU()),
     FAILOVER(I18nUtil.getString("jobconf_route_failover"), new ExecutorRouteFailover()),
     BUSYOVER(I18nUtil.getString("jobconf_route_busyover"), new ExecutorRouteBusyover()),
+    WEIGHT_ROUND(I18nUtil.getString("jobconf_route_weightround"), new ExecutorRouteWeightRound()),
+    LEAST_LOAD(I18nUtil.getString("jobconf_route_leastload"), new ExecutorRouteLeastLoad()),
     SHARDING_BROADCAST(I18nUtil.getString("jobconf_route_shard"), null);
 
     ExecutorRouteStrategyEnum(String title, ExecutorRouter router) {
@@ -2,6 +2,7 @@ package com.xxl.job.admin.core.route.strategy;
 
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.admin.core.thread.JobRouteProbeHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.IdleBeatParam;
@@ -9,6 +10,7 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Created by xuxueli on 17/3/10.
@@ -16,33 +18,25 @@ import java.util.List;
 public class ExecutorRouteBusyover extends ExecutorRouter {
 
     @Override
-    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
-        StringBuffer idleBeatResultSB = new StringBuffer();
-        for (String address : addressList) {
-            // beat
-            ReturnT<String> idleBeatResult = null;
-            try {
-                ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
-                idleBeatResult = executorBiz.idleBeat(new IdleBeatParam(triggerParam.getJobId()));
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                idleBeatResult = new ReturnT<String>(ReturnT.FAIL_CODE, ""+e );
-            }
-            idleBeatResultSB.append( (idleBeatResultSB.length()>0)?"<br><br>":"")
-                    .append(I18nUtil.getString("jobconf_idleBeat") + "：")
-                    .append("<br>address：").append(address)
-                    .append("<br>code：").append(idleBeatResult.getCode())
-                    .append("<br>msg：").append(idleBeatResult.getMsg());
-
-            // beat success
-            if (idleBeatResult.getCode() == ReturnT.SUCCESS_CODE) {
-                idleBeatResult.setMsg(idleBeatResultSB.toString());
-                idleBeatResult.setContent(address);
-                return idleBeatResult;
-            }
-        }
-
-        return new ReturnT<String>(ReturnT.FAIL_CODE, idleBeatResultSB.toString());
+    public ReturnT<String> route(final TriggerParam triggerParam, List<String> addressList) {
+        // idle beat, hedged; idle result not cached (busy after trigger), busy result cached
+        return JobRouteProbeHelper.getInstance().probe(
+                addressList,
+                "idleBeat-" + triggerParam.getJobId(),
+                false,
+                I18nUtil.getString("jobconf_idleBeat"),
+                new Function<String, ReturnT<String>>() {
+                    @Override
+                    public ReturnT<String> apply(String address) {
+                        try {
+                            ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+                            return executorBiz.idleBeat(new IdleBeatParam(triggerParam.getJobId()));
+                        } catch (Exception e) {
+                            logger.error(e.getMessage(), e);
+                            return new ReturnT<String>(ReturnT.FAIL_CODE, ""+e );
+                        }
+                    }
+                });
     }
 
 }
@@ -1,25 +1,34 @@
 package com.xxl.job.admin.core.route.strategy;
 
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 分组下机器地址相同，不同JOB均匀散列在不同机器上，保证分组下机器分配JOB平均；且每个JOB固定调度其中一台机器；
  *      a、virtual node：解决不均衡问题
  *      b、hash method replace hashCode：String的hashCode可能重复，需要进一步扩大hashCode的取值范围
+ *      c、ring cache：哈希环按地址列表缓存，仅地址列表变化时重建；哈希环为有序数组，二分查找；
+ *      d、hash mode：MD5（默认，兼容历史分配结果）、FAST（非加密哈希，构建更快，分配结果与MD5不同）
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
     private static int VIRTUAL_NODE_NUM = 100;
+    private static final int RING_CACHE_MAX = 1000;     // address list count, clear all when over
+
+    public static final String HASH_MODE_MD5 = "MD5";
+    public static final String HASH_MODE_FAST = "FAST";
 
     /**
      * get hash code on 2^32 ring (md5散列的方式计算hash值)
@@ -36,12 +45,7 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
             throw new RuntimeException("MD5 not supported", e);
         }
         md5.reset();
-        byte[] keyBytes = null;
-        try {
-            keyBytes = key.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Unknown string :" + key, e);
-        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
 
         md5.update(keyBytes);
         byte[] digest = md5.digest();
@@ -56,24 +60,124 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
         return truncateHashCode;
     }
 
-    public String hashJob(int jobId, List<String> addressList) {
+    /**
+     * get hash code on 2^32 ring (fnv-1a + murmur3 fmix, non-cryptographic)
+     * @param key
+     * @return
+     */
+    private static long fastHash(String key) {
+        int h = 0x811c9dc5;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0xffffffffL;
+    }
 
-        // ------A1------A2-------A3------
-        // -----------J1------------------
-        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
-        for (String address: addressList) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                long addressHash = hash("SHARD-" + address + "-NODE-" + i);
-                addressRing.put(addressHash, address);
+    private static long hash(String key, boolean fast) {
+        return fast ? fastHash(key) : hash(key);
+    }
+
+
+    // ---------------------- ring ----------------------
+
+    /**
+     * hash ring, sorted node hash, and address index of each node
+     */
+    private static class AddressRing {
+        private final boolean fast;
+        private final String[] addresses;
+        private final long[] nodeHashes;
+        private final int[] nodeAddressIndexes;
+
+        private AddressRing(List<String> addressList, boolean fast) {
+            this.fast = fast;
+            this.addresses = addressList.toArray(new String[0]);
+
+            // node: hash (32 bit) << 24 | address index, sort by hash (then address index)
+            long[] nodes = new long[addresses.length * VIRTUAL_NODE_NUM];
+            int nodeCount = 0;
+            for (int addressIndex = 0; addressIndex < addresses.length; addressIndex++) {
+                for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                    long addressHash = hash("SHARD-" + addresses[addressIndex] + "-NODE-" + i, fast);
+                    nodes[nodeCount++] = (addressHash << 24) | addressIndex;
+                }
+            }
+            Arrays.sort(nodes);
+
+            // same hash: later address win (same as TreeMap put in address order)
+            long[] hashes = new long[nodeCount];
+            int[] addressIndexes = new int[nodeCount];
+            int size = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                long nodeHash = nodes[i] >>> 24;
+                int addressIndex = (int) (nodes[i] & 0xffffff);
+                if (size > 0 && hashes[size - 1] == nodeHash) {
+                    addressIndexes[size - 1] = addressIndex;
+                } else {
+                    hashes[size] = nodeHash;
+                    addressIndexes[size] = addressIndex;
+                    size++;
+                }
+            }
+            this.nodeHashes = size == nodeCount ? hashes : Arrays.copyOf(hashes, size);
+            this.nodeAddressIndexes = size == nodeCount ? addressIndexes : Arrays.copyOf(addressIndexes, size);
+        }
+
+        /**
+         * first node at or after job hash, wrap to first
+         */
+        private String route(int jobId) {
+            long jobHash = hash(String.valueOf(jobId), fast);
+            int low = 0;
+            int high = nodeHashes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (nodeHashes[mid] < jobHash) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
             }
+            return addresses[nodeAddressIndexes[low < nodeHashes.length ? low : 0]];
         }
+    }
+
+    private final ConcurrentMap<List<String>, AddressRing> addressRingCache = new ConcurrentHashMap<>();
 
-        long jobHash = hash(String.valueOf(jobId));
-        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
+    private AddressRing loadRing(List<String> addressList, boolean fast) {
+        AddressRing addressRing = addressRingCache.get(addressList);
+        if (addressRing == null || addressRing.fast != fast) {
+            // build once each address list, key copied (address list of caller may change)
+            if (addressRingCache.size() >= RING_CACHE_MAX) {
+                addressRingCache.clear();
+            }
+            List<String> addressListCopy = new ArrayList<>(addressList);
+            addressRing = new AddressRing(addressListCopy, fast);
+            addressRingCache.put(addressListCopy, addressRing);
         }
-        return addressRing.firstEntry().getValue();
+        return addressRing;
+    }
+
+    private static boolean isFastHashMode() {
+        XxlJobAdminConfig adminConfig = XxlJobAdminConfig.getAdminConfig();
+        return adminConfig != null && HASH_MODE_FAST.equalsIgnoreCase(adminConfig.getRouteConsistentHashMode());
+    }
+
+    public String hashJob(int jobId, List<String> addressList) {
+        return hashJob(jobId, addressList, isFastHashMode());
+    }
+
+    public String hashJob(int jobId, List<String> addressList, boolean fast) {
+
+        // ------A1------A2-------A3------
+        // -----------J1------------------
+        return loadRing(addressList, fast).route(jobId);
     }
 
     @Override
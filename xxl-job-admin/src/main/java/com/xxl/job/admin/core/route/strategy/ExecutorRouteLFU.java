@@ -4,21 +4,29 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 单个JOB对应的每个执行器，使用频率最低的优先被选举
  *      a(*)、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      每个JOB维护按使用次数排序的小顶堆（数组），堆顶即使用次数最少的执行器，选举 O(log n) 且无对象分配；JOB粒度加锁，线程安全；
+ *      执行器地址变化时重建：保留原地址次数，新地址次数从当前最小次数起（随机偏移，缓解首次压力）；
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLFU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, HashMap<String, Integer>> jobLfuMap = new ConcurrentHashMap<Integer, HashMap<String, Integer>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, LfuItem> jobLfuMap = new ConcurrentHashMap<Integer, LfuItem>();
+    private static volatile long CACHE_VALID_TIME = 0;
+    private static final int COUNT_MAX = 1000000;
 
     public String route(int jobId, List<String> addressList) {
 
@@ -29,51 +37,145 @@ public class ExecutorRouteLFU extends ExecutorRouter {
         }
 
         // lfu item init
-        HashMap<String, Integer> lfuItemMap = jobLfuMap.get(jobId);     // Key排序可以用TreeMap+构造入参Compare；Value排序暂时只能通过ArrayList；
-        if (lfuItemMap == null) {
-            lfuItemMap = new HashMap<String, Integer>();
-            jobLfuMap.putIfAbsent(jobId, lfuItemMap);   // 避免重复覆盖
+        LfuItem lfuItem = jobLfuMap.get(jobId);
+        if (lfuItem == null) {
+            LfuItem newItem = new LfuItem();
+            lfuItem = jobLfuMap.putIfAbsent(jobId, newItem);   // 避免重复覆盖
+            if (lfuItem == null) {
+                lfuItem = newItem;
+            }
         }
 
-        // put new
-        for (String address: addressList) {
-            if (!lfuItemMap.containsKey(address) || lfuItemMap.get(address) >1000000 ) {
-                lfuItemMap.put(address, new Random().nextInt(addressList.size()));  // 初始化时主动Random一次，缓解首次压力
-            }
+        // load least used count address
+        synchronized (lfuItem) {
+            return lfuItem.route(addressList);
         }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lfuItemMap.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(triggerParam.getJobId(), addressList);
+        return new ReturnT<String>(address);
+    }
+
+
+    // ---------------------- lfu item ----------------------
+
+    /**
+     * min-heap of address by used count, guarded by item lock
+     */
+    private static class LfuItem {
+        private String[] addressListOrder = new String[0];     // address list of last rebuild, in list order
+        private String[] addresses = new String[0];
+        private int[] counts = new int[0];          // used count, by heap position
+
+        private String route(List<String> addressList) {
+            // address change, rebuild
+            if (!sameAddress(addressList)) {
+                rebuild(addressList);
             }
+
+            // heap top: least used
+            String address = addresses[0];
+            counts[0]++;
+            siftDown(0);
+
+            // count overflow, shift all (keep order)
+            if (counts[0] > COUNT_MAX) {
+                int min = counts[0];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] -= min;
+                }
+            }
+            return address;
         }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lfuItemMap.remove(delKey);
+
+        private boolean sameAddress(List<String> addressList) {
+            if (addressList.size() != addressListOrder.length) {
+                return false;
             }
+            for (int i = 0; i < addressListOrder.length; i++) {
+                if (!addressListOrder[i].equals(addressList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
         }
 
-        // load least userd count address
-        List<Map.Entry<String, Integer>> lfuItemList = new ArrayList<Map.Entry<String, Integer>>(lfuItemMap.entrySet());
-        Collections.sort(lfuItemList, new Comparator<Map.Entry<String, Integer>>() {
-            @Override
-            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
-                return o1.getValue().compareTo(o2.getValue());
+        private void rebuild(List<String> addressList) {
+            Map<String, Integer> oldCountMap = new HashMap<>();
+            int minCount = Integer.MAX_VALUE;
+            for (int i = 0; i < addresses.length; i++) {
+                oldCountMap.put(addresses[i], counts[i]);
             }
-        });
 
-        Map.Entry<String, Integer> addressItem = lfuItemList.get(0);
-        String minAddress = addressItem.getKey();
-        addressItem.setValue(addressItem.getValue() + 1);
+            String[] newAddresses = new String[addressList.size()];
+            int[] newCounts = new int[addressList.size()];
+            int size = 0;
+            for (String address : addressList) {
+                if (oldCountMap.containsKey(address)) {
+                    newAddresses[size] = address;
+                    newCounts[size] = oldCountMap.remove(address);
+                    minCount = Math.min(minCount, newCounts[size]);
+                    size++;
+                }
+            }
+            if (minCount == Integer.MAX_VALUE) {
+                minCount = 0;
+            }
+            for (String address : addressList) {
+                if (!containsAddress(newAddresses, size, address)) {
+                    newAddresses[size] = address;
+                    newCounts[size] = minCount + ThreadLocalRandom.current().nextInt(addressList.size());   // 初始化时主动Random一次，缓解首次压力
+                    size++;
+                }
+            }
 
-        return addressItem.getKey();
-    }
+            this.addressListOrder = addressList.toArray(new String[0]);
+            this.addresses = size == newAddresses.length ? newAddresses : Arrays.copyOf(newAddresses, size);
+            this.counts = size == newCounts.length ? newCounts : Arrays.copyOf(newCounts, size);
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
 
-    @Override
-    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
-        String address = route(triggerParam.getJobId(), addressList);
-        return new ReturnT<String>(address);
+        private static boolean containsAddress(String[] addresses, int size, String address) {
+            for (int i = 0; i < size; i++) {
+                if (addresses[i].equals(address)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void siftDown(int index) {
+            int size = counts.length;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int min = left;
+                int right = left + 1;
+                if (right < size && counts[right] < counts[left]) {
+                    min = right;
+                }
+                if (counts[index] <= counts[min]) {
+                    return;
+                }
+                swap(index, min);
+                index = min;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int count = counts[i];
+            counts[i] = counts[j];
+            counts[j] = count;
+            String address = addresses[i];
+            addresses[i] = addresses[j];
+            addresses[j] = address;
+        }
     }
 
 }
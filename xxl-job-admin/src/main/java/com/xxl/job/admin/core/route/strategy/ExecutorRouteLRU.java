@@ -5,8 +5,9 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -15,12 +16,15 @@ import java.util.concurrent.ConcurrentMap;
  *      a、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b(*)、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      每个JOB维护按访问顺序排列的双向链表（数组下标实现），表头即最久未使用的执行器，选举 O(1) 且无对象分配；JOB粒度加锁，线程安全；
+ *      执行器地址变化时重建：保留原地址访问顺序，新地址追加在表尾；
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLRU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, LinkedHashMap<String, String>> jobLRUMap = new ConcurrentHashMap<Integer, LinkedHashMap<String, String>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, LruItem> jobLRUMap = new ConcurrentHashMap<Integer, LruItem>();
+    private static volatile long CACHE_VALID_TIME = 0;
 
     public String route(int jobId, List<String> addressList) {
 
@@ -31,40 +35,19 @@ public class ExecutorRouteLRU extends ExecutorRouter {
         }
 
         // init lru
-        LinkedHashMap<String, String> lruItem = jobLRUMap.get(jobId);
+        LruItem lruItem = jobLRUMap.get(jobId);
         if (lruItem == null) {
-            /**
-             * LinkedHashMap
-             *      a、accessOrder：true=访问顺序排序（get/put时排序）；false=插入顺序排期；
-             *      b、removeEldestEntry：新增元素时将会调用，返回true时会删除最老元素；可封装LinkedHashMap并重写该方法，比如定义最大容量，超出是返回true即可实现固定长度的LRU算法；
-             */
-            lruItem = new LinkedHashMap<String, String>(16, 0.75f, true);
-            jobLRUMap.putIfAbsent(jobId, lruItem);
-        }
-
-        // put new
-        for (String address: addressList) {
-            if (!lruItem.containsKey(address)) {
-                lruItem.put(address, address);
-            }
-        }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lruItem.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
-            }
-        }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lruItem.remove(delKey);
+            LruItem newItem = new LruItem();
+            lruItem = jobLRUMap.putIfAbsent(jobId, newItem);
+            if (lruItem == null) {
+                lruItem = newItem;
             }
         }
 
         // load
-        String eldestKey = lruItem.entrySet().iterator().next().getKey();
-        String eldestValue = lruItem.get(eldestKey);
-        return eldestValue;
+        synchronized (lruItem) {
+            return lruItem.route(addressList);
+        }
     }
 
     @Override
@@ -73,4 +56,78 @@ public class ExecutorRouteLRU extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+
+    // ---------------------- lru item ----------------------
+
+    /**
+     * access ordered address, linked by index (head: eldest, tail: latest), guarded by item lock
+     */
+    private static class LruItem {
+        private String[] addressListOrder = new String[0];     // address list of last rebuild, in list order
+        private String[] addresses = new String[0];
+        private int[] prev = new int[0];
+        private int[] next = new int[0];
+        private int head = -1;
+        private int tail = -1;
+
+        private String route(List<String> addressList) {
+            // address change, rebuild
+            if (!sameAddress(addressList)) {
+                rebuild(addressList);
+            }
+
+            // eldest, move to tail
+            int eldest = head;
+            if (eldest != tail) {
+                head = next[eldest];
+                prev[head] = -1;
+                prev[eldest] = tail;
+                next[eldest] = -1;
+                next[tail] = eldest;
+                tail = eldest;
+            }
+            return addresses[eldest];
+        }
+
+        private boolean sameAddress(List<String> addressList) {
+            if (addressList.size() != addressListOrder.length) {
+                return false;
+            }
+            for (int i = 0; i < addressListOrder.length; i++) {
+                if (!addressListOrder[i].equals(addressList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rebuild(List<String> addressList) {
+            // old address in access order, then new address
+            Set<String> addressSet = new HashSet<>(addressList);
+            List<String> orderedList = new ArrayList<>(addressSet.size());
+            for (int i = head; i >= 0; i = next[i]) {
+                if (addressSet.remove(addresses[i])) {
+                    orderedList.add(addresses[i]);
+                }
+            }
+            for (String address : addressList) {
+                if (addressSet.remove(address)) {
+                    orderedList.add(address);
+                }
+            }
+
+            int size = orderedList.size();
+            this.addressListOrder = addressList.toArray(new String[0]);
+            this.addresses = orderedList.toArray(new String[0]);
+            this.prev = new int[size];
+            this.next = new int[size];
+            for (int i = 0; i < size; i++) {
+                prev[i] = i - 1;
+                next[i] = i + 1 < size ? i + 1 : -1;
+            }
+            this.head = size > 0 ? 0 : -1;
+            this.tail = size - 1;
+        }
+    }
+
 }
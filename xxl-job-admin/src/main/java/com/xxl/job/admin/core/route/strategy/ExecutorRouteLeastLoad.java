@@ -0,0 +1,64 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorCapacityCache;
+import com.xxl.job.admin.core.route.ExecutorLoadTracker;
+import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 最小负载：随机选取两台机器，选择未完成任务量（执行器心跳上报负载 + 本调度中心上报后分发数，按CPU负载加权，除以执行器权重）较少的一台；
+ *      a、power of two choices：负载信息按心跳上报存在延迟，多调度中心时各自独立选举，随机两选一避免同时涌向同一台机器；
+ *      b、max concurrency：达到执行器声明的最大并发的机器，仅在另一台也达到时选择；
+ *
+ * @author xuxueli 2024-12-07
+ */
+public class ExecutorRouteLeastLoad extends ExecutorRouter {
+
+    public String route(List<String> addressList) {
+        ExecutorLoadTracker loadTracker = ExecutorLoadTracker.getInstance();
+
+        // power of two choices
+        String address = addressList.get(0);
+        int size = addressList.size();
+        if (size > 1) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            String firstAddress = addressList.get(first);
+            String secondAddress = addressList.get(second);
+            boolean firstFull = isFull(firstAddress);
+            boolean secondFull = isFull(secondAddress);
+            if (firstFull != secondFull) {
+                address = firstFull ? secondAddress : firstAddress;
+            } else {
+                address = workPerWeight(secondAddress) < workPerWeight(firstAddress) ? secondAddress : firstAddress;
+            }
+        }
+
+        loadTracker.dispatched(address);
+        return address;
+    }
+
+    private static double workPerWeight(String address) {
+        return ExecutorLoadTracker.getInstance().outstandingWork(address) / ExecutorCapacityCache.getInstance().getWeight(address);
+    }
+
+    private static boolean isFull(String address) {
+        int maxConcurrency = ExecutorCapacityCache.getInstance().getMaxConcurrency(address);
+        return maxConcurrency > 0 && ExecutorLoadTracker.getInstance().outstandingCount(address) >= maxConcurrency;
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(addressList);
+        return new ReturnT<String>(address);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorCapacityCache;
+import com.xxl.job.admin.core.route.ExecutorLoadTracker;
+import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 加权轮询：按执行器注册时声明的权重（weight）比例分配调度，平滑加权轮询（同一机器不连续集中调度）；
+ *      a、max concurrency：执行中及排队触发数达到执行器声明的最大并发时跳过该机器，全部达到时忽略该限制；
+ *
+ * @author xuxueli 2024-12-08
+ */
+public class ExecutorRouteWeightRound extends ExecutorRouter {
+
+    private static ConcurrentMap<Integer, WeightRoundItem> jobWeightRoundMap = new ConcurrentHashMap<Integer, WeightRoundItem>();
+    private static volatile long CACHE_VALID_TIME = 0;
+
+    public String route(int jobId, List<String> addressList) {
+
+        // cache clear
+        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
+            jobWeightRoundMap.clear();
+            CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*24;
+        }
+
+        // init
+        WeightRoundItem weightRoundItem = jobWeightRoundMap.get(jobId);
+        if (weightRoundItem == null) {
+            WeightRoundItem newItem = new WeightRoundItem();
+            weightRoundItem = jobWeightRoundMap.putIfAbsent(jobId, newItem);
+            if (weightRoundItem == null) {
+                weightRoundItem = newItem;
+            }
+        }
+
+        // load
+        String address;
+        synchronized (weightRoundItem) {
+            address = weightRoundItem.route(addressList);
+        }
+        ExecutorLoadTracker.getInstance().dispatched(address);
+        return address;
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(triggerParam.getJobId(), addressList);
+        return new ReturnT<String>(address);
+    }
+
+
+    // ---------------------- weight round item ----------------------
+
+    /**
+     * smooth weighted round robin, current weight of each address (in address list order), guarded by item lock
+     */
+    private static class WeightRoundItem {
+        private String[] addresses = new String[0];
+        private int[] currentWeights = new int[0];
+
+        private String route(List<String> addressList) {
+            // address change, reset; 初始化时主动Random一次，缓解首次压力
+            if (!sameAddress(addressList)) {
+                addresses = addressList.toArray(new String[0]);
+                currentWeights = new int[addresses.length];
+                for (int i = 0; i < addresses.length; i++) {
+                    currentWeights[i] = ThreadLocalRandom.current().nextInt(ExecutorCapacityCache.getInstance().getWeight(addresses[i]));
+                }
+            }
+
+            // weight of each address, max concurrency reached skipped
+            ExecutorCapacityCache capacityCache = ExecutorCapacityCache.getInstance();
+            ExecutorLoadTracker loadTracker = ExecutorLoadTracker.getInstance();
+            int totalWeight = 0;
+            int best = -1;
+            int bestAvailable = -1;
+            for (int i = 0; i < addresses.length; i++) {
+                int weight = capacityCache.getWeight(addresses[i]);
+                currentWeights[i] += weight;
+                totalWeight += weight;
+
+                if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                    best = i;
+                }
+                int maxConcurrency = capacityCache.getMaxConcurrency(addresses[i]);
+                boolean available = maxConcurrency <= 0 || loadTracker.outstandingCount(addresses[i]) < maxConcurrency;
+                if (available && (bestAvailable < 0 || currentWeights[i] > currentWeights[bestAvailable])) {
+                    bestAvailable = i;
+                }
+            }
+
+            int selected = bestAvailable >= 0 ? bestAvailable : best;
+            currentWeights[selected] -= totalWeight;
+
+            // max concurrency skipped, current weight bounded (skipped not burst after available, selected instead not starved)
+            for (int i = 0; i < currentWeights.length; i++) {
+                currentWeights[i] = Math.max(Math.min(currentWeights[i], totalWeight), -totalWeight);
+            }
+            return addresses[selected];
+        }
+
+        private boolean sameAddress(List<String> addressList) {
+            if (addressList.size() != addresses.length) {
+                return false;
+            }
+            for (int i = 0; i < addresses.length; i++) {
+                if (!addresses[i].equals(addressList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
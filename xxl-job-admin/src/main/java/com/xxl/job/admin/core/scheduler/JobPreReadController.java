@@ -0,0 +1,95 @@
+package com.xxl.job.admin.core.scheduler;
+
+/**
+ * adaptive pre-read controller for schedule thread, size pre-read window and page from load
+ *
+ *      1、page: trigger capacity in window (pool thread / avg trigger cost), discount by trigger pool queue pressure;
+ *      2、window: page full or pool busy, shrink window (fetch the nearest first, loop again immediately); light load, grow window (up to max);
+ *      3、wait: page full, no wait; otherwise wait to next second, or next window when nothing due;
+ *
+ * @author xuxueli 2024-11-25
+ */
+public class JobPreReadController {
+
+    public static final long MIN_WINDOW_MS = 1000;
+    public static final int MIN_PAGE_SIZE = 100;
+
+    private final long maxWindowMs;
+    private final int maxPageSize;
+    private final int poolThreadCount;
+
+    private volatile long windowMs;
+    private volatile int pageSize;
+    private volatile boolean pageFull = false;
+    private volatile int lastDueCount = 0;
+
+    /**
+     * @param maxWindowMs       max pre-read window, also the misfire threshold
+     * @param poolThreadCount   trigger pool max thread count
+     */
+    public JobPreReadController(long maxWindowMs, int poolThreadCount) {
+        this.maxWindowMs = Math.max(maxWindowMs, MIN_WINDOW_MS);
+        this.poolThreadCount = Math.max(poolThreadCount, 1);
+        this.maxPageSize = Math.max(this.poolThreadCount * 20 * 2, MIN_PAGE_SIZE);      // twice of default (each trigger cost 50ms, qps = 1000/50 = 20)
+
+        this.windowMs = this.maxWindowMs;
+        this.pageSize = Math.max(this.poolThreadCount * 20, MIN_PAGE_SIZE);
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * feedback after each scan, adjust window and page for next scan
+     *
+     * @param dueCount          due job count of this scan
+     * @param triggerCostAvg    avg trigger cost (ms)
+     * @param queueSize         trigger pool queue size
+     * @param queueCapacity     trigger pool queue capacity
+     */
+    public void feedback(int dueCount, double triggerCostAvg, int queueSize, int queueCapacity) {
+        double pressure = queueCapacity > 0 ? Math.min(1.0, (double) queueSize / queueCapacity) : 0;
+        boolean full = dueCount >= pageSize;
+
+        // window
+        long nextWindowMs = windowMs;
+        if (full || pressure > 0.5) {
+            nextWindowMs = windowMs / 2;
+        } else if (dueCount < pageSize / 4) {
+            nextWindowMs = windowMs + MIN_WINDOW_MS;
+        }
+        nextWindowMs = Math.max(MIN_WINDOW_MS, Math.min(maxWindowMs, nextWindowMs));
+
+        // page
+        double triggerQps = poolThreadCount * 1000.0 / Math.max(triggerCostAvg, 1.0);
+        long nextPageSize = (long) (triggerQps * nextWindowMs / 1000.0 * (1.0 - pressure));
+        nextPageSize = Math.max(MIN_PAGE_SIZE, Math.min(maxPageSize, nextPageSize));
+
+        this.windowMs = nextWindowMs;
+        this.pageSize = (int) nextPageSize;
+        this.pageFull = full;
+        this.lastDueCount = dueCount;
+    }
+
+    /**
+     * wait time before next scan
+     *
+     * @param nowTime
+     * @return  0: scan again immediately
+     */
+    public long waitMs(long nowTime) {
+        if (pageFull) {
+            return 0;
+        }
+        if (lastDueCount > 0) {
+            return 1000 - nowTime % 1000;
+        }
+        return windowMs - nowTime % 1000;
+    }
+
+}
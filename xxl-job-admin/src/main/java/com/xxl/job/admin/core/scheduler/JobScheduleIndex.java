@@ -0,0 +1,151 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+
+import java.util.*;
+
+/**
+ * in-memory job schedule index, ordered by (triggerNextTime, jobId)
+ *
+ *      1、load running job once (of owned slots), and apply job change by "put / remove";
+ *      2、scheduler poll due job and "reschedule" it, the changed trigger info is collected as dirty for batch write back;
+ *      3、job changed while polled (put / remove by other thread), the stale reschedule is discarded;
+ *
+ * @author xuxueli 2024-11-22
+ */
+public class JobScheduleIndex {
+
+    private final Map<Integer, XxlJobInfo> jobMap = new HashMap<>();
+    private final TreeSet<Key> keySet = new TreeSet<>();
+    private final Map<Integer, XxlJobInfo> dirtyMap = new LinkedHashMap<>();
+
+    /**
+     * put job (add, update, start, stop), copy schedule fields only
+     */
+    public synchronized void put(XxlJobInfo jobInfo) {
+        removeEntry(jobInfo.getId());
+        dirtyMap.remove(jobInfo.getId());
+
+        XxlJobInfo item = new XxlJobInfo();
+        item.setId(jobInfo.getId());
+        item.setScheduleType(jobInfo.getScheduleType());
+        item.setScheduleConf(jobInfo.getScheduleConf());
+        item.setMisfireStrategy(jobInfo.getMisfireStrategy());
+        item.setTriggerStatus(jobInfo.getTriggerStatus());
+        item.setTriggerLastTime(jobInfo.getTriggerLastTime());
+        item.setTriggerNextTime(jobInfo.getTriggerNextTime());
+        putEntry(item);
+    }
+
+    /**
+     * remove job (delete)
+     */
+    public synchronized void remove(int jobId) {
+        removeEntry(jobId);
+        dirtyMap.remove(jobId);
+    }
+
+    /**
+     * retain job of slot "id % slotCount in slotIds", the others are owned by other admin
+     */
+    public synchronized void retainSlot(int slotCount, Set<Integer> slotIds) {
+        Iterator<Map.Entry<Integer, XxlJobInfo>> iterator = jobMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            XxlJobInfo item = iterator.next().getValue();
+            if (!slotIds.contains(item.getId() % slotCount)) {
+                keySet.remove(new Key(item.getTriggerNextTime(), item.getId()));
+                dirtyMap.remove(item.getId());
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        jobMap.clear();
+        keySet.clear();
+        dirtyMap.clear();
+    }
+
+    /**
+     * poll due job (triggerNextTime <= maxNextTime), polled job leave the index until "reschedule"
+     */
+    public synchronized List<XxlJobInfo> pollDue(long maxNextTime, int limit) {
+        List<XxlJobInfo> dueList = new ArrayList<>();
+        Iterator<Key> iterator = keySet.iterator();
+        while (iterator.hasNext() && dueList.size() < limit) {
+            Key key = iterator.next();
+            if (key.nextTime > maxNextTime) {
+                break;
+            }
+            iterator.remove();
+            dueList.add(jobMap.get(key.jobId));
+        }
+        return dueList;
+    }
+
+    /**
+     * put back polled job with fresh trigger info, and mark dirty
+     *
+     * @return  false if job changed while polled (stale, discard)
+     */
+    public synchronized boolean reschedule(XxlJobInfo jobInfo) {
+        if (jobMap.get(jobInfo.getId()) != jobInfo) {
+            return false;
+        }
+        jobMap.remove(jobInfo.getId());
+        putEntry(jobInfo);
+        dirtyMap.put(jobInfo.getId(), jobInfo);
+        return true;
+    }
+
+    /**
+     * dirty job since last drain, to write back
+     */
+    public synchronized List<XxlJobInfo> drainDirty() {
+        List<XxlJobInfo> dirtyList = new ArrayList<>(dirtyMap.values());
+        dirtyMap.clear();
+        return dirtyList;
+    }
+
+    public synchronized int size() {
+        return jobMap.size();
+    }
+
+    private void putEntry(XxlJobInfo item) {
+        // only running job is indexed
+        if (item.getTriggerStatus() != 1) {
+            return;
+        }
+        jobMap.put(item.getId(), item);
+        keySet.add(new Key(item.getTriggerNextTime(), item.getId()));
+    }
+
+    private void removeEntry(int jobId) {
+        XxlJobInfo old = jobMap.remove(jobId);
+        if (old != null) {
+            keySet.remove(new Key(old.getTriggerNextTime(), jobId));
+        }
+    }
+
+
+    // ---------------------- key ----------------------
+
+    private static class Key implements Comparable<Key> {
+        private final long nextTime;
+        private final int jobId;
+
+        Key(long nextTime, int jobId) {
+            this.nextTime = nextTime;
+            this.jobId = jobId;
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            if (nextTime != o.nextTime) {
+                return nextTime < o.nextTime ? -1 : 1;
+            }
+            return Integer.compare(jobId, o.jobId);
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.xxl.job.admin.core.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * hierarchical timing wheel, fire job at exact "triggerNextTime" (millisecond)
+ *
+ *      1、tier: ms (1000 * 1ms) → second (60 * 1s) → minute (60 * 1min) → overflow;
+ *      2、bucket: primitive "jobId + fireTime" array, lock per bucket, safe for concurrent producers;
+ *      3、advance: each ms tick cascade upper tier bucket down, and expire ms bucket;
+ *
+ * @author xuxueli 2024-11-21
+ */
+public class JobTimingWheel {
+
+    private static final int MS_WHEEL_SIZE = 1000;
+    private static final int SECOND_WHEEL_SIZE = 60;
+    private static final int MINUTE_WHEEL_SIZE = 60;
+
+    private static final long SECOND_MS = 1000;
+    private static final long MINUTE_MS = SECOND_MS * SECOND_WHEEL_SIZE;
+    private static final long HOUR_MS = MINUTE_MS * MINUTE_WHEEL_SIZE;
+
+    /**
+     * expire handler
+     */
+    public interface ExpireHandler {
+        void expire(int jobId, long fireTime);
+    }
+
+    private final Bucket[] msWheel = newWheel(MS_WHEEL_SIZE);
+    private final Bucket[] secondWheel = newWheel(SECOND_WHEEL_SIZE);
+    private final Bucket[] minuteWheel = newWheel(MINUTE_WHEEL_SIZE);
+    private final Bucket overflow = new Bucket();
+
+    // add: read lock (concurrent producer); advance: write lock (tier current time change)
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long currentTime;      // last advanced ms, entry "fireTime <= currentTime" is expired
+    private final AtomicLong size = new AtomicLong();
+
+    // advance buffer (only used by advance thread)
+    private final Bucket cascadeBuffer = new Bucket();
+    private final Bucket expireBuffer = new Bucket();
+
+    public JobTimingWheel(long startTime) {
+        this.currentTime = startTime;
+    }
+
+    private static Bucket[] newWheel(int wheelSize) {
+        Bucket[] wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        return wheel;
+    }
+
+    /**
+     * add entry
+     *
+     * @param jobId
+     * @param fireTime
+     * @return  false if already expired (fireTime <= currentTime), caller should fire it directly
+     */
+    public boolean add(int jobId, long fireTime) {
+        lock.readLock().lock();
+        try {
+            if (!place(jobId, fireTime)) {
+                return false;
+            }
+            size.incrementAndGet();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * place entry into the lowest tier covering "fireTime" (hold lock)
+     */
+    private boolean place(int jobId, long fireTime) {
+        long now = currentTime;
+        if (fireTime <= now) {
+            return false;
+        }
+        if (fireTime < now + SECOND_MS) {
+            msWheel[(int) (fireTime % MS_WHEEL_SIZE)].add(jobId, fireTime);
+        } else if (fireTime < (now - now % SECOND_MS) + MINUTE_MS) {
+            secondWheel[(int) ((fireTime / SECOND_MS) % SECOND_WHEEL_SIZE)].add(jobId, fireTime);
+        } else if (fireTime < (now - now % MINUTE_MS) + HOUR_MS) {
+            minuteWheel[(int) ((fireTime / MINUTE_MS) % MINUTE_WHEEL_SIZE)].add(jobId, fireTime);
+        } else {
+            overflow.add(jobId, fireTime);
+        }
+        return true;
+    }
+
+    /**
+     * advance each ms tick until "toTime", and expire entries (single advance thread)
+     *
+     * @param toTime
+     * @param handler
+     * @return  expired entry count
+     */
+    public int advance(long toTime, ExpireHandler handler) {
+        int expireCount = 0;
+        while (currentTime < toTime) {
+            lock.writeLock().lock();
+            try {
+                long tick = currentTime + 1;
+                currentTime = tick;
+
+                // cascade minute (and overflow), then second
+                if (tick % MINUTE_MS == 0) {
+                    cascade(minuteWheel[(int) ((tick / MINUTE_MS) % MINUTE_WHEEL_SIZE)]);
+                    cascade(overflow);
+                }
+                if (tick % SECOND_MS == 0) {
+                    cascade(secondWheel[(int) ((tick / SECOND_MS) % SECOND_WHEEL_SIZE)]);
+                }
+
+                // expire ms bucket
+                msWheel[(int) (tick % MS_WHEEL_SIZE)].drainTo(expireBuffer);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // fire out of lock
+            for (int i = 0; i < expireBuffer.size; i++) {
+                handler.expire(expireBuffer.jobIds[i], expireBuffer.fireTimes[i]);
+            }
+            size.addAndGet(-expireBuffer.size);
+            expireCount += expireBuffer.size;
+            expireBuffer.size = 0;
+        }
+        return expireCount;
+    }
+
+    /**
+     * move bucket entries down to lower tier, expired one go to expire buffer (hold write lock)
+     */
+    private void cascade(Bucket bucket) {
+        bucket.drainTo(cascadeBuffer);
+        for (int i = 0; i < cascadeBuffer.size; i++) {
+            if (!place(cascadeBuffer.jobIds[i], cascadeBuffer.fireTimes[i])) {
+                expireBuffer.add(cascadeBuffer.jobIds[i], cascadeBuffer.fireTimes[i]);
+            }
+        }
+        cascadeBuffer.size = 0;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * pending entry count
+     */
+    public long size() {
+        return size.get();
+    }
+
+
+    // ---------------------- bucket ----------------------
+
+    private static class Bucket {
+        private static final int SHRINK_CAPACITY = 1024;
+
+        private int[] jobIds = new int[4];
+        private long[] fireTimes = new long[4];
+        private int size = 0;
+
+        synchronized void add(int jobId, long fireTime) {
+            if (size == jobIds.length) {
+                int newCapacity = jobIds.length << 1;
+                int[] newJobIds = new int[newCapacity];
+                long[] newFireTimes = new long[newCapacity];
+                System.arraycopy(jobIds, 0, newJobIds, 0, size);
+                System.arraycopy(fireTimes, 0, newFireTimes, 0, size);
+                jobIds = newJobIds;
+                fireTimes = newFireTimes;
+            }
+            jobIds[size] = jobId;
+            fireTimes[size] = fireTime;
+            size++;
+        }
+
+        /**
+         * append all entries to target, and clear (shrink if grown by burst)
+         */
+        synchronized void drainTo(Bucket target) {
+            for (int i = 0; i < size; i++) {
+                target.add(jobIds[i], fireTimes[i]);
+            }
+            size = 0;
+            if (jobIds.length > SHRINK_CAPACITY) {
+                jobIds = new int[4];
+                fireTimes = new long[4];
+            }
+        }
+    }
+
+}
@@ -3,9 +3,11 @@ package com.xxl.job.admin.core.scheduler;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.thread.*;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.VirtualThreadUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.client.ExecutorBizClient;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.util.XxlJobRemotingAsyncUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,9 +26,23 @@ public class XxlJobScheduler  {
         // init i18n
         initI18n();
 
+        // init virtual thread ( before thread pool created )
+        VirtualThreadUtil.init(XxlJobAdminConfig.getAdminConfig().isThreadPoolVirtualEnable(),
+                XxlJobAdminConfig.getAdminConfig().getThreadPoolVirtualMax(),
+                XxlJobAdminConfig.getAdminConfig().getDataSourceMaxPoolSize());
+
+        // admin log async write start
+        JobLogWriteHelper.getInstance().start();
+
         // admin trigger pool start
         JobTriggerPoolHelper.toStart();
 
+        // admin trigger batch start
+        JobTriggerBatchHelper.getInstance().start();
+
+        // admin route probe start
+        JobRouteProbeHelper.getInstance().start();
+
         // admin registry monitor run
         JobRegistryHelper.getInstance().start();
 
@@ -63,9 +79,21 @@ public class XxlJobScheduler  {
         // admin registry stop
         JobRegistryHelper.getInstance().toStop();
 
+        // admin trigger batch stop ( before JobTriggerPoolHelper, send pending trigger )
+        JobTriggerBatchHelper.getInstance().toStop();
+
         // admin trigger pool stop
         JobTriggerPoolHelper.toStop();
 
+        // admin route probe stop ( after JobTriggerPoolHelper, no more route )
+        JobRouteProbeHelper.getInstance().toStop();
+
+        // admin log async write stop ( after JobTriggerPoolHelper, drain pending log )
+        JobLogWriteHelper.getInstance().toStop();
+
+        // admin remoting async client stop
+        XxlJobRemotingAsyncUtil.shutdown();
+
     }
 
     // ---------------------- I18n ----------------------
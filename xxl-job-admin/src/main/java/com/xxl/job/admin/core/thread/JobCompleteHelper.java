@@ -4,6 +4,7 @@ import com.xxl.job.admin.core.complete.XxlJobCompleter;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.VirtualThreadUtil;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.util.DateUtil;
@@ -35,18 +36,12 @@ public class JobCompleteHelper {
 	public void start(){
 
 		// for callback
-		callbackThreadPool = new ThreadPoolExecutor(
+		callbackThreadPool = VirtualThreadUtil.newThreadPool(
+				"xxl-job, admin JobLosedMonitorHelper-callbackThreadPool-",
 				2,
 				20,
 				30L,
-				TimeUnit.SECONDS,
 				new LinkedBlockingQueue<Runnable>(3000),
-				new ThreadFactory() {
-					@Override
-					public Thread newThread(Runnable r) {
-						return new Thread(r, "xxl-job, admin JobLosedMonitorHelper-callbackThreadPool-" + r.hashCode());
-					}
-				},
 				new RejectedExecutionHandler() {
 					@Override
 					public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
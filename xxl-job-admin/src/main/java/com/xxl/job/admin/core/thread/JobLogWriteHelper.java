@@ -0,0 +1,343 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.metrics.JobMetrics;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * job log async write helper, batch log write off the trigger path
+ *
+ *      1、log id: allocated from pre-allocated id segment (table "xxl_job_id_segment", compare and set), one db round trip each segment;
+ *      2、log init: written before trigger (callback and lost-monitor always find it), group commit: trigger thread wait, writer insert pending log of all trigger thread in one batch;
+ *      3、trigger info: written after trigger, by background writer in batch update; admin crash before written, log kept (trigger code 0), finished by callback or lost-monitor;
+ *      4、id conflict: log written with auto increment id (admin with async write disabled) may take id in segment, found when log init written (before trigger), skip segment and write with new id;
+ *      5、bounded: queue full, write in caller thread (back pressure, not drop); stop: drain all before exit;
+ *
+ * @author xuxueli 2024-11-28
+ */
+public class JobLogWriteHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobLogWriteHelper.class);
+
+    private static JobLogWriteHelper instance = new JobLogWriteHelper();
+    public static JobLogWriteHelper getInstance(){
+        return instance;
+    }
+
+    public static final String SEGMENT_BIZ_TAG = "job_log";
+    public static final int SEGMENT_STEP = 1000;            // id count each segment
+    public static final int QUEUE_CAPACITY = 10000;         // pending log, bounded memory
+    public static final int BATCH_SIZE = 500;               // rows each insert statement
+    public static final long FLUSH_INTERVAL_MS = 50;        // writer wait, when batch not full
+    public static final int ID_CONFLICT_RETRY = 3;          // id conflict with auto increment log, retry with new id
+
+    private volatile boolean enable = false;
+    private Thread writeThread;
+    private volatile boolean toStop = false;
+    private final LinkedBlockingQueue<InitRequest> initQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final LinkedBlockingQueue<XxlJobLog> triggerInfoQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock segmentLock = new ReentrantLock();     // not synchronized, db in lock not pin virtual thread
+
+    // id segment: [segmentNextId, segmentMaxId]
+    private long segmentNextId = 1;
+    private long segmentMaxId = 0;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void start(){
+        if (!XxlJobAdminConfig.getAdminConfig().isLogAsyncWriteEnable()) {
+            return;
+        }
+
+        // init segment
+        XxlJobAdminConfig.getAdminConfig().getXxlJobIdSegmentDao().initSegment(SEGMENT_BIZ_TAG);
+
+        // metrics
+        JobMetrics.gauge("xxl.job.log.write.queue", "job log pending async write", () -> initQueue.size() + triggerInfoQueue.size());
+
+        // write thread
+        startWriteThread();
+
+        enable = true;
+        logger.info(">>>>>>>>> init xxl-job admin log async write success.");
+    }
+
+    void startWriteThread() {
+        writeThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        // log init first (trigger thread waiting), wait for it when idle; then trigger info
+                        writeInitBatch(FLUSH_INTERVAL_MS);
+                        writeTriggerInfoBatch();
+                    } catch (Throwable e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobLogWriteHelper#writeThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobLogWriteHelper#writeThread stop");
+            }
+        });
+        writeThread.setDaemon(true);
+        writeThread.setName("xxl-job, admin JobLogWriteHelper#writeThread");
+        writeThread.start();
+    }
+
+    public void toStop(){
+        if (writeThread == null) {
+            return;
+        }
+        toStop = true;
+
+        // stop write thread (wait, not interrupt writing)
+        try {
+            writeThread.join();
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        // drain pending log
+        flush();
+        enable = false;
+    }
+
+
+    // ---------------------- id segment ----------------------
+
+    /**
+     * allocate log id
+     */
+    public long allocateLogId() {
+        segmentLock.lock();
+        try {
+            if (segmentNextId > segmentMaxId) {
+                loadSegment();
+            }
+            return segmentNextId++;
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    /**
+     * take next segment "(fromId, fromId + step]", compare and set, retry when taken by other admin
+     */
+    private void loadSegment() {
+        for (int i = 0; i < 10; i++) {
+            Long maxId = XxlJobAdminConfig.getAdminConfig().getXxlJobIdSegmentDao().loadMaxId(SEGMENT_BIZ_TAG);
+            if (maxId == null) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobIdSegmentDao().initSegment(SEGMENT_BIZ_TAG);
+                continue;
+            }
+
+            // start after exists log (log written by auto increment id before)
+            long fromId = Math.max(maxId, XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findMaxId());
+            long newMaxId = fromId + SEGMENT_STEP;
+            if (XxlJobAdminConfig.getAdminConfig().getXxlJobIdSegmentDao().updateMaxId(SEGMENT_BIZ_TAG, maxId, newMaxId) > 0) {
+                segmentNextId = fromId + 1;
+                segmentMaxId = newMaxId;
+                logger.debug(">>>>>>>>>>> xxl-job, log id segment load, segment = ({}, {}]", fromId, newMaxId);
+                return;
+            }
+        }
+        throw new IllegalStateException("xxl-job, log id segment load fail.");
+    }
+
+    /**
+     * id in current segment taken (log written with auto increment id), skip rest of segment, next id from new segment
+     */
+    private void skipSegment(long conflictId) {
+        segmentLock.lock();
+        try {
+            if (conflictId > segmentMaxId - SEGMENT_STEP && conflictId <= segmentMaxId) {
+                segmentNextId = segmentMaxId + 1;
+            }
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+
+    // ---------------------- write ----------------------
+
+    /**
+     * log init request, trigger thread wait until written
+     */
+    private static class InitRequest {
+        private final List<XxlJobLog> logList;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private InitRequest(List<XxlJobLog> logList) {
+            this.logList = logList;
+        }
+    }
+
+    /**
+     * write log init (id allocated from segment), return after written; written in batch with log init of other trigger thread
+     */
+    public void persist(List<XxlJobLog> logList) {
+        for (XxlJobLog jobLog: logList) {
+            jobLog.setId(allocateLogId());
+        }
+
+        InitRequest request = new InitRequest(logList);
+        if (writeThread == null || toStop || !initQueue.offer(request)) {
+            // queue full (or stopping), write in caller
+            writeInit(logList);
+            return;
+        }
+        if (toStop && initQueue.remove(request)) {
+            // stopped after offer, may miss the final flush
+            writeInit(logList);
+            return;
+        }
+        try {
+            request.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * add log trigger info to write (log init written before)
+     */
+    public void add(XxlJobLog jobLog) {
+        if (toStop || !triggerInfoQueue.offer(jobLog)) {
+            // queue full (or stopping), write in caller
+            writeTriggerInfo(Collections.singletonList(jobLog));
+        }
+    }
+
+    /**
+     * write all pending log, return after written (include the batch being written by writer)
+     */
+    public void flush() {
+        do {
+            writeInitBatch(0);
+            writeTriggerInfoBatch();
+        } while (!initQueue.isEmpty() || !triggerInfoQueue.isEmpty());
+    }
+
+    private int writeInitBatch(long waitMs) {
+        // wait for first, then take all pending
+        InitRequest first;
+        try {
+            first = waitMs > 0 ? initQueue.poll(waitMs, TimeUnit.MILLISECONDS) : initQueue.poll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        if (first == null) {
+            return 0;
+        }
+        List<InitRequest> requestList = new ArrayList<>();
+        List<XxlJobLog> logList = new ArrayList<>(first.logList);
+        requestList.add(first);
+        InitRequest next;
+        while (logList.size() < BATCH_SIZE && (next = initQueue.poll()) != null) {
+            requestList.add(next);
+            logList.addAll(next.logList);
+        }
+
+        writeLock.lock();
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(logList);
+            for (InitRequest request: requestList) {
+                request.future.complete(null);
+            }
+        } catch (Throwable e) {
+            // batch fail (nothing written, one statement), write each request alone (one fail, not fail others)
+            logger.debug(">>>>>>>>>>> xxl-job, job log init batch write fail, write each alone, size = {}", logList.size(), e);
+            for (InitRequest request: requestList) {
+                try {
+                    writeInit(request.logList);
+                    request.future.complete(null);
+                } catch (Throwable e2) {
+                    request.future.completeExceptionally(e2);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return logList.size();
+    }
+
+    private void writeInit(List<XxlJobLog> logList) {
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(logList);
+        } catch (DuplicateKeyException e) {
+            // id taken by log written with auto increment id, write one by one, conflict log with new id (not triggered yet)
+            for (XxlJobLog jobLog: logList) {
+                writeInitWithRetry(jobLog);
+            }
+        }
+    }
+
+    private void writeInitWithRetry(XxlJobLog jobLog) {
+        for (int i = 0; ; i++) {
+            try {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(Collections.singletonList(jobLog));
+                return;
+            } catch (DuplicateKeyException e) {
+                if (i >= ID_CONFLICT_RETRY) {
+                    throw e;
+                }
+                logger.warn(">>>>>>>>>>> xxl-job, job log id conflict, skip id segment and retry, logId = {}, jobId = {}", jobLog.getId(), jobLog.getJobId());
+                skipSegment(jobLog.getId());
+                jobLog.setId(allocateLogId());
+            }
+        }
+    }
+
+    private int writeTriggerInfoBatch() {
+        writeLock.lock();
+        try {
+            List<XxlJobLog> logList = new ArrayList<>();
+            triggerInfoQueue.drainTo(logList, BATCH_SIZE);
+            if (!logList.isEmpty()) {
+                writeTriggerInfo(logList);
+            }
+            return logList.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeTriggerInfo(List<XxlJobLog> logList) {
+        try {
+            if (logList.size() == 1) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(logList.get(0));
+            } else {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfoBatch(logList);
+            }
+        } catch (Throwable e) {
+            if (logList.size() == 1) {
+                logger.error(">>>>>>>>>>> xxl-job, job log trigger info write fail, logId = {}, jobId = {}", logList.get(0).getId(), logList.get(0).getJobId(), e);
+                return;
+            }
+
+            // batch fail, write one by one (not lose others)
+            logger.warn(">>>>>>>>>>> xxl-job, job log trigger info batch write fail, write one by one, size = {}", logList.size(), e);
+            for (XxlJobLog jobLog: logList) {
+                writeTriggerInfo(Collections.singletonList(jobLog));
+            }
+        }
+    }
+
+}
@@ -3,6 +3,12 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.ExecutorCapacityCache;
+import com.xxl.job.admin.core.route.ExecutorLoadTracker;
+import com.xxl.job.admin.core.route.ExecutorRegistryCache;
+import com.xxl.job.admin.core.trigger.JobMetadataCache;
+import com.xxl.job.admin.core.util.VirtualThreadUtil;
+import com.xxl.job.admin.dao.XxlJobRegistryDao;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
@@ -27,23 +33,24 @@ public class JobRegistryHelper {
 
 	private ThreadPoolExecutor registryOrRemoveThreadPool = null;
 	private Thread registryMonitorThread;
+	private Thread registryFlushThread;
 	private volatile boolean toStop = false;
+	private final ConcurrentMap<String, Object> freshLockMap = new ConcurrentHashMap<String, Object>();
+
+	private static final int BEAT_FLUSH_BATCH_SIZE = 500;
+	private volatile int beatFlushInterval = 0;
+	private final ConcurrentMap<String, XxlJobRegistry> beatFlushMap = new ConcurrentHashMap<String, XxlJobRegistry>();
+	private final Object beatFlushLock = new Object();
 
 	public void start(){
 
 		// for registry or remove
-		registryOrRemoveThreadPool = new ThreadPoolExecutor(
+		registryOrRemoveThreadPool = VirtualThreadUtil.newThreadPool(
+				"xxl-job, admin JobRegistryMonitorHelper-registryOrRemoveThreadPool-",
 				2,
 				10,
 				30L,
-				TimeUnit.SECONDS,
 				new LinkedBlockingQueue<Runnable>(2000),
-				new ThreadFactory() {
-					@Override
-					public Thread newThread(Runnable r) {
-						return new Thread(r, "xxl-job, admin JobRegistryMonitorHelper-registryOrRemoveThreadPool-" + r.hashCode());
-					}
-				},
 				new RejectedExecutionHandler() {
 					@Override
 					public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
@@ -62,7 +69,8 @@ public class JobRegistryHelper {
 						List<XxlJobGroup> groupList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAddressType(0);
 						if (groupList!=null && !groupList.isEmpty()) {
 
-							// remove dead address (admin/executor)
+							// remove dead address (admin/executor); beat received by this admin, dead by in-memory beat time
+							Set<String> deadAppnameSet = ExecutorRegistryCache.getInstance().removeDead(System.currentTimeMillis());
 							List<Integer> ids = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findDead(RegistryConfig.DEAD_TIMEOUT, new Date());
 							if (ids!=null && ids.size()>0) {
 								XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
@@ -71,6 +79,7 @@ public class JobRegistryHelper {
 							// fresh online address (admin/executor)
 							HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
 							List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
+							ExecutorCapacityCache.getInstance().fresh(list);
 							if (list != null) {
 								for (XxlJobRegistry item: list) {
 									if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())) {
@@ -88,23 +97,16 @@ public class JobRegistryHelper {
 								}
 							}
 
-							// fresh group address
+							// fresh group address, changed only (online / remove fresh at once by registry event; here for dead and missed event)
+							Set<String> changedAppnameSet = new HashSet<String>(deadAppnameSet);
 							for (XxlJobGroup group: groupList) {
-								List<String> registryList = appAddressMap.get(group.getAppname());
-								String addressListStr = null;
-								if (registryList!=null && !registryList.isEmpty()) {
-									Collections.sort(registryList);
-									StringBuilder addressListSB = new StringBuilder();
-									for (String item:registryList) {
-										addressListSB.append(item).append(",");
-									}
-									addressListStr = addressListSB.toString();
-									addressListStr = addressListStr.substring(0, addressListStr.length()-1);
+								String addressListStr = joinAddressList(appAddressMap.get(group.getAppname()));
+								if (!isSameAddressList(group.getAddressList(), addressListStr)) {
+									changedAppnameSet.add(group.getAppname());
 								}
-								group.setAddressList(addressListStr);
-								group.setUpdateTime(new Date());
-
-								XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
+							}
+							for (String appname: changedAppnameSet) {
+								freshGroupAddress(appname);
 							}
 						}
 					} catch (Throwable e) {
@@ -126,6 +128,30 @@ public class JobRegistryHelper {
 		registryMonitorThread.setDaemon(true);
 		registryMonitorThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryMonitorThread");
 		registryMonitorThread.start();
+
+		// for beat flush
+		beatFlushInterval = XxlJobAdminConfig.getAdminConfig().getRegistryBeatFlushInterval();
+		if (beatFlushInterval > 0) {
+			registryFlushThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (!toStop) {
+						try {
+							TimeUnit.SECONDS.sleep(beatFlushInterval);
+						} catch (Throwable e) {
+							if (!toStop) {
+								logger.error(">>>>>>>>>>> xxl-job, job registry flush thread error:{}", e);
+							}
+						}
+						flushBeat(XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao());
+					}
+					logger.info(">>>>>>>>>>> xxl-job, job registry flush thread stop");
+				}
+			});
+			registryFlushThread.setDaemon(true);
+			registryFlushThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryFlushThread");
+			registryFlushThread.start();
+		}
 	}
 
 	public void toStop(){
@@ -141,6 +167,16 @@ public class JobRegistryHelper {
 		} catch (Throwable e) {
 			logger.error(e.getMessage(), e);
 		}
+
+		// stop flush (interrupt and wait, beat left flushed before stop)
+		if (registryFlushThread != null) {
+			registryFlushThread.interrupt();
+			try {
+				registryFlushThread.join();
+			} catch (Throwable e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
 	}
 
 
@@ -155,13 +191,28 @@ public class JobRegistryHelper {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
 		}
 
+		// executor load, online
+		boolean online = false;
+		if (RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			ExecutorLoadTracker.getInstance().report(registryParam);
+			ExecutorCapacityCache.getInstance().put(registryParam.getRegistryValue(), registryParam.getWeight(), registryParam.getMaxConcurrency());
+			online = ExecutorRegistryCache.getInstance().beat(registryParam.getRegistryKey(), registryParam.getRegistryValue(), System.currentTimeMillis());
+		}
+		final boolean freshNow = online;
+
+		// beat of online executor, held in memory and flushed in batch (online written at once)
+		if (beatFlushInterval > 0 && !online && RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			bufferBeat(registryParam, new Date());
+			return ReturnT.SUCCESS;
+		}
+
 		// async execute
 		registryOrRemoveThreadPool.execute(new Runnable() {
 			@Override
 			public void run() {
 				// 0-fail; 1-save suc; 2-update suc;
-				int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySaveOrUpdate(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), new Date());
-				if (ret == 1) {
+				int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySaveOrUpdate(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), registryParam.getWeight(), registryParam.getMaxConcurrency(), new Date());
+				if (ret == 1 || freshNow) {
 					// fresh (add)
 					freshGroupRegistryInfo(registryParam);
 				}
@@ -187,12 +238,20 @@ public class JobRegistryHelper {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
 		}
 
+		// executor load, offline
+		boolean offline = false;
+		if (RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			ExecutorLoadTracker.getInstance().remove(registryParam.getRegistryValue());
+			offline = ExecutorRegistryCache.getInstance().remove(registryParam.getRegistryKey(), registryParam.getRegistryValue());
+		}
+		final boolean freshNow = offline;
+
 		// async execute
 		registryOrRemoveThreadPool.execute(new Runnable() {
 			@Override
 			public void run() {
-				int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryDelete(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue());
-				if (ret > 0) {
+				int ret = removeBeat(XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao(), registryParam);
+				if (ret > 0 || freshNow) {
 					// fresh (delete)
 					freshGroupRegistryInfo(registryParam);
 				}
@@ -202,8 +261,151 @@ public class JobRegistryHelper {
 		return ReturnT.SUCCESS;
 	}
 
+	// ---------------------- beat flush ----------------------
+
+	private static String beatKey(String registryGroup, String registryKey, String registryValue) {
+		return registryGroup + "#" + registryKey + "#" + registryValue;
+	}
+
+	/**
+	 * hold beat in memory, latest beat of each executor kept
+	 */
+	void bufferBeat(RegistryParam registryParam, Date beatTime) {
+		XxlJobRegistry beat = new XxlJobRegistry();
+		beat.setRegistryGroup(registryParam.getRegistryGroup());
+		beat.setRegistryKey(registryParam.getRegistryKey());
+		beat.setRegistryValue(registryParam.getRegistryValue());
+		beat.setWeight(registryParam.getWeight());
+		beat.setMaxConcurrency(registryParam.getMaxConcurrency());
+		beat.setUpdateTime(beatTime);
+		beatFlushMap.put(beatKey(beat.getRegistryGroup(), beat.getRegistryKey(), beat.getRegistryValue()), beat);
+	}
+
+	/**
+	 * remove beat held in memory and delete registry, under flush lock (beat drained by running flush not written after delete)
+	 *
+	 * @return registry count deleted
+	 */
+	int removeBeat(XxlJobRegistryDao registryDao, RegistryParam registryParam) {
+		synchronized (beatFlushLock) {
+			beatFlushMap.remove(beatKey(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue()));
+			return registryDao.registryDelete(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue());
+		}
+	}
+
+	/**
+	 * flush beat held in memory, batched upsert; fail beat kept for next flush (unless newer beat arrived)
+	 *
+	 * @return beat count flushed
+	 */
+	int flushBeat(XxlJobRegistryDao registryDao) {
+		if (beatFlushMap.isEmpty()) {
+			return 0;
+		}
+		synchronized (beatFlushLock) {
+			return doFlushBeat(registryDao);
+		}
+	}
+
+	private int doFlushBeat(XxlJobRegistryDao registryDao) {
+		// drain
+		List<XxlJobRegistry> beatList = new ArrayList<XxlJobRegistry>(beatFlushMap.size());
+		for (String key: beatFlushMap.keySet()) {
+			XxlJobRegistry beat = beatFlushMap.remove(key);
+			if (beat != null) {
+				beatList.add(beat);
+			}
+		}
+
+		// batch upsert
+		int flushCount = 0;
+		for (int from = 0; from < beatList.size(); from += BEAT_FLUSH_BATCH_SIZE) {
+			List<XxlJobRegistry> batchList = beatList.subList(from, Math.min(from + BEAT_FLUSH_BATCH_SIZE, beatList.size()));
+			try {
+				registryDao.registryBatchSaveOrUpdate(batchList);
+				flushCount += batchList.size();
+			} catch (Throwable e) {
+				logger.error(">>>>>>>>>>> xxl-job, job registry beat flush error:{}", e);
+				for (XxlJobRegistry beat: batchList) {
+					beatFlushMap.putIfAbsent(beatKey(beat.getRegistryGroup(), beat.getRegistryKey(), beat.getRegistryValue()), beat);
+				}
+			}
+		}
+		return flushCount;
+	}
+
+
+	// ---------------------- fresh group address ----------------------
+
 	private void freshGroupRegistryInfo(RegistryParam registryParam){
-		// Under consideration, prevent affecting core tables
+		if (RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			freshGroupAddress(registryParam.getRegistryKey());
+		}
+	}
+
+	/**
+	 * fresh address list of auto registry group, write only when changed
+	 *
+	 * 	1、online address: registry table (beat received by all admin) + beat received by this admin;
+	 * 	2、serial by appname, concurrent fresh of same appname not lost (fresh of other admin at same time, fixed by monitor);
+	 *
+	 * @param appname
+	 */
+	private void freshGroupAddress(String appname) {
+		Object freshLock = freshLockMap.get(appname);
+		if (freshLock == null) {
+			Object newLock = new Object();
+			freshLock = freshLockMap.putIfAbsent(appname, newLock);
+			if (freshLock == null) {
+				freshLock = newLock;
+			}
+		}
+
+		synchronized (freshLock) {
+			List<XxlJobGroup> groupList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAppname(appname, 0);
+			if (groupList==null || groupList.isEmpty()) {
+				return;
+			}
+
+			// online address
+			Set<String> registrySet = new HashSet<String>(ExecutorRegistryCache.getInstance().findAddress(appname));
+			List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findByKey(RegistryConfig.RegistType.EXECUTOR.name(), appname, RegistryConfig.DEAD_TIMEOUT, new Date());
+			if (list != null) {
+				for (XxlJobRegistry item: list) {
+					registrySet.add(item.getRegistryValue());
+				}
+			}
+			String addressListStr = joinAddressList(new ArrayList<String>(registrySet));
+
+			// fresh group address, changed only
+			for (XxlJobGroup group: groupList) {
+				if (isSameAddressList(group.getAddressList(), addressListStr)) {
+					continue;
+				}
+				XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().updateAddressList(group.getId(), addressListStr, new Date());
+				JobMetadataCache.getInstance().invalidateGroup(group.getId());
+				logger.info(">>>>>>>>>>> xxl-job, group address fresh, appname:{}, address size:{}", appname, registrySet.size());
+			}
+		}
+	}
+
+	private static String joinAddressList(List<String> registryList) {
+		if (registryList==null || registryList.isEmpty()) {
+			return null;
+		}
+		Collections.sort(registryList);
+		StringBuilder addressListSB = new StringBuilder();
+		for (String item:registryList) {
+			addressListSB.append(item).append(",");
+		}
+		String addressListStr = addressListSB.toString();
+		return addressListStr.substring(0, addressListStr.length()-1);
+	}
+
+	private static boolean isSameAddressList(String addressList, String addressList2) {
+		return StringUtils.hasText(addressList)
+				? addressList.equals(addressList2)
+				: !StringUtils.hasText(addressList2);
 	}
 
 
@@ -0,0 +1,272 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.util.VirtualThreadUtil;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * job route probe helper, beat / idleBeat executor address for route "FAILOVER" / "BUSYOVER"
+ *
+ *      1、hedged probe: probe address in order, next address probed when last one fail, or not answered in "hedge delay" (at most "fanout" in flight); first success taken, others not waited
+ *          (not started one cancelled; in flight one interrupted, but blocking http read not aborted, ends by its read timeout);
+ *      2、probe result cache: recent success used at once (if allowed), recent fail probed last; cached for "cache ttl" ms, LRU bounded;
+ *      3、fanout 1 (or not started): probe one by one, as before;
+ *
+ * @author xuxueli 2024-12-06
+ */
+public class JobRouteProbeHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobRouteProbeHelper.class);
+
+    private static JobRouteProbeHelper instance = new JobRouteProbeHelper();
+    public static JobRouteProbeHelper getInstance(){
+        return instance;
+    }
+
+    static final int CACHE_MAX = 10000;
+
+    private ThreadPoolExecutor probeThreadPool = null;
+    private volatile int fanout = 1;
+    private volatile long hedgeDelayMs = 0;
+    private volatile long cacheTtlMs = 0;
+    private final Map<String, ProbeResult> probeResultCache = new LinkedHashMap<String, ProbeResult>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ProbeResult> eldest) {
+            return size() > CACHE_MAX;
+        }
+    };
+
+    public void start(){
+        start(XxlJobAdminConfig.getAdminConfig().getRouteProbeFanout(),
+                XxlJobAdminConfig.getAdminConfig().getRouteProbeHedgeDelay(),
+                XxlJobAdminConfig.getAdminConfig().getRouteProbeCacheTtl());
+    }
+
+    void start(int fanout, long hedgeDelayMs, long cacheTtlMs){
+        this.fanout = fanout;
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.cacheTtlMs = cacheTtlMs;
+        if (fanout <= 1) {
+            return;
+        }
+
+        probeThreadPool = VirtualThreadUtil.newThreadPool(
+                "xxl-job, admin JobRouteProbeHelper-probeThreadPool-",
+                fanout * 2,
+                200,
+                30L,
+                new SynchronousQueue<Runnable>(),
+                null);      // rejected: probe in caller thread
+    }
+
+    public void toStop(){
+        if (probeThreadPool != null) {
+            probeThreadPool.shutdownNow();
+            probeThreadPool = null;
+        }
+        synchronized (probeResultCache) {
+            probeResultCache.clear();
+        }
+        logger.info(">>>>>>>>>>> xxl-job, job route probe stop");
+    }
+
+
+    // ---------------------- probe ----------------------
+
+    private static class ProbeResult {
+        private final String address;
+        private final ReturnT<String> result;
+        private final long time;
+
+        private ProbeResult(String address, ReturnT<String> result) {
+            this.address = address;
+            this.result = result;
+            this.time = System.currentTimeMillis();
+        }
+
+        private boolean isSuccess() {
+            return result.getCode() == ReturnT.SUCCESS_CODE;
+        }
+    }
+
+    /**
+     * probe task, completed task put into queue
+     */
+    private static class ProbeTask extends FutureTask<ProbeResult> {
+        private final BlockingQueue<ProbeTask> completionQueue;
+
+        private ProbeTask(final String address, final Function<String, ReturnT<String>> probeCall, BlockingQueue<ProbeTask> completionQueue) {
+            super(new Callable<ProbeResult>() {
+                @Override
+                public ProbeResult call() throws Exception {
+                    ReturnT<String> result = null;
+                    try {
+                        result = probeCall.apply(address);
+                    } catch (Exception e) {
+                        logger.error(e.getMessage(), e);
+                        result = new ReturnT<String>(ReturnT.FAIL_CODE, ""+e );
+                    }
+                    return new ProbeResult(address, result);
+                }
+            });
+            this.completionQueue = completionQueue;
+        }
+
+        @Override
+        protected void done() {
+            completionQueue.offer(this);
+        }
+    }
+
+    /**
+     * probe address, first success taken
+     *
+     * @param addressList
+     * @param cacheKey          probe result cache key (with address), e.g. "beat", "idleBeat-jobId"
+     * @param cacheSuccess      cache success result (and use it), or only fail result
+     * @param title             probe title, in result msg
+     * @param probeCall         address -> probe result
+     * @return  success: content is address; msg is probe result of each address
+     */
+    public ReturnT<String> probe(List<String> addressList,
+                                 String cacheKey,
+                                 boolean cacheSuccess,
+                                 String title,
+                                 Function<String, ReturnT<String>> probeCall) {
+        StringBuffer probeResultSB = new StringBuffer();
+
+        // 1、probe order: recent fail probed last; recent success used at once, if no address before it to probe
+        List<String> probeList = addressList;
+        if (cacheTtlMs > 0) {
+            probeList = new ArrayList<>(addressList.size());
+            List<String> failList = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (String address : addressList) {
+                ProbeResult cached;
+                synchronized (probeResultCache) {
+                    cached = probeResultCache.get(cacheKey + "@" + address);
+                }
+                if (cached != null && now - cached.time < cacheTtlMs) {
+                    if (!cached.isSuccess()) {
+                        failList.add(address);
+                        continue;
+                    }
+                    if (cacheSuccess && probeList.isEmpty()) {
+                        appendResult(probeResultSB, title, cached);
+                        return successResult(probeResultSB, cached);
+                    }
+                }
+                probeList.add(address);
+            }
+            probeList.addAll(failList);
+        }
+
+        // 2、hedged probe
+        if (probeList.isEmpty()) {
+            return new ReturnT<String>(ReturnT.FAIL_CODE, probeResultSB.toString());
+        }
+        BlockingQueue<ProbeTask> completionQueue = new LinkedBlockingQueue<>();
+        List<ProbeTask> probeTaskList = new ArrayList<>(probeList.size());
+        int inFlight = 0;
+        try {
+            launch(probeList.get(0), probeCall, completionQueue, probeTaskList);
+            inFlight++;
+
+            while (inFlight > 0) {
+                // wait result; hedge delay passed, probe next address
+                ProbeTask probeTask;
+                if (probeTaskList.size() < probeList.size() && inFlight < fanout) {
+                    probeTask = completionQueue.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+                    if (probeTask == null) {
+                        launch(probeList.get(probeTaskList.size()), probeCall, completionQueue, probeTaskList);
+                        inFlight++;
+                        continue;
+                    }
+                } else {
+                    probeTask = completionQueue.take();
+                }
+                inFlight--;
+
+                ProbeResult probeResult = probeTask.get();
+                appendResult(probeResultSB, title, probeResult);
+                cacheResult(cacheKey, cacheSuccess, probeResult);
+                if (probeResult.isSuccess()) {
+                    return successResult(probeResultSB, probeResult);
+                }
+
+                // fail, probe next address
+                if (probeTaskList.size() < probeList.size()) {
+                    launch(probeList.get(probeTaskList.size()), probeCall, completionQueue, probeTaskList);
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            probeResultSB.append((probeResultSB.length()>0)?"<br><br>":"").append(e);
+        } catch (ExecutionException e) {
+            logger.error(e.getMessage(), e);
+            probeResultSB.append((probeResultSB.length()>0)?"<br><br>":"").append(e);
+        } finally {
+            // others not waited: not started cancelled, in flight interrupted (blocking http read ends by read timeout)
+            for (ProbeTask probeTask : probeTaskList) {
+                probeTask.cancel(true);
+            }
+        }
+
+        return new ReturnT<String>(ReturnT.FAIL_CODE, probeResultSB.toString());
+    }
+
+    private void launch(String address, Function<String, ReturnT<String>> probeCall, BlockingQueue<ProbeTask> completionQueue, List<ProbeTask> probeTaskList) {
+        ProbeTask probeTask = new ProbeTask(address, probeCall, completionQueue);
+        probeTaskList.add(probeTask);
+
+        ThreadPoolExecutor threadPool = probeThreadPool;
+        if (threadPool != null && fanout > 1) {
+            try {
+                threadPool.execute(probeTask);
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.warn(">>>>>>>>>>> xxl-job, route probe thread pool full, probe in caller thread, address:{}", address);
+            }
+        }
+        probeTask.run();
+    }
+
+    private void cacheResult(String cacheKey, boolean cacheSuccess, ProbeResult probeResult) {
+        if (cacheTtlMs <= 0 || (probeResult.isSuccess() && !cacheSuccess)) {
+            return;
+        }
+        synchronized (probeResultCache) {
+            probeResultCache.put(cacheKey + "@" + probeResult.address, probeResult);
+        }
+    }
+
+    private static void appendResult(StringBuffer probeResultSB, String title, ProbeResult probeResult) {
+        probeResultSB.append( (probeResultSB.length()>0)?"<br><br>":"")
+                .append(title + "：")
+                .append("<br>address：").append(probeResult.address)
+                .append("<br>code：").append(probeResult.result.getCode())
+                .append("<br>msg：").append(probeResult.result.getMsg());
+    }
+
+    int getCacheSize() {
+        synchronized (probeResultCache) {
+            return probeResultCache.size();
+        }
+    }
+
+    private static ReturnT<String> successResult(StringBuffer probeResultSB, ProbeResult probeResult) {
+        ReturnT<String> result = new ReturnT<String>(probeResult.result.getCode(), probeResultSB.toString());
+        result.setContent(probeResult.address);
+        return result;
+    }
+
+}
@@ -1,8 +1,12 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
-import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
+import com.xxl.job.admin.core.metrics.JobMetrics;
 import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.JobPreReadController;
+import com.xxl.job.admin.core.scheduler.JobScheduleIndex;
+import com.xxl.job.admin.core.scheduler.JobTimingWheel;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
@@ -12,8 +16,9 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author xuxueli 2019-05-21
@@ -26,16 +31,41 @@ public class JobScheduleHelper {
         return instance;
     }
 
-    public static final long PRE_READ_MS = 5000;    // pre read
+    public static final long PRE_READ_MS = 5000;    // pre read (max window), misfire threshold
+    public static final long INDEX_RELOAD_MS = 5 * 60 * 1000;       // schedule index full reload, clean job removed by other admin
+    public static final long INDEX_SYNC_OVERLAP_MS = 30 * 1000;     // schedule index incremental sync overlap, tolerate clock skew and commit delay
+    public static final int UPDATE_BATCH_SIZE = 500;                // schedule update batch size, one statement each batch
 
     private Thread scheduleThread;
     private Thread ringThread;
     private volatile boolean scheduleThreadToStop = false;
     private volatile boolean ringThreadToStop = false;
-    private volatile static Map<Integer, List<Integer>> ringData = new ConcurrentHashMap<>();
+    private final JobTimingWheel timeRing = new JobTimingWheel(System.currentTimeMillis());
+    private JobSchedulePartitionHelper partitionHelper;
+
+    private JobScheduleIndex scheduleIndex;
+    private final ConcurrentLinkedQueue<XxlJobInfo> indexChangeQueue = new ConcurrentLinkedQueue<>();
+    private Set<Integer> indexSlotIds;
+    private long indexLoadTime;
+    private long indexSyncTime;
 
     public void start(){
 
+        // schedule partition (claim slot before schedule; schedule index work with it)
+        if (XxlJobAdminConfig.getAdminConfig().isSchedulePartitionEnable() || XxlJobAdminConfig.getAdminConfig().isScheduleIndexEnable()) {
+            partitionHelper = new JobSchedulePartitionHelper(XxlJobAdminConfig.getAdminConfig().getSchedulePartitionSlotCount());
+            partitionHelper.start();
+        }
+
+        // schedule index
+        if (XxlJobAdminConfig.getAdminConfig().isScheduleIndexEnable()) {
+            scheduleIndex = new JobScheduleIndex();
+            JobMetrics.gauge("xxl.job.schedule.index.size", "schedule index job count", () -> scheduleIndex.size());
+        }
+
+        // metrics
+        JobMetrics.gauge("xxl.job.schedule.ring.size", "time-ring pending job count (pre-read, not fired)", () -> timeRing.size());
+
         // schedule thread
         scheduleThread = new Thread(new Runnable() {
             @Override
@@ -50,8 +80,9 @@ public class JobScheduleHelper {
                 }
                 logger.info(">>>>>>>>> init xxl-job admin scheduler success.");
 
-                // pre-read count: treadpool-size * trigger-qps (each trigger cost 50ms, qps = 1000/50 = 20)
-                int preReadCount = (XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax()) * 20;
+                // pre-read window and count: adaptive, by trigger cost, trigger pool queue and due job count
+                JobPreReadController preReadController = new JobPreReadController(PRE_READ_MS,
+                        XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax());
 
                 while (!scheduleThreadToStop) {
 
@@ -62,22 +93,43 @@ public class JobScheduleHelper {
                     Boolean connAutoCommit = null;
                     PreparedStatement preparedStatement = null;
 
-                    boolean preReadSuc = true;
+                    long preReadMs = preReadController.getWindowMs();
+                    int preReadCount = preReadController.getPageSize();
+                    int dueCount = 0;
                     try {
 
                         conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
                         connAutoCommit = conn.getAutoCommit();
                         conn.setAutoCommit(false);
 
-                        preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = 'schedule_lock' for update" );
-                        preparedStatement.execute();
+                        // lock: global "schedule_lock", or owned slot rows (schedule partition)
+                        long lockStart = System.currentTimeMillis();
+                        List<Integer> slotIds = null;
+                        if (partitionHelper != null) {
+                            slotIds = partitionHelper.lockOwnedSlot(conn);
+                        } else {
+                            preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = 'schedule_lock' for update" );
+                            preparedStatement.execute();
+                        }
+                        JobMetrics.recordScheduleLockWait(System.currentTimeMillis() - lockStart);
 
                         // tx start
 
-                        // 1、pre read
+                        // 1、pre read: from schedule index, or db
+                        List<XxlJobInfo> scheduleList = null;
+                        if (scheduleIndex != null) {
+                            syncScheduleIndex(slotIds);
+                        }
                         long nowTime = System.currentTimeMillis();
-                        List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + PRE_READ_MS, preReadCount);
+                        if (scheduleIndex != null) {
+                            scheduleList = scheduleIndex.pollDue(nowTime + preReadMs, preReadCount);
+                        } else if (slotIds == null || !slotIds.isEmpty()) {
+                            scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + preReadMs, preReadCount,
+                                    (partitionHelper!=null?partitionHelper.getSlotCount():0), slotIds);
+                        }
                         if (scheduleList!=null && scheduleList.size()>0) {
+                            dueCount = scheduleList.size();
+
                             // 2、push time-ring
                             for (XxlJobInfo jobInfo: scheduleList) {
 
@@ -85,6 +137,7 @@ public class JobScheduleHelper {
                                 if (nowTime > jobInfo.getTriggerNextTime() + PRE_READ_MS) {
                                     // 2.1、trigger-expire > 5s：pass && make next-trigger-time
                                     logger.warn(">>>>>>>>>>> xxl-job, schedule misfire, jobId = " + jobInfo.getId());
+                                    JobMetrics.incrementScheduleMisfire();
 
                                     // 1、misfire match
                                     MisfireStrategyEnum misfireStrategyEnum = MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), MisfireStrategyEnum.DO_NOTHING);
@@ -110,13 +163,10 @@ public class JobScheduleHelper {
                                     // next-trigger-time in 5s, pre-read again
                                     if (jobInfo.getTriggerStatus()==1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
 
-                                        // 1、make ring second
-                                        int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
-
-                                        // 2、push time ring
-                                        pushTimeRing(ringSecond, jobInfo.getId());
+                                        // 1、push time ring
+                                        pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
 
-                                        // 3、fresh next
+                                        // 2、fresh next
                                         refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
 
                                     }
@@ -124,26 +174,26 @@ public class JobScheduleHelper {
                                 } else {
                                     // 2.3、trigger-pre-read：time-ring trigger && make next-trigger-time
 
-                                    // 1、make ring second
-                                    int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
+                                    // 1、push time ring
+                                    pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
 
-                                    // 2、push time ring
-                                    pushTimeRing(ringSecond, jobInfo.getId());
-
-                                    // 3、fresh next
+                                    // 2、fresh next
                                     refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
 
                                 }
 
                             }
 
-                            // 3、update trigger info
-                            for (XxlJobInfo jobInfo: scheduleList) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdate(jobInfo);
+                            // 3、update trigger info: schedule index put back and write back dirty, or update db
+                            if (scheduleIndex != null) {
+                                for (XxlJobInfo jobInfo: scheduleList) {
+                                    scheduleIndex.reschedule(jobInfo);
+                                }
+                                scheduleUpdate(scheduleIndex.drainDirty());
+                            } else {
+                                scheduleUpdate(scheduleList);
                             }
 
-                        } else {
-                            preReadSuc = false;
                         }
 
                         // tx stop
@@ -192,13 +242,17 @@ public class JobScheduleHelper {
                         }
                     }
                     long cost = System.currentTimeMillis()-start;
+                    JobMetrics.recordScheduleScan(cost, dueCount);
 
+                    // adjust pre-read window and count
+                    preReadController.feedback(dueCount, JobTriggerPoolHelper.getTriggerCostAvg(), JobTriggerPoolHelper.getQueueSize(), JobTriggerPoolHelper.getQueueCapacity());
 
                     // Wait seconds, align second
-                    if (cost < 1000) {  // scan-overtime, not wait
+                    long waitMs = preReadController.waitMs(System.currentTimeMillis());
+                    if (cost < 1000 && waitMs > 0) {  // scan-overtime or page full, not wait
                         try {
-                            // pre-read period: success > scan each second; fail > skip this period;
-                            TimeUnit.MILLISECONDS.sleep((preReadSuc?1000:PRE_READ_MS) - System.currentTimeMillis()%1000);
+                            // pre-read period: page full > scan again; due > scan each second; none > skip this window;
+                            TimeUnit.MILLISECONDS.sleep(waitMs);
                         } catch (Throwable e) {
                             if (!scheduleThreadToStop) {
                                 logger.error(e.getMessage(), e);
@@ -221,44 +275,35 @@ public class JobScheduleHelper {
             @Override
             public void run() {
 
-                while (!ringThreadToStop) {
-
-                    // align second
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis() % 1000);
-                    } catch (Throwable e) {
-                        if (!ringThreadToStop) {
-                            logger.error(e.getMessage(), e);
+                // ring trigger
+                JobTimingWheel.ExpireHandler ringTrigger = new JobTimingWheel.ExpireHandler() {
+                    @Override
+                    public void expire(int jobId, long fireTime) {
+                        try {
+                            JobMetrics.recordScheduleFireDelay(System.currentTimeMillis() - fireTime);
+                            JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+                        } catch (Throwable e) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread trigger error, jobId = {}", jobId, e);
                         }
                     }
+                };
 
-                    try {
-                        // second data
-                        List<Integer> ringItemData = new ArrayList<>();
-                        int nowSecond = Calendar.getInstance().get(Calendar.SECOND);   // 避免处理耗时太长，跨过刻度，向前校验一个刻度；
-                        for (int i = 0; i < 2; i++) {
-                            List<Integer> tmpData = ringData.remove( (nowSecond+60-i)%60 );
-                            if (tmpData != null) {
-                                ringItemData.addAll(tmpData);
-                            }
-                        }
+                while (!ringThreadToStop) {
 
-                        // ring trigger
-                        logger.debug(">>>>>>>>>>> xxl-job, time-ring beat : " + nowSecond + " = " + Arrays.asList(ringItemData) );
-                        if (ringItemData.size() > 0) {
-                            // do trigger
-                            for (int jobId: ringItemData) {
-                                // do trigger
-                                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
-                            }
-                            // clear
-                            ringItemData.clear();
+                    try {
+                        // advance each ms tick, fire job at exact trigger-time （处理耗时跨过刻度时，逐个刻度补偿，不丢失）
+                        int expireCount = timeRing.advance(System.currentTimeMillis(), ringTrigger);
+                        if (expireCount > 0) {
+                            logger.debug(">>>>>>>>>>> xxl-job, time-ring beat : " + timeRing.getCurrentTime() + " = " + expireCount);
                         }
                     } catch (Throwable e) {
                         if (!ringThreadToStop) {
                             logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread error:{}", e);
                         }
                     }
+
+                    // next ms tick
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
                 }
                 logger.info(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread stop");
             }
@@ -293,16 +338,111 @@ public class JobScheduleHelper {
         }
     }
 
-    private void pushTimeRing(int ringSecond, int jobId){
-        // push async ring
-        List<Integer> ringItemData = ringData.get(ringSecond);
-        if (ringItemData == null) {
-            ringItemData = new ArrayList<Integer>();
-            ringData.put(ringSecond, ringItemData);
+    /**
+     * update trigger info in batch, few statement instead of one round trip each job
+     */
+    private void scheduleUpdate(List<XxlJobInfo> jobList) {
+        for (int from = 0; from < jobList.size(); from += UPDATE_BATCH_SIZE) {
+            List<XxlJobInfo> batchList = jobList.subList(from, Math.min(from + UPDATE_BATCH_SIZE, jobList.size()));
+            XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdateBatch(batchList);
+        }
+    }
+
+    /**
+     * sync schedule index (in schedule transaction, owned slot locked)
+     *
+     *      1、full load owned slot: first time, or periodically (clean job removed by other admin);
+     *      2、owned slot changed: drop lost slot, load gained slot;
+     *      3、apply job change: local hook, and db incremental sync (changed by other admin);
+     */
+    private void syncScheduleIndex(List<Integer> slotIds) {
+        long nowTime = System.currentTimeMillis();
+        int slotCount = partitionHelper.getSlotCount();
+        Set<Integer> ownedSlotIds = new HashSet<>(slotIds);
+
+        // 1、full load
+        if (indexSlotIds == null || nowTime - indexLoadTime > INDEX_RELOAD_MS) {
+            scheduleIndex.clear();
+            indexChangeQueue.clear();
+            if (!slotIds.isEmpty()) {
+                List<XxlJobInfo> jobList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobLoad(null, slotCount, slotIds);
+                for (XxlJobInfo jobInfo: jobList) {
+                    scheduleIndex.put(jobInfo);
+                }
+            }
+            indexSlotIds = ownedSlotIds;
+            indexLoadTime = nowTime;
+            indexSyncTime = nowTime;
+            logger.info(">>>>>>>>>>> xxl-job, schedule index load, slotIds = {}, jobCount = {}", slotIds, scheduleIndex.size());
+            return;
+        }
+
+        // 2、owned slot changed
+        if (!ownedSlotIds.equals(indexSlotIds)) {
+            scheduleIndex.retainSlot(slotCount, ownedSlotIds);
+
+            List<Integer> gainSlotIds = new ArrayList<>();
+            for (Integer slotId: slotIds) {
+                if (!indexSlotIds.contains(slotId)) {
+                    gainSlotIds.add(slotId);
+                }
+            }
+            if (!gainSlotIds.isEmpty()) {
+                List<XxlJobInfo> jobList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobLoad(null, slotCount, gainSlotIds);
+                for (XxlJobInfo jobInfo: jobList) {
+                    scheduleIndex.put(jobInfo);
+                }
+            }
+            indexSlotIds = ownedSlotIds;
+            logger.info(">>>>>>>>>>> xxl-job, schedule index slot change, slotIds = {}, gainSlotIds = {}", slotIds, gainSlotIds);
         }
-        ringItemData.add(jobId);
 
-        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : " + ringSecond + " = " + Arrays.asList(ringItemData) );
+        // 3、job change
+        XxlJobInfo changedJob;
+        while ((changedJob = indexChangeQueue.poll()) != null) {
+            if (ownedSlotIds.contains(changedJob.getId() % slotCount)) {
+                scheduleIndex.put(changedJob);
+            }
+        }
+        if (!slotIds.isEmpty()) {
+            List<XxlJobInfo> jobList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobLoad(new Date(indexSyncTime - INDEX_SYNC_OVERLAP_MS), slotCount, slotIds);
+            for (XxlJobInfo jobInfo: jobList) {
+                scheduleIndex.put(jobInfo);
+            }
+        }
+        indexSyncTime = nowTime;
+    }
+
+    /**
+     * job change hook (add, update, start, stop), apply to schedule index in next schedule cycle
+     */
+    public void onJobChange(XxlJobInfo jobInfo) {
+        if (scheduleIndex != null) {
+            indexChangeQueue.add(jobInfo);
+        }
+    }
+
+    /**
+     * job remove hook
+     */
+    public void onJobRemove(int jobId) {
+        if (scheduleIndex != null) {
+            XxlJobInfo removedJob = new XxlJobInfo();
+            removedJob.setId(jobId);
+            removedJob.setTriggerStatus(0);
+            indexChangeQueue.add(removedJob);
+        }
+    }
+
+    private void pushTimeRing(int jobId, long triggerTime){
+        // push async ring
+        if (timeRing.add(jobId, triggerTime)) {
+            logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : jobId = " + jobId + ", triggerTime = " + triggerTime);
+        } else {
+            // already expired, trigger directly
+            JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+            logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobId );
+        }
     }
 
     public void toStop(){
@@ -324,17 +464,13 @@ public class JobScheduleHelper {
             }
         }
 
-        // if has ring data
-        boolean hasRingData = false;
-        if (!ringData.isEmpty()) {
-            for (int second : ringData.keySet()) {
-                List<Integer> tmpData = ringData.get(second);
-                if (tmpData!=null && tmpData.size()>0) {
-                    hasRingData = true;
-                    break;
-                }
-            }
+        // stop schedule partition (release slot)
+        if (partitionHelper != null) {
+            partitionHelper.toStop();
         }
+
+        // if has ring data
+        boolean hasRingData = timeRing.size() > 0;
         if (hasRingData) {
             try {
                 TimeUnit.SECONDS.sleep(8);
@@ -368,7 +504,7 @@ public class JobScheduleHelper {
     public static Date generateNextValidTime(XxlJobInfo jobInfo, Date fromTime) throws Exception {
         ScheduleTypeEnum scheduleTypeEnum = ScheduleTypeEnum.match(jobInfo.getScheduleType(), null);
         if (ScheduleTypeEnum.CRON == scheduleTypeEnum) {
-            Date nextValidTime = new CronExpression(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
+            Date nextValidTime = CronExpressionCache.get(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
             return nextValidTime;
         } else if (ScheduleTypeEnum.FIX_RATE == scheduleTypeEnum /*|| ScheduleTypeEnum.FIX_DELAY == scheduleTypeEnum*/) {
             return new Date(fromTime.getTime() + Integer.valueOf(jobInfo.getScheduleConf())*1000 );
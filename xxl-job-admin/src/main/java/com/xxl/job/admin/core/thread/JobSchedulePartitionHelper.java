@@ -0,0 +1,207 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.core.enums.RegistryConfig;
+import com.xxl.job.core.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job schedule partition helper
+ *
+ *      1、job belong to slot "id % slotCount", each slot is scheduled by only one admin at any time;
+ *      2、admin beat (registry type ADMIN) and claim slots with lease, slots rebalance when admin join or dead;
+ *      3、schedule thread lock owned slot rows ("for update") instead of the global "schedule_lock";
+ *
+ * @author xuxueli 2024-11-20
+ */
+public class JobSchedulePartitionHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobSchedulePartitionHelper.class);
+
+    public static final String REGISTRY_KEY = "xxl-job-admin-schedule";
+    public static final long LEASE_MS = 15 * 1000;     // slot lease, admin dead after lease expired
+    public static final long BEAT_MS = 5 * 1000;       // beat and rebalance period
+
+    private final String nodeId;
+    private final int slotCount;
+
+    private Thread beatThread;
+    private volatile boolean toStop = false;
+
+    public JobSchedulePartitionHelper(int slotCount) {
+        this(IpUtil.getIp() + "-" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8), slotCount);
+    }
+    public JobSchedulePartitionHelper(String nodeId, int slotCount) {
+        this.nodeId = nodeId;
+        this.slotCount = slotCount;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public void start(){
+
+        // init slot
+        List<Integer> slotIds = new ArrayList<>();
+        for (int i = 0; i < slotCount; i++) {
+            slotIds.add(i);
+        }
+        XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleSlotDao().initSlot(slotIds);
+
+        // first beat, claim slot before schedule
+        beat();
+
+        // beat thread
+        beatThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(BEAT_MS);
+                    } catch (Throwable e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                    if (toStop) {
+                        break;
+                    }
+                    beat();
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobSchedulePartitionHelper#beatThread stop");
+            }
+        });
+        beatThread.setDaemon(true);
+        beatThread.setName("xxl-job, admin JobSchedulePartitionHelper#beatThread");
+        beatThread.start();
+
+        logger.info(">>>>>>>>> init xxl-job admin schedule partition success, nodeId = {}, slotCount = {}", nodeId, slotCount);
+    }
+
+    public void toStop(){
+        toStop = true;
+
+        // stop beat (interrupt and wait)
+        if (beatThread != null) {
+            beatThread.interrupt();
+            try {
+                beatThread.join();
+            } catch (Throwable e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+
+        // release slot and registry, other admin take over in next beat
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleSlotDao().releaseSlot(nodeId, null);
+            XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryDelete(RegistryConfig.RegistType.ADMIN.name(), REGISTRY_KEY, nodeId);
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * beat, and rebalance slot:
+     *      1、registry self, load alive admin list (sorted);
+     *      2、slot "i" belong to admin "i % aliveCount";
+     *      3、release slot not belong to self, claim (or renew) slot belong to self (only if free or lease expired);
+     */
+    public void beat(){
+        try {
+            long nowTime = System.currentTimeMillis();
+
+            // 1、registry + alive admin
+            XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySaveOrUpdate(RegistryConfig.RegistType.ADMIN.name(), REGISTRY_KEY, nodeId, 1, 0, new Date(nowTime));
+
+            TreeSet<String> aliveNodes = new TreeSet<>();
+            aliveNodes.add(nodeId);
+            List<XxlJobRegistry> registryList = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAll((int) (LEASE_MS / 1000), new Date(nowTime));
+            if (registryList != null) {
+                for (XxlJobRegistry item: registryList) {
+                    if (RegistryConfig.RegistType.ADMIN.name().equals(item.getRegistryGroup()) && REGISTRY_KEY.equals(item.getRegistryKey())) {
+                        aliveNodes.add(item.getRegistryValue());
+                    }
+                }
+            }
+            List<String> aliveNodeList = new ArrayList<>(aliveNodes);
+            int nodeIndex = aliveNodeList.indexOf(nodeId);
+
+            // 2、expected slot
+            List<Integer> expectSlots = new ArrayList<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slot % aliveNodeList.size() == nodeIndex) {
+                    expectSlots.add(slot);
+                }
+            }
+
+            // 3、release slot not expected
+            List<Integer> ownedSlots = XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleSlotDao().findOwnedSlot(nodeId, nowTime);
+            List<Integer> releaseSlots = new ArrayList<>();
+            if (ownedSlots != null) {
+                for (Integer slot: ownedSlots) {
+                    if (!expectSlots.contains(slot)) {
+                        releaseSlots.add(slot);
+                    }
+                }
+            }
+            if (!releaseSlots.isEmpty()) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleSlotDao().releaseSlot(nodeId, releaseSlots);
+            }
+
+            // 4、claim (renew) expected slot
+            if (!expectSlots.isEmpty()) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleSlotDao().claimSlot(nodeId, expectSlots, nowTime, nowTime + LEASE_MS);
+            }
+
+            logger.debug(">>>>>>>>>>> xxl-job, schedule partition beat, nodeId = {}, aliveNodes = {}, expectSlots = {}, releaseSlots = {}",
+                    nodeId, aliveNodeList, expectSlots, releaseSlots);
+        } catch (Throwable e) {
+            if (!toStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobSchedulePartitionHelper#beat error:{}", e);
+            }
+        }
+    }
+
+    /**
+     * lock owned slot rows (in schedule transaction), other admin can not claim them until commit
+     *
+     * @param conn
+     * @return  slot owned by self, and lease not expired
+     */
+    public List<Integer> lockOwnedSlot(Connection conn) throws Exception {
+        List<Integer> slotIds = new ArrayList<>();
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            preparedStatement = conn.prepareStatement("select slot_id from xxl_job_schedule_slot where owner = ? and lease_time > ? and slot_id < ? for update");
+            preparedStatement.setString(1, nodeId);
+            preparedStatement.setLong(2, System.currentTimeMillis());
+            preparedStatement.setInt(3, slotCount);
+            resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                slotIds.add(resultSet.getInt(1));
+            }
+        } finally {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (preparedStatement != null) {
+                preparedStatement.close();
+            }
+        }
+        return slotIds;
+    }
+
+}
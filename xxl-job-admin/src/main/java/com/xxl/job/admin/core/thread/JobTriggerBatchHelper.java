@@ -0,0 +1,254 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.RunBatchResult;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.util.ThrowableUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job trigger batch helper, coalesce trigger to same executor address into one "runBatch" request
+ *
+ *      1、window: trigger wait for a short window (xxl.job.trigger.batch.window, ms), then pending trigger of each address sent together;
+ *      2、batch full: sent at once, not wait window;
+ *      3、result: one result each trigger, complete trigger future (log update) one by one;
+ *      4、old executor (runBatch not found): run one by one, and not batch to this address for a while;
+ *
+ * @author xuxueli 2024-12-01
+ */
+public class JobTriggerBatchHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerBatchHelper.class);
+
+    private static JobTriggerBatchHelper instance = new JobTriggerBatchHelper();
+    public static JobTriggerBatchHelper getInstance(){
+        return instance;
+    }
+
+    public static final int MAX_BATCH_SIZE = 100;                       // trigger each request, bounded request body
+    public static final long UNSUPPORTED_EXPIRE_MS = 10 * 60 * 1000;    // old executor, retry batch after a while
+
+    private static class PendingTrigger {
+        private final TriggerParam triggerParam;
+        private final CompletableFuture<ReturnT<String>> future = new CompletableFuture<>();
+
+        private PendingTrigger(TriggerParam triggerParam) {
+            this.triggerParam = triggerParam;
+        }
+    }
+
+    private volatile boolean enable = false;
+    private long windowMs;
+    private Thread flushThread;
+    private volatile boolean toStop = false;
+    private final Map<String, List<PendingTrigger>> pendingMap = new HashMap<>();
+    private final ConcurrentMap<String, Long> unsupportedAddressMap = new ConcurrentHashMap<>();
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void start(){
+        windowMs = XxlJobAdminConfig.getAdminConfig().getTriggerBatchWindow();
+        if (windowMs <= 0) {
+            return;
+        }
+
+        flushThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(windowMs);
+                    } catch (Throwable e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+
+                    try {
+                        flush();
+                    } catch (Throwable e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper#flushThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper#flushThread stop");
+            }
+        });
+        flushThread.setDaemon(true);
+        flushThread.setName("xxl-job, admin JobTriggerBatchHelper#flushThread");
+        flushThread.start();
+
+        enable = true;
+        logger.info(">>>>>>>>> init xxl-job admin trigger batch success, window = {}ms.", windowMs);
+    }
+
+    public void toStop(){
+        if (flushThread == null) {
+            return;
+        }
+        toStop = true;
+        enable = false;
+
+        // stop flush thread
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        // send pending trigger
+        flush();
+    }
+
+
+    // ---------------------- run ----------------------
+
+    /**
+     * run executor, sent in batch with other trigger to same address
+     *
+     * @param triggerParam
+     * @param address
+     * @return  complete when executor responded, never exceptionally
+     */
+    public CompletableFuture<ReturnT<String>> run(TriggerParam triggerParam, String address) {
+        PendingTrigger pendingTrigger = new PendingTrigger(triggerParam);
+
+        List<PendingTrigger> fullBatch = null;
+        synchronized (pendingMap) {
+            List<PendingTrigger> batch = pendingMap.get(address);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                pendingMap.put(address, batch);
+            }
+            batch.add(pendingTrigger);
+            if (batch.size() >= MAX_BATCH_SIZE || toStop) {
+                fullBatch = pendingMap.remove(address);
+            }
+        }
+
+        // batch full, send at once
+        if (fullBatch != null) {
+            send(address, fullBatch);
+        }
+        return pendingTrigger.future;
+    }
+
+    private void flush() {
+        Map<String, List<PendingTrigger>> batchMap;
+        synchronized (pendingMap) {
+            if (pendingMap.isEmpty()) {
+                return;
+            }
+            batchMap = new HashMap<>(pendingMap);
+            pendingMap.clear();
+        }
+        for (Map.Entry<String, List<PendingTrigger>> item: batchMap.entrySet()) {
+            send(item.getKey(), item.getValue());
+        }
+    }
+
+
+    // ---------------------- send ----------------------
+
+    private void send(final String address, final List<PendingTrigger> batch) {
+        ExecutorBiz executorBiz;
+        try {
+            executorBiz = XxlJobScheduler.getExecutorBiz(address);
+        } catch (Exception e) {
+            completeAll(batch, new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e)));
+            return;
+        }
+
+        // single, or old executor: run one by one
+        Long unsupportedTime = unsupportedAddressMap.get(address);
+        if (unsupportedTime != null && System.currentTimeMillis() - unsupportedTime > UNSUPPORTED_EXPIRE_MS) {
+            unsupportedAddressMap.remove(address);
+            unsupportedTime = null;
+        }
+        if (batch.size() == 1 || unsupportedTime != null) {
+            sendOneByOne(executorBiz, batch);
+            return;
+        }
+
+        // batch
+        final ExecutorBiz finalExecutorBiz = executorBiz;
+        List<TriggerParam> triggerParamList = new ArrayList<>();
+        for (PendingTrigger pendingTrigger: batch) {
+            triggerParamList.add(pendingTrigger.triggerParam);
+        }
+        CompletableFuture<ReturnT<RunBatchResult>> batchFuture;
+        try {
+            batchFuture = executorBiz.runBatchAsync(triggerParamList);
+        } catch (Exception e) {
+            batchFuture = new CompletableFuture<>();
+            batchFuture.completeExceptionally(e);
+        }
+        batchFuture.whenComplete((batchResult, e) -> {
+            if (e != null) {
+                completeAll(batch, new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e)));
+                return;
+            }
+
+            // old executor, runBatch not found (request not processed): run one by one
+            if (batchResult.getCode() != ReturnT.SUCCESS_CODE
+                    && batchResult.getMsg() != null
+                    && batchResult.getMsg().contains("runBatch) not found")) {
+                logger.warn(">>>>>>>>>>> xxl-job, executor not support runBatch, run one by one, address = {}", address);
+                unsupportedAddressMap.put(address, System.currentTimeMillis());
+                sendOneByOne(finalExecutorBiz, batch);
+                return;
+            }
+
+            // result each trigger
+            List<ReturnT<String>> resultList = batchResult.getContent() != null ? batchResult.getContent().getResultList() : null;
+            if (batchResult.getCode() != ReturnT.SUCCESS_CODE || resultList == null || resultList.size() != batch.size()) {
+                completeAll(batch, batchResult.getCode() != ReturnT.SUCCESS_CODE
+                        ? new ReturnT<String>(batchResult.getCode(), batchResult.getMsg())
+                        : new ReturnT<String>(ReturnT.FAIL_CODE, "runBatch result invalid."));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                ReturnT<String> runResult = resultList.get(i);
+                batch.get(i).future.complete(runResult != null ? runResult : new ReturnT<String>(ReturnT.FAIL_CODE, null));
+            }
+        });
+    }
+
+    private void sendOneByOne(ExecutorBiz executorBiz, List<PendingTrigger> batch) {
+        for (final PendingTrigger pendingTrigger: batch) {
+            CompletableFuture<ReturnT<String>> runFuture;
+            try {
+                runFuture = executorBiz.runAsync(pendingTrigger.triggerParam);
+            } catch (Exception e) {
+                runFuture = CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e)));
+            }
+            runFuture.whenComplete((runResult, e) -> {
+                if (e != null) {
+                    pendingTrigger.future.complete(new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e)));
+                } else {
+                    pendingTrigger.future.complete(runResult);
+                }
+            });
+        }
+    }
+
+    private void completeAll(List<PendingTrigger> batch, ReturnT<String> runResult) {
+        for (PendingTrigger pendingTrigger: batch) {
+            pendingTrigger.future.complete(new ReturnT<String>(runResult.getCode(), runResult.getMsg()));
+        }
+    }
+
+}
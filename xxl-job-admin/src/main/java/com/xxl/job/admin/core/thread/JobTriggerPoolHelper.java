@@ -1,13 +1,19 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.metrics.JobMetrics;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.trigger.JobMetadataCache;
+import com.xxl.job.admin.core.trigger.JobTriggerCostTracker;
+import com.xxl.job.admin.core.trigger.JobTriggerRateLimiter;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.trigger.XxlJobTrigger;
+import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.VirtualThreadUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * job trigger thread pool helper
@@ -23,47 +29,185 @@ public class JobTriggerPoolHelper {
     // fast/slow thread pool
     private ThreadPoolExecutor fastTriggerPool = null;
     private ThreadPoolExecutor slowTriggerPool = null;
+    // trigger complete pool (trigger async: rpc callback, trigger log update)
+    private ThreadPoolExecutor triggerCompletePool = null;
+    // trigger in flight (trigger async: rpc sent, until trigger log updated), bounded
+    private Semaphore triggerInflightPermits = null;
+    private int triggerInflightMax;
+    // broadcast trigger pool (sharding broadcast: shard dispatched in parallel, bounded)
+    private ThreadPoolExecutor broadcastTriggerPool = null;
+    // delay trigger pool (rate limit: trigger over rate, delayed until token available)
+    private ScheduledThreadPoolExecutor delayTriggerPool = null;
+    // reject log pool (trigger rejected: fail log saved out of schedule thread)
+    private ThreadPoolExecutor rejectLogPool = null;
 
     public void start(){
-        fastTriggerPool = new ThreadPoolExecutor(
+        jobTriggerCostTracker = new JobTriggerCostTracker(
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowThreshold(),
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowRecover(),
+                XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowHalfLife() * 1000L);
+
+        rateLimiter = new JobTriggerRateLimiter(
+                XxlJobAdminConfig.getAdminConfig().getTriggerRateLimitGlobal(),
+                XxlJobAdminConfig.getAdminConfig().getTriggerRateLimitGroup(),
+                XxlJobAdminConfig.getAdminConfig().getTriggerRateLimitJob());
+        rateLimitOverflow = JobTriggerRateLimiter.Overflow.match(XxlJobAdminConfig.getAdminConfig().getTriggerRateLimitOverflow(), JobTriggerRateLimiter.Overflow.DELAY);
+        triggerCoalesceEnable = XxlJobAdminConfig.getAdminConfig().isTriggerCoalesceEnable();
+
+        fastTriggerPool = VirtualThreadUtil.newThreadPool(
+                "xxl-job, admin JobTriggerPoolHelper-fastTriggerPool-",
                 10,
                 XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
                 60L,
-                TimeUnit.SECONDS,
                 new LinkedBlockingQueue<Runnable>(1000),
-                new ThreadFactory() {
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-fastTriggerPool-" + r.hashCode());
-                    }
-                });
+                null);
 
-        slowTriggerPool = new ThreadPoolExecutor(
+        slowTriggerPool = VirtualThreadUtil.newThreadPool(
+                "xxl-job, admin JobTriggerPoolHelper-slowTriggerPool-",
                 10,
                 XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax(),
                 60L,
-                TimeUnit.SECONDS,
                 new LinkedBlockingQueue<Runnable>(2000),
+                null);
+
+        // broadcast shard, parallel
+        broadcastTriggerPool = newBroadcastTriggerPool(XxlJobAdminConfig.getAdminConfig().getTriggerPoolBroadcastMax());
+
+        // rate limit, delay trigger over rate
+        if (rateLimiter.isEnable()) {
+            delayTriggerPool = new ScheduledThreadPoolExecutor(
+                    1,
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-delayTriggerPool-" + r.hashCode());
+                        }
+                    });
+            logger.info(">>>>>>>>> init xxl-job admin trigger rate limit success, overflow = {}.", rateLimitOverflow);
+        }
+
+        // trigger rejected, fail log (queue full: drop, overload)
+        rejectLogPool = new ThreadPoolExecutor(
+                1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(1000),
                 new ThreadFactory() {
                     @Override
                     public Thread newThread(Runnable r) {
-                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-slowTriggerPool-" + r.hashCode());
+                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-rejectLogPool-" + r.hashCode());
                     }
                 });
+
+        // trigger async, in flight bounded; complete out of rpc io thread (queue hold all in flight, not rejected, never run in io thread)
+        if (XxlJobAdminConfig.getAdminConfig().isTriggerAsyncEnable()) {
+            triggerInflightMax = XxlJobAdminConfig.getAdminConfig().getTriggerAsyncMaxInflight();
+            triggerInflightPermits = new Semaphore(triggerInflightMax);
+            triggerCompletePool = VirtualThreadUtil.newThreadPool(
+                    "xxl-job, admin JobTriggerPoolHelper-triggerCompletePool-",
+                    10,
+                    XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
+                    60L,
+                    new LinkedBlockingQueue<Runnable>(triggerInflightMax),
+                    null);
+            JobMetrics.gauge("xxl.job.trigger.inflight", "trigger async, trigger in flight", () -> helper.triggerInflightMax - helper.triggerInflightPermits.availablePermits());
+        }
+
+        // metrics
+        JobMetrics.gauge("xxl.job.trigger.pool.queue", "trigger pool queue size", () -> helper.fastTriggerPool.getQueue().size(), "pool", JobMetrics.POOL_FAST);
+        JobMetrics.gauge("xxl.job.trigger.pool.queue", "trigger pool queue size", () -> helper.slowTriggerPool.getQueue().size(), "pool", JobMetrics.POOL_SLOW);
+        JobMetrics.gauge("xxl.job.trigger.pool.active", "trigger pool active thread count", () -> helper.fastTriggerPool.getActiveCount(), "pool", JobMetrics.POOL_FAST);
+        JobMetrics.gauge("xxl.job.trigger.pool.active", "trigger pool active thread count", () -> helper.slowTriggerPool.getActiveCount(), "pool", JobMetrics.POOL_SLOW);
+        JobMetrics.gauge("xxl.job.trigger.slow.jobs", "job classified slow, trigger in slow pool", () -> helper.jobTriggerCostTracker.getSlowCount());
     }
 
 
+    /**
+     * broadcast trigger pool, shard run in parallel up to max (core = max, idle thread timeout; queue only when all busy), queue full: run in trigger thread, back pressure
+     */
+    static ThreadPoolExecutor newBroadcastTriggerPool(int maxPoolSize) {
+        ThreadPoolExecutor threadPool = VirtualThreadUtil.newThreadPool(
+                "xxl-job, admin JobTriggerPoolHelper-broadcastTriggerPool-",
+                maxPoolSize,
+                maxPoolSize,
+                60L,
+                new LinkedBlockingQueue<Runnable>(5000),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
+    /**
+     * start with given trigger pool, rate limit disabled (test)
+     */
+    void start(ThreadPoolExecutor fastTriggerPool, ThreadPoolExecutor slowTriggerPool, boolean triggerCoalesceEnable) {
+        this.jobTriggerCostTracker = new JobTriggerCostTracker(500, 250, 60 * 1000L);
+        this.rateLimiter = new JobTriggerRateLimiter(0, 0, 0);
+        this.rateLimitOverflow = JobTriggerRateLimiter.Overflow.DELAY;
+        this.triggerCoalesceEnable = triggerCoalesceEnable;
+        this.fastTriggerPool = fastTriggerPool;
+        this.slowTriggerPool = slowTriggerPool;
+    }
+
     public void stop() {
         //triggerPool.shutdown();
         fastTriggerPool.shutdownNow();
         slowTriggerPool.shutdownNow();
+        if (broadcastTriggerPool != null) {
+            broadcastTriggerPool.shutdownNow();
+        }
+        if (delayTriggerPool != null) {
+            delayTriggerPool.shutdownNow();
+        }
+        if (rejectLogPool != null) {
+            rejectLogPool.shutdownNow();
+        }
+
+        // trigger dropped by shutdown not run, pending mark not removed by it
+        pendingTriggerMap.clear();
+        delayTriggerJobMap.clear();
+        if (triggerCompletePool != null) {
+            // wait in flight trigger (executor responded, trigger log updated)
+            try {
+                if (!triggerInflightPermits.tryAcquire(triggerInflightMax, 10, TimeUnit.SECONDS)) {
+                    logger.warn(">>>>>>>>>>> xxl-job, trigger in flight not complete when stop, count:{}", triggerInflightMax - triggerInflightPermits.availablePermits());
+                }
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+
+            // complete pending trigger log update
+            triggerCompletePool.shutdown();
+            try {
+                triggerCompletePool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
         logger.info(">>>>>>>>> xxl-job trigger thread pool shutdown success.");
     }
 
 
-    // job timeout count
-    private volatile long minTim = System.currentTimeMillis()/60000;     // ms > min
-    private volatile ConcurrentMap<Integer, AtomicInteger> jobTimeoutCountMap = new ConcurrentHashMap<>();
+    // trigger cost, ewma (ms)
+    private volatile double triggerCostAvg = 50;
+
+    // job trigger cost, slow job classify
+    private JobTriggerCostTracker jobTriggerCostTracker;
+
+    // rate limit (job / job group / global), over max delay: reject
+    public static final long RATE_LIMIT_MAX_DELAY_MS = 10 * 1000;
+    private JobTriggerRateLimiter rateLimiter;
+    private JobTriggerRateLimiter.Overflow rateLimitOverflow;
+    private final ConcurrentMap<Integer, Boolean> delayTriggerJobMap = new ConcurrentHashMap<>();     // coalesce: job with delayed schedule trigger
+
+    // coalesce, schedule trigger (cron / misfire) of job already pending in trigger pool (not started) collapsed into it
+    private boolean triggerCoalesceEnable;
+    private final ConcurrentMap<Integer, PendingTrigger> pendingTriggerMap = new ConcurrentHashMap<>();
+
+    private static class PendingTrigger {
+        private int coalesceCount;      // fire collapsed into this trigger, updated in map compute
+    }
 
 
     /**
@@ -76,47 +220,180 @@ public class JobTriggerPoolHelper {
                            final String executorParam,
                            final String addressList) {
 
+        // rate limit
+        if (rateLimiter.isEnable()) {
+            int jobGroup = 0;
+            if (rateLimiter.isGroupEnable()) {
+                XxlJobInfo jobInfo = JobMetadataCache.getInstance().loadJob(jobId);
+                jobGroup = jobInfo!=null?jobInfo.getJobGroup():0;
+            }
+
+            long waitMs = rateLimiter.acquire(jobId, jobGroup, rateLimitOverflow==JobTriggerRateLimiter.Overflow.REJECT?0:RATE_LIMIT_MAX_DELAY_MS);
+            if (waitMs < 0) {
+                JobMetrics.incrementTriggerRejected(JobMetrics.REJECT_RATE_LIMIT);
+                logger.warn(">>>>>>>>>>> xxl-job, trigger rejected, over rate limit, jobId:{}, jobGroup:{}, triggerType:{}", jobId, jobGroup, triggerType);
+                rejectTrigger(jobId, triggerType, executorShardingParam, executorParam, I18nUtil.getString("jobconf_trigger_reject_ratelimit"));
+                return;
+            }
+            if (waitMs > 0) {
+                // coalesce: schedule trigger (cron / misfire) collapsed into delayed one of same job
+                final boolean coalesce = rateLimitOverflow==JobTriggerRateLimiter.Overflow.COALESCE
+                        && (triggerType==TriggerTypeEnum.CRON || triggerType==TriggerTypeEnum.MISFIRE);
+                if (coalesce && delayTriggerJobMap.putIfAbsent(jobId, Boolean.TRUE) != null) {
+                    rateLimiter.release(jobId, jobGroup);
+                    JobMetrics.incrementTriggerCoalesced(JobMetrics.REJECT_RATE_LIMIT);
+                    logger.debug(">>>>>>>>>>> xxl-job, trigger coalesced, over rate limit, jobId:{}, triggerType:{}", jobId, triggerType);
+                    return;
+                }
+
+                // delay
+                JobMetrics.incrementTriggerDelayed();
+                delayTriggerPool.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (coalesce) {
+                            delayTriggerJobMap.remove(jobId);
+                        }
+                        submitTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
+                    }
+                }, waitMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+
+        submitTrigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
+    }
+
+    private void submitTrigger(final int jobId,
+                               final TriggerTypeEnum triggerType,
+                               final int failRetryCount,
+                               final String executorShardingParam,
+                               final String executorParam,
+                               final String addressList) {
+
+        // coalesce, pending trigger of same job
+        PendingTrigger pendingTrigger_ = null;
+        if (triggerCoalesceEnable && (triggerType==TriggerTypeEnum.CRON || triggerType==TriggerTypeEnum.MISFIRE)) {
+            final PendingTrigger newPendingTrigger = new PendingTrigger();
+            PendingTrigger current = pendingTriggerMap.compute(jobId, (key, exist) -> {
+                if (exist != null) {
+                    exist.coalesceCount++;
+                    return exist;
+                }
+                return newPendingTrigger;
+            });
+            if (current != newPendingTrigger) {
+                JobMetrics.incrementTriggerCoalesced(JobMetrics.COALESCE_PENDING);
+                logger.debug(">>>>>>>>>>> xxl-job, trigger coalesced, pending trigger exists, jobId:{}, triggerType:{}", jobId, triggerType);
+                return;
+            }
+            pendingTrigger_ = newPendingTrigger;
+        }
+        final PendingTrigger pendingTrigger = pendingTrigger_;
+
         // choose thread pool
         ThreadPoolExecutor triggerPool_ = fastTriggerPool;
-        AtomicInteger jobTimeoutCount = jobTimeoutCountMap.get(jobId);
-        if (jobTimeoutCount!=null && jobTimeoutCount.get() > 10) {      // job-timeout 10 times in 1 min
+        if (jobTriggerCostTracker.isSlow(jobId)) {      // trigger cost avg above slow threshold
             triggerPool_ = slowTriggerPool;
         }
+        final boolean slow = triggerPool_ == slowTriggerPool;
+        JobMetrics.recordTriggerRoute(slow);
 
-        // trigger
-        triggerPool_.execute(new Runnable() {
-            @Override
-            public void run() {
-
-                long start = System.currentTimeMillis();
-
-                try {
-                    // do trigger
-                    XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList);
-                } catch (Throwable e) {
-                    logger.error(e.getMessage(), e);
-                } finally {
-
-                    // check timeout-count-map
-                    long minTim_now = System.currentTimeMillis()/60000;
-                    if (minTim != minTim_now) {
-                        minTim = minTim_now;
-                        jobTimeoutCountMap.clear();
-                    }
+        // trigger (pool queue full: reject)
+        try {
+            triggerPool_.execute(new Runnable() {
+                @Override
+                public void run() {
+
+                    final long start = System.currentTimeMillis();
+
+                    // leave pending, later fire trigger again
+                    int coalesceCount = pendingTrigger!=null?removePendingTrigger(jobId, pendingTrigger):0;
 
-                    // incr timeout-count-map
-                    long cost = System.currentTimeMillis()-start;
-                    if (cost > 500) {       // ob-timeout threshold 500ms
-                        AtomicInteger timeoutCount = jobTimeoutCountMap.putIfAbsent(jobId, new AtomicInteger(1));
-                        if (timeoutCount != null) {
-                            timeoutCount.incrementAndGet();
+                    CompletableFuture<Void> triggerFuture = null;
+                    try {
+                        // do trigger (trigger async: return before executor responded)
+                        triggerFuture = XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList, coalesceCount);
+                    } catch (Throwable e) {
+                        logger.error(e.getMessage(), e);
+                    } finally {
+
+                        // trigger cost, until trigger complete
+                        if (triggerFuture == null || triggerFuture.isDone()) {
+                            triggerComplete(jobId, slow, start);
+                        } else {
+                            triggerFuture.whenComplete((result, e) -> {
+                                if (e != null) {
+                                    logger.error(e.getMessage(), e);
+                                }
+                                triggerComplete(jobId, slow, start);
+                            });
                         }
+
                     }
 
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            int coalesceCount = pendingTrigger!=null?removePendingTrigger(jobId, pendingTrigger):0;
+            JobMetrics.incrementTriggerRejected(JobMetrics.REJECT_POOL_FULL);
+            logger.warn(">>>>>>>>>>> xxl-job, trigger rejected, trigger pool full, jobId:{}, triggerType:{}, slow:{}, coalesceCount:{}", jobId, triggerType, slow, coalesceCount);
+            rejectTrigger(jobId, triggerType, executorShardingParam, executorParam, I18nUtil.getString("jobconf_trigger_reject_poolfull"));
+        }
+    }
+
+    /**
+     * trigger rejected, save fail log for fail monitor alarm (out of schedule thread)
+     */
+    private void rejectTrigger(final int jobId,
+                               final TriggerTypeEnum triggerType,
+                               final String executorShardingParam,
+                               final String executorParam,
+                               final String rejectMsg) {
+        try {
+            rejectLogPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        XxlJobTrigger.rejectTrigger(jobId, triggerType, executorShardingParam, executorParam, rejectMsg);
+                    } catch (Throwable e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn(">>>>>>>>>>> xxl-job, trigger reject log dropped, reject log pool full, jobId:{}, triggerType:{}", jobId, triggerType);
+        }
+    }
 
+    /**
+     * job count with pending trigger (coalesce)
+     */
+    int getPendingTriggerCount() {
+        return pendingTriggerMap.size();
+    }
+
+    /**
+     * remove pending trigger, return fire count collapsed into it
+     */
+    private int removePendingTrigger(int jobId, final PendingTrigger pendingTrigger) {
+        final int[] coalesceCount = new int[1];
+        pendingTriggerMap.computeIfPresent(jobId, (key, exist) -> {
+            if (exist != pendingTrigger) {
+                return exist;
             }
+            coalesceCount[0] = exist.coalesceCount;
+            return null;
         });
+        return coalesceCount[0];
+    }
+
+    private void triggerComplete(int jobId, boolean slow, long start) {
+        // trigger cost, job cost avg (slow job classify)
+        long cost = System.currentTimeMillis()-start;
+        triggerCostAvg = triggerCostAvg * 0.9 + cost * 0.1;
+        JobMetrics.recordTriggerLatency(slow, cost);
+        jobTriggerCostTracker.record(jobId, cost);
     }
 
 
@@ -132,6 +409,73 @@ public class JobTriggerPoolHelper {
         helper.stop();
     }
 
+    /**
+     * trigger complete executor (trigger async)
+     */
+    public static Executor getTriggerCompleteExecutor() {
+        return helper.triggerCompletePool;
+    }
+
+    /**
+     * trigger async, acquire in flight permit before rpc sent (wait when max in flight), release after trigger complete
+     */
+    public static void acquireTriggerInflight() throws InterruptedException {
+        Semaphore permits = helper.triggerInflightPermits;
+        if (permits != null) {
+            permits.acquire();
+        }
+    }
+
+    public static void releaseTriggerInflight() {
+        Semaphore permits = helper.triggerInflightPermits;
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * broadcast trigger executor (sharding broadcast, shard dispatch)
+     */
+    public static Executor getBroadcastTriggerExecutor() {
+        return helper.broadcastTriggerPool;
+    }
+
+    /**
+     * avg trigger cost (ms, ewma)
+     */
+    public static double getTriggerCostAvg() {
+        return helper.triggerCostAvg;
+    }
+
+    /**
+     * job classified slow, trigger in slow pool
+     */
+    public static boolean isSlowJob(int jobId) {
+        return helper.jobTriggerCostTracker != null && helper.jobTriggerCostTracker.isSlow(jobId);
+    }
+
+    /**
+     * job trigger cost avg (ms), -1 if not triggered yet
+     */
+    public static long getJobTriggerCostAvg(int jobId) {
+        return helper.jobTriggerCostTracker != null ? helper.jobTriggerCostTracker.getCostAvg(jobId) : -1;
+    }
+
+    /**
+     * trigger pool queue size (fast + slow)
+     */
+    public static int getQueueSize() {
+        return helper.fastTriggerPool.getQueue().size() + helper.slowTriggerPool.getQueue().size();
+    }
+
+    /**
+     * trigger pool queue capacity (fast + slow)
+     */
+    public static int getQueueCapacity() {
+        return helper.fastTriggerPool.getQueue().size() + helper.fastTriggerPool.getQueue().remainingCapacity()
+                + helper.slowTriggerPool.getQueue().size() + helper.slowTriggerPool.getQueue().remainingCapacity();
+    }
+
     /**
      * @param jobId
      * @param triggerType
@@ -0,0 +1,188 @@
+package com.xxl.job.admin.core.trigger;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * job and group metadata cache for trigger, LRU bounded, versioned by "update_time"
+ *
+ *      1、local change: invalidate by hook (job / group edit, registry refresh);
+ *      2、other admin change: sync each second, query version (id, update_time) changed since last sync, evict entry with different version;
+ *      3、entry expire after a while, reload (row removed by other admin, not found by version sync);
+ *      4、cached job and group are shared, read only; group registry list parsed once on load;
+ *
+ * @author xuxueli 2024-11-27
+ */
+public class JobMetadataCache {
+    private static Logger logger = LoggerFactory.getLogger(JobMetadataCache.class);
+
+    private static JobMetadataCache instance = new JobMetadataCache();
+    public static JobMetadataCache getInstance(){
+        return instance;
+    }
+
+    public static final int MAX_JOB_SIZE = 10000;
+    public static final int MAX_GROUP_SIZE = 1000;
+    public static final long SYNC_INTERVAL_MS = 1000;           // sync version from db, each second
+    public static final long SYNC_OVERLAP_MS = 30 * 1000;       // sync overlap, tolerate clock skew and commit delay
+    public static final long EXPIRE_MS = 60 * 1000;             // entry expire, reload
+
+    private static class Entry<T> {
+        private final T value;
+        private final long version;
+        private final long loadTime;
+
+        private Entry(T value, Date updateTime, long loadTime) {
+            this.value = value;
+            this.version = version(updateTime);
+            this.loadTime = loadTime;
+        }
+    }
+
+    private final Map<Integer, Entry<XxlJobInfo>> jobCache = newCache(MAX_JOB_SIZE);
+    private final Map<Integer, Entry<XxlJobGroup>> groupCache = newCache(MAX_GROUP_SIZE);
+    private final AtomicBoolean syncing = new AtomicBoolean(false);
+    private volatile long syncTime = System.currentTimeMillis();
+
+    private static <T> Map<Integer, Entry<T>> newCache(final int maxSize) {
+        return new LinkedHashMap<Integer, Entry<T>>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static long version(Date updateTime) {
+        return updateTime != null ? updateTime.getTime() : 0;
+    }
+
+
+    // ---------------------- load ----------------------
+
+    /**
+     * load job (shared, read only)
+     *
+     * @param jobId
+     * @return  null if not exists
+     */
+    public XxlJobInfo loadJob(int jobId) {
+        sync();
+
+        long nowTime = System.currentTimeMillis();
+        synchronized (jobCache) {
+            Entry<XxlJobInfo> entry = jobCache.get(jobId);
+            if (entry != null && nowTime - entry.loadTime < EXPIRE_MS) {
+                return entry.value;
+            }
+        }
+
+        // load out of lock
+        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        if (jobInfo != null) {
+            synchronized (jobCache) {
+                jobCache.put(jobId, new Entry<XxlJobInfo>(jobInfo, jobInfo.getUpdateTime(), nowTime));
+            }
+        }
+        return jobInfo;
+    }
+
+    /**
+     * load group (shared, read only)
+     *
+     * @param groupId
+     * @return  null if not exists
+     */
+    public XxlJobGroup loadGroup(int groupId) {
+        sync();
+
+        long nowTime = System.currentTimeMillis();
+        synchronized (groupCache) {
+            Entry<XxlJobGroup> entry = groupCache.get(groupId);
+            if (entry != null && nowTime - entry.loadTime < EXPIRE_MS) {
+                return entry.value;
+            }
+        }
+
+        // load out of lock, parse registry list before shared
+        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(groupId);
+        if (group != null) {
+            group.getRegistryList();
+            synchronized (groupCache) {
+                groupCache.put(groupId, new Entry<XxlJobGroup>(group, group.getUpdateTime(), nowTime));
+            }
+        }
+        return group;
+    }
+
+
+    // ---------------------- invalidate ----------------------
+
+    public void invalidateJob(int jobId) {
+        synchronized (jobCache) {
+            jobCache.remove(jobId);
+        }
+    }
+
+    public void invalidateGroup(int groupId) {
+        synchronized (groupCache) {
+            groupCache.remove(groupId);
+        }
+    }
+
+
+    // ---------------------- sync ----------------------
+
+    /**
+     * sync version changed by other admin, one caller each interval, others go on with cache
+     */
+    private void sync() {
+        long nowTime = System.currentTimeMillis();
+        if (nowTime - syncTime < SYNC_INTERVAL_MS || !syncing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Date updateTimeFrom = new Date(syncTime - SYNC_OVERLAP_MS);
+
+            List<XxlJobInfo> jobVersionList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().findUpdateVersion(updateTimeFrom);
+            if (jobVersionList != null && !jobVersionList.isEmpty()) {
+                synchronized (jobCache) {
+                    for (XxlJobInfo jobVersion: jobVersionList) {
+                        Entry<XxlJobInfo> entry = jobCache.get(jobVersion.getId());
+                        if (entry != null && entry.version != version(jobVersion.getUpdateTime())) {
+                            jobCache.remove(jobVersion.getId());
+                        }
+                    }
+                }
+            }
+
+            List<XxlJobGroup> groupVersionList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findUpdateVersion(updateTimeFrom);
+            if (groupVersionList != null && !groupVersionList.isEmpty()) {
+                synchronized (groupCache) {
+                    for (XxlJobGroup groupVersion: groupVersionList) {
+                        Entry<XxlJobGroup> entry = groupCache.get(groupVersion.getId());
+                        if (entry != null && entry.version != version(groupVersion.getUpdateTime())) {
+                            groupCache.remove(groupVersion.getId());
+                        }
+                    }
+                }
+            }
+
+            syncTime = nowTime;
+        } catch (Throwable e) {
+            logger.error(">>>>>>>>>>> xxl-job, JobMetadataCache sync error:{}", e);
+        } finally {
+            syncing.set(false);
+        }
+    }
+
+}
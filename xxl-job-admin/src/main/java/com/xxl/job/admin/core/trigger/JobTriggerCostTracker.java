@@ -0,0 +1,215 @@
+package com.xxl.job.admin.core.trigger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job trigger cost tracker, classify slow job (trigger in slow pool)
+ *
+ *      1、cost: ewma of trigger cost each job, new sample weight grow with time since last sample (half-life), at least 0.1;
+ *      2、classify: slow when cost avg above "slowThreshold", back to fast when below "recoverThreshold" (hysteresis, not flip back and forth);
+ *          not classified before "MIN_SAMPLE_COUNT" sample (one cold start / network blip not move job to slow pool);
+ *      3、store: primitive int-keyed open addressing table, striped by segment lock; job not triggered for a long time is dropped on resize;
+ *
+ * @author xuxueli 2024-12-02
+ */
+public class JobTriggerCostTracker {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_INIT_CAPACITY = 64;
+    private static final double MIN_WEIGHT = 0.1;
+    static final int MIN_SAMPLE_COUNT = 5;
+    private static final long STALE_MS = 24 * 60 * 60 * 1000;        // job not triggered in 1 day, drop
+
+    private final long slowThreshold;
+    private final long recoverThreshold;
+    private final long halfLifeMs;
+    private final Segment[] segments;
+    private final AtomicInteger slowCount = new AtomicInteger(0);
+
+    /**
+     * @param slowThreshold     ms, slow when cost avg above
+     * @param recoverThreshold  ms, fast when cost avg below, not greater than slowThreshold
+     * @param halfLifeMs        ms, weight of old cost avg halved each half-life
+     */
+    public JobTriggerCostTracker(long slowThreshold, long recoverThreshold, long halfLifeMs) {
+        this.slowThreshold = slowThreshold;
+        this.recoverThreshold = Math.min(recoverThreshold, slowThreshold);
+        this.halfLifeMs = halfLifeMs;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * record trigger cost
+     *
+     * @param jobId     job id, > 0
+     * @param costMs
+     */
+    public void record(int jobId, long costMs) {
+        record(jobId, costMs, System.currentTimeMillis());
+    }
+
+    void record(int jobId, long costMs, long now) {
+        if (jobId <= 0) {
+            return;
+        }
+        segmentFor(jobId).record(jobId, costMs, now);
+    }
+
+    /**
+     * slow job, trigger in slow pool
+     */
+    public boolean isSlow(int jobId) {
+        if (jobId <= 0) {
+            return false;
+        }
+        return segmentFor(jobId).isSlow(jobId);
+    }
+
+    /**
+     * trigger cost avg (ms), -1 if not triggered yet
+     */
+    public long getCostAvg(int jobId) {
+        if (jobId <= 0) {
+            return -1;
+        }
+        return segmentFor(jobId).getCostAvg(jobId);
+    }
+
+    /**
+     * slow job count
+     */
+    public int getSlowCount() {
+        return slowCount.get();
+    }
+
+    private Segment segmentFor(int jobId) {
+        return segments[(hash(jobId) >>> 28) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+
+    // ---------------------- segment ----------------------
+
+    private class Segment {
+        // slot empty when key is 0
+        private int[] keys = new int[SEGMENT_INIT_CAPACITY];
+        private double[] costAvgs = new double[SEGMENT_INIT_CAPACITY];
+        private long[] updateTimes = new long[SEGMENT_INIT_CAPACITY];
+        private boolean[] slows = new boolean[SEGMENT_INIT_CAPACITY];
+        private int[] sampleCounts = new int[SEGMENT_INIT_CAPACITY];      // up to MIN_SAMPLE_COUNT
+        private int size = 0;
+
+        private synchronized void record(int jobId, long costMs, long now) {
+            int slot = findSlot(keys, jobId);
+            if (keys[slot] == 0) {
+                // new job, first sample as cost avg
+                if ((size + 1) * 4 > keys.length * 3) {
+                    resize(now);
+                    slot = findSlot(keys, jobId);
+                }
+                keys[slot] = jobId;
+                costAvgs[slot] = costMs;
+                updateTimes[slot] = now;
+                sampleCounts[slot] = 1;
+                size++;
+            } else {
+                long elapsed = Math.max(now - updateTimes[slot], 0);
+                double weight = Math.max(1 - Math.pow(0.5, (double) elapsed / halfLifeMs), MIN_WEIGHT);
+                costAvgs[slot] = costAvgs[slot] * (1 - weight) + costMs * weight;
+                updateTimes[slot] = now;
+                if (sampleCounts[slot] < MIN_SAMPLE_COUNT) {
+                    sampleCounts[slot]++;
+                }
+            }
+
+            // classify, hysteresis
+            if (sampleCounts[slot] < MIN_SAMPLE_COUNT) {
+                return;
+            }
+            if (!slows[slot] && costAvgs[slot] > slowThreshold) {
+                slows[slot] = true;
+                slowCount.incrementAndGet();
+            } else if (slows[slot] && costAvgs[slot] < recoverThreshold) {
+                slows[slot] = false;
+                slowCount.decrementAndGet();
+            }
+        }
+
+        private synchronized boolean isSlow(int jobId) {
+            int slot = findSlot(keys, jobId);
+            return keys[slot] != 0 && slows[slot];
+        }
+
+        private synchronized long getCostAvg(int jobId) {
+            int slot = findSlot(keys, jobId);
+            return keys[slot] != 0 ? Math.round(costAvgs[slot]) : -1;
+        }
+
+        /**
+         * drop stale job, grow when still over half full
+         */
+        private void resize(long now) {
+            int[] oldKeys = keys;
+            double[] oldCostAvgs = costAvgs;
+            long[] oldUpdateTimes = updateTimes;
+            boolean[] oldSlows = slows;
+            int[] oldSampleCounts = sampleCounts;
+
+            int liveCount = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0 && now - oldUpdateTimes[i] <= STALE_MS) {
+                    liveCount++;
+                }
+            }
+            int capacity = oldKeys.length;
+            while ((liveCount + 1) * 2 > capacity) {
+                capacity <<= 1;
+            }
+
+            keys = new int[capacity];
+            costAvgs = new double[capacity];
+            updateTimes = new long[capacity];
+            slows = new boolean[capacity];
+            sampleCounts = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) {
+                    continue;
+                }
+                if (now - oldUpdateTimes[i] > STALE_MS) {
+                    if (oldSlows[i]) {
+                        slowCount.decrementAndGet();
+                    }
+                    continue;
+                }
+                int slot = findSlot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                costAvgs[slot] = oldCostAvgs[i];
+                updateTimes[slot] = oldUpdateTimes[i];
+                slows[slot] = oldSlows[i];
+                sampleCounts[slot] = oldSampleCounts[i];
+                size++;
+            }
+        }
+
+        /**
+         * slot of key, or first empty slot (linear probing, table never full)
+         */
+        private int findSlot(int[] table, int key) {
+            int mask = table.length - 1;
+            int slot = hash(key) & mask;
+            while (table[slot] != 0 && table[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+}
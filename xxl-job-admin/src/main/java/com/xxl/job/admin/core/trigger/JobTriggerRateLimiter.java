@@ -0,0 +1,234 @@
+package com.xxl.job.admin.core.trigger;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job trigger rate limiter, token bucket each job, each job group, and global
+ *
+ *      1、rate: trigger per second, 0 not limit; burst: tokens of one second;
+ *      2、acquire: take one token of each level, wait for the slowest level (token reserved, bucket may go negative);
+ *      3、over max wait: not take any token, trigger limited;
+ *      4、bucket of job / job group idle (refilled full) evicted periodically, same as new bucket; job or group deleted not kept;
+ *
+ * @author xuxueli 2024-12-03
+ */
+public class JobTriggerRateLimiter {
+
+    /**
+     * overflow behavior, when trigger over rate
+     */
+    public enum Overflow {
+        DELAY,          // delay until token available (max wait), reject after that
+        COALESCE,       // delay like "DELAY", but one delayed trigger each job at most, others collapsed into it
+        REJECT;         // reject at once
+
+        public static Overflow match(String name, Overflow defaultItem) {
+            if (name != null) {
+                for (Overflow item: Overflow.values()) {
+                    if (item.name().equalsIgnoreCase(name.trim())) {
+                        return item;
+                    }
+                }
+            }
+            return defaultItem;
+        }
+    }
+
+    private final int globalRate;
+    private final int groupRate;
+    private final int jobRate;
+    private final TokenBucket globalBucket;
+    private final ConcurrentMap<Integer, TokenBucket> groupBucketMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, TokenBucket> jobBucketMap = new ConcurrentHashMap<>();
+
+    public static final long EVICT_INTERVAL_MS = 60 * 1000;
+    private final AtomicLong lastEvictTime = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * @param globalRate    trigger per second, all job; 0 not limit
+     * @param groupRate     trigger per second, each job group; 0 not limit
+     * @param jobRate       trigger per second, each job; 0 not limit
+     */
+    public JobTriggerRateLimiter(int globalRate, int groupRate, int jobRate) {
+        this.globalRate = Math.max(globalRate, 0);
+        this.groupRate = Math.max(groupRate, 0);
+        this.jobRate = Math.max(jobRate, 0);
+        this.globalBucket = this.globalRate > 0 ? new TokenBucket(this.globalRate) : null;
+    }
+
+    public boolean isEnable() {
+        return globalRate > 0 || groupRate > 0 || jobRate > 0;
+    }
+
+    public boolean isGroupEnable() {
+        return groupRate > 0;
+    }
+
+    /**
+     * acquire token of job, job group, and global
+     *
+     * @param jobId
+     * @param jobGroup      job group, ignored if <= 0
+     * @param maxWaitMs     max wait ms, 0 if not wait
+     * @return  wait ms before trigger (0: trigger at once), -1: limited (wait over max wait)
+     */
+    public long acquire(int jobId, int jobGroup, long maxWaitMs) {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+
+        TokenBucket jobBucket = jobRate > 0 ? bucket(jobBucketMap, jobId, jobRate) : null;
+        TokenBucket groupBucket = (groupRate > 0 && jobGroup > 0) ? bucket(groupBucketMap, jobGroup, groupRate) : null;
+
+        // job
+        long jobWait = 0;
+        if (jobBucket != null) {
+            jobWait = jobBucket.acquire(now, maxWaitMs);
+            if (jobWait < 0) {
+                return -1;
+            }
+        }
+
+        // group
+        long groupWait = 0;
+        if (groupBucket != null) {
+            groupWait = groupBucket.acquire(now, maxWaitMs);
+            if (groupWait < 0) {
+                if (jobBucket != null) {
+                    jobBucket.release();
+                }
+                return -1;
+            }
+        }
+
+        // global
+        long globalWait = 0;
+        if (globalBucket != null) {
+            globalWait = globalBucket.acquire(now, maxWaitMs);
+            if (globalWait < 0) {
+                if (jobBucket != null) {
+                    jobBucket.release();
+                }
+                if (groupBucket != null) {
+                    groupBucket.release();
+                }
+                return -1;
+            }
+        }
+
+        return Math.max(jobWait, Math.max(groupWait, globalWait));
+    }
+
+    /**
+     * give back token of job, job group, and global (trigger acquired but not sent, e.g. collapsed)
+     */
+    public void release(int jobId, int jobGroup) {
+        TokenBucket jobBucket = jobRate > 0 ? jobBucketMap.get(jobId) : null;
+        if (jobBucket != null) {
+            jobBucket.release();
+        }
+        TokenBucket groupBucket = (groupRate > 0 && jobGroup > 0) ? groupBucketMap.get(jobGroup) : null;
+        if (groupBucket != null) {
+            groupBucket.release();
+        }
+        if (globalBucket != null) {
+            globalBucket.release();
+        }
+    }
+
+    /**
+     * evict idle bucket of job and job group, once each evict interval
+     */
+    void evictIdle(long now) {
+        long lastTime = lastEvictTime.get();
+        if (now - lastTime < EVICT_INTERVAL_MS || !lastEvictTime.compareAndSet(lastTime, now)) {
+            return;
+        }
+        evictIdle(jobBucketMap, now);
+        evictIdle(groupBucketMap, now);
+    }
+
+    private static void evictIdle(ConcurrentMap<Integer, TokenBucket> bucketMap, long now) {
+        for (Iterator<TokenBucket> it = bucketMap.values().iterator(); it.hasNext(); ) {
+            if (it.next().isIdle(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * bucket count of job and job group
+     */
+    int getBucketCount() {
+        return jobBucketMap.size() + groupBucketMap.size();
+    }
+
+    private static TokenBucket bucket(ConcurrentMap<Integer, TokenBucket> bucketMap, int key, int rate) {
+        TokenBucket bucket = bucketMap.get(key);
+        if (bucket == null) {
+            TokenBucket newBucket = new TokenBucket(rate);
+            bucket = bucketMap.putIfAbsent(key, newBucket);
+            if (bucket == null) {
+                bucket = newBucket;
+            }
+        }
+        return bucket;
+    }
+
+
+    // ---------------------- token bucket ----------------------
+
+    private static class TokenBucket {
+        private final double ratePerMs;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillTime;
+
+        private TokenBucket(int ratePerSecond) {
+            this.ratePerMs = ratePerSecond / 1000.0;
+            this.capacity = ratePerSecond;
+            this.tokens = ratePerSecond;
+            this.lastRefillTime = System.currentTimeMillis();
+        }
+
+        /**
+         * @return wait ms, -1 if over max wait (token not taken)
+         */
+        private synchronized long acquire(long now, long maxWaitMs) {
+            if (now > lastRefillTime) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillTime) * ratePerMs);
+                lastRefillTime = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+
+            // reserve token, wait until refilled
+            long waitMs = (long) Math.ceil((1 - tokens) / ratePerMs);
+            if (waitMs > maxWaitMs) {
+                return -1;
+            }
+            tokens -= 1;
+            return waitMs;
+        }
+
+        private synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        /**
+         * refilled full, not used for a while
+         */
+        private synchronized boolean isIdle(long now) {
+            if (now > lastRefillTime) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillTime) * ratePerMs);
+                lastRefillTime = now;
+            }
+            return tokens >= capacity;
+        }
+    }
+
+}
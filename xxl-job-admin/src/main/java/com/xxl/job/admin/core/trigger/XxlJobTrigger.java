@@ -1,11 +1,15 @@
 package com.xxl.job.admin.core.trigger;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.metrics.JobMetrics;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobLogWriteHelper;
+import com.xxl.job.admin.core.thread.JobTriggerBatchHelper;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.ReturnT;
@@ -16,7 +20,13 @@ import com.xxl.job.core.util.ThrowableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * xxl-job trigger
@@ -40,30 +50,52 @@ public class XxlJobTrigger {
      * @param addressList
      *          null: use executor addressList
      *          not null: cover
+     * @return  complete when trigger done (trigger async: after executor responded and log updated)
      */
-    public static void trigger(int jobId,
+    public static CompletableFuture<Void> trigger(int jobId,
                                TriggerTypeEnum triggerType,
                                int failRetryCount,
                                String executorShardingParam,
                                String executorParam,
                                String addressList) {
+        return trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam, addressList, 0);
+    }
+
+    /**
+     * trigger job
+     *
+     * @param coalesceCount
+     *          fire count coalesced into this trigger (skipped, while this trigger pending)
+     * @return  complete when trigger done (trigger async: after executor responded and log updated)
+     */
+    public static CompletableFuture<Void> trigger(int jobId,
+                               TriggerTypeEnum triggerType,
+                               int failRetryCount,
+                               String executorShardingParam,
+                               String executorParam,
+                               String addressList,
+                               int coalesceCount) {
 
-        // load data
-        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        // load data (metadata cache, shared and read only)
+        XxlJobInfo jobInfo = JobMetadataCache.getInstance().loadJob(jobId);
         if (jobInfo == null) {
             logger.warn(">>>>>>>>>>>> trigger fail, jobId invalid，jobId={}", jobId);
-            return;
-        }
-        if (executorParam != null) {
-            jobInfo.setExecutorParam(executorParam);
+            return CompletableFuture.completedFuture(null);
         }
+        String finalExecutorParam = executorParam!=null?executorParam:jobInfo.getExecutorParam();
         int finalFailRetryCount = failRetryCount>=0?failRetryCount:jobInfo.getExecutorFailRetryCount();
-        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobInfo.getJobGroup());
+        XxlJobGroup group = JobMetadataCache.getInstance().loadGroup(jobInfo.getJobGroup());
 
         // cover addressList
         if (addressList!=null && addressList.trim().length()>0) {
-            group.setAddressType(1);
-            group.setAddressList(addressList.trim());
+            XxlJobGroup coverGroup = new XxlJobGroup();
+            coverGroup.setId(group.getId());
+            coverGroup.setAppname(group.getAppname());
+            coverGroup.setTitle(group.getTitle());
+            coverGroup.setUpdateTime(group.getUpdateTime());
+            coverGroup.setAddressType(1);
+            coverGroup.setAddressList(addressList.trim());
+            group = coverGroup;
         }
 
         // sharding param
@@ -79,16 +111,145 @@ public class XxlJobTrigger {
         if (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null)
                 && group.getRegistryList()!=null && !group.getRegistryList().isEmpty()
                 && shardingParam==null) {
-            for (int i = 0; i < group.getRegistryList().size(); i++) {
-                processTrigger(group, jobInfo, finalFailRetryCount, triggerType, i, group.getRegistryList().size());
-            }
+            return processBroadcastTrigger(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, coalesceCount);
         } else {
             if (shardingParam == null) {
                 shardingParam = new int[]{0, 1};
             }
-            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1]);
+
+            // save log-id
+            final boolean logAsyncWrite = JobLogWriteHelper.getInstance().isEnable();
+            List<XxlJobLog> jobLogList = Collections.singletonList(newJobLog(jobInfo));
+            long logStart = System.currentTimeMillis();
+            saveJobLog(jobLogList, logAsyncWrite);
+            long logCost = System.currentTimeMillis() - logStart;
+
+            return processTrigger(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, coalesceCount, shardingParam[0], shardingParam[1],
+                    jobLogList.get(0), logAsyncWrite, logCost, -1).thenApply(triggerResult -> null);
+        }
+
+    }
+
+    /**
+     * sharding broadcast, each shard to one executor address
+     *
+     *      1、log: all shard log created in one batch (one db round trip);
+     *      2、dispatch: shard triggered in parallel, bounded by broadcast trigger pool (xxl.job.triggerpool.broadcast.max);
+     *      3、gather: complete when all shard done, outcome of each shard collected;
+     *
+     * @return  complete when all shard trigger done
+     */
+    private static CompletableFuture<Void> processBroadcastTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo, final String finalExecutorParam, final int finalFailRetryCount, final TriggerTypeEnum triggerType, final int coalesceCount){
+        final long startTime = System.currentTimeMillis();
+        final int total = group.getRegistryList().size();
+
+        // 1、save log-id, all shard in one batch
+        final boolean logAsyncWrite = JobLogWriteHelper.getInstance().isEnable();
+        final List<XxlJobLog> jobLogList = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            jobLogList.add(newJobLog(jobInfo));
+        }
+        saveJobLog(jobLogList, logAsyncWrite);
+        final long logCost = System.currentTimeMillis() - startTime;
+
+        // 2、dispatch shard in parallel
+        final List<CompletableFuture<ReturnT<String>>> shardFutureList = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            final int index = i;
+            final long dispatchTime = System.currentTimeMillis();
+            shardFutureList.add(CompletableFuture
+                    .supplyAsync(() -> processTrigger(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, coalesceCount, index, total,
+                            jobLogList.get(index), logAsyncWrite, logCost, System.currentTimeMillis() - dispatchTime),
+                            JobTriggerPoolHelper.getBroadcastTriggerExecutor())
+                    .thenCompose(shardFuture -> shardFuture));
+        }
+
+        // 3、gather shard outcome
+        return CompletableFuture.allOf(shardFutureList.toArray(new CompletableFuture[0])).handle((result, e) -> {
+            int successCount = 0;
+            List<String> failShardList = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                CompletableFuture<ReturnT<String>> shardFuture = shardFutureList.get(i);
+                ReturnT<String> triggerResult = shardFuture.isCompletedExceptionally() ? null : shardFuture.join();
+                if (triggerResult != null && triggerResult.getCode() == ReturnT.SUCCESS_CODE) {
+                    successCount++;
+                } else {
+                    failShardList.add(i + "/" + total + "@" + group.getRegistryList().get(i));
+                }
+            }
+            if (failShardList.isEmpty()) {
+                logger.debug(">>>>>>>>>>> xxl-job broadcast trigger end, jobId:{}, total:{}, cost:{}ms", jobInfo.getId(), total, System.currentTimeMillis() - startTime);
+            } else {
+                logger.warn(">>>>>>>>>>> xxl-job broadcast trigger end, jobId:{}, total:{}, success:{}, fail shard:{}, cost:{}ms",
+                        jobInfo.getId(), total, successCount, failShardList, System.currentTimeMillis() - startTime);
+            }
+            if (e != null) {
+                throw new CompletionException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * trigger rejected before trigger (rate limit, trigger pool full), save fail log, alarmed by fail monitor (not retry, overload)
+     *
+     * @param rejectMsg     reject reason
+     */
+    public static void rejectTrigger(int jobId,
+                                     TriggerTypeEnum triggerType,
+                                     String executorShardingParam,
+                                     String executorParam,
+                                     String rejectMsg) {
+        XxlJobInfo jobInfo = JobMetadataCache.getInstance().loadJob(jobId);
+        if (jobInfo == null) {
+            logger.warn(">>>>>>>>>>>> trigger reject log fail, jobId invalid，jobId={}", jobId);
+            return;
         }
 
+        // save log-id
+        final boolean logAsyncWrite = JobLogWriteHelper.getInstance().isEnable();
+        XxlJobLog jobLog = newJobLog(jobInfo);
+        saveJobLog(Collections.singletonList(jobLog), logAsyncWrite);
+
+        // save log trigger-info
+        StringBuffer triggerMsgSb = new StringBuffer();
+        triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
+        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：").append(IpUtil.getIp());
+        triggerMsgSb.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_run") +"<<<<<<<<<<< </span><br>")
+                .append(rejectMsg);
+
+        jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
+        jobLog.setExecutorParam(executorParam!=null?executorParam:jobInfo.getExecutorParam());
+        jobLog.setExecutorShardingParam(executorShardingParam);
+        jobLog.setExecutorFailRetryCount(0);
+        jobLog.setTriggerCode(ReturnT.FAIL_CODE);
+        jobLog.setTriggerMsg(triggerMsgSb.toString());
+        if (logAsyncWrite) {
+            JobLogWriteHelper.getInstance().add(jobLog);
+        } else {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+        }
+    }
+
+    private static XxlJobLog newJobLog(XxlJobInfo jobInfo){
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setJobGroup(jobInfo.getJobGroup());
+        jobLog.setJobId(jobInfo.getId());
+        jobLog.setTriggerTime(new Date());
+        return jobLog;
+    }
+
+    /**
+     * save log-id, before trigger (log async write: log-id from id segment, written in batch with other trigger; trigger info written after trigger)
+     */
+    private static void saveJobLog(List<XxlJobLog> jobLogList, boolean logAsyncWrite){
+        if (logAsyncWrite) {
+            JobLogWriteHelper.getInstance().persist(jobLogList);
+        } else if (jobLogList.size() == 1) {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().save(jobLogList.get(0));
+        } else {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveInitBatch(jobLogList);
+        }
     }
 
     private static boolean isNumeric(String str){
@@ -103,31 +264,34 @@ public class XxlJobTrigger {
     /**
      * @param group                     job group, registry list may be empty
      * @param jobInfo
+     * @param finalExecutorParam        executor param, cover job param
      * @param finalFailRetryCount
      * @param triggerType
+     * @param coalesceCount             fire count coalesced into this trigger
      * @param index                     sharding index
      * @param total                     sharding index
+     * @param jobLog                    log created, id assigned
+     * @param logAsyncWrite             log async write, trigger info written after trigger
+     * @param logCost                   log create cost (ms)
+     * @param waitCost                  wait cost before dispatched (ms), -1 if not queued
+     * @return  trigger result, complete when trigger done
      */
-    private static void processTrigger(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount, TriggerTypeEnum triggerType, int index, int total){
+    private static CompletableFuture<ReturnT<String>> processTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo, final String finalExecutorParam, final int finalFailRetryCount, final TriggerTypeEnum triggerType, final int coalesceCount, int index, int total,
+                                                                    final XxlJobLog jobLog, final boolean logAsyncWrite, final long logCost, final long waitCost){
 
         // param
-        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
-        ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
-        String shardingParam = (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==executorRouteStrategyEnum)?String.valueOf(index).concat("/").concat(String.valueOf(total)):null;
+        final ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
+        final ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
+        final String shardingParam = (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==executorRouteStrategyEnum)?String.valueOf(index).concat("/").concat(String.valueOf(total)):null;
 
-        // 1、save log-id
-        XxlJobLog jobLog = new XxlJobLog();
-        jobLog.setJobGroup(jobInfo.getJobGroup());
-        jobLog.setJobId(jobInfo.getId());
-        jobLog.setTriggerTime(new Date());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().save(jobLog);
+        // 1、log-id (created by caller, sharding broadcast in one batch)
         logger.debug(">>>>>>>>>>> xxl-job trigger start, jobId:{}", jobLog.getId());
 
         // 2、init trigger-param
         TriggerParam triggerParam = new TriggerParam();
         triggerParam.setJobId(jobInfo.getId());
         triggerParam.setExecutorHandler(jobInfo.getExecutorHandler());
-        triggerParam.setExecutorParams(jobInfo.getExecutorParam());
+        triggerParam.setExecutorParams(finalExecutorParam);
         triggerParam.setExecutorBlockStrategy(jobInfo.getExecutorBlockStrategy());
         triggerParam.setExecutorTimeout(jobInfo.getExecutorTimeout());
         triggerParam.setLogId(jobLog.getId());
@@ -139,6 +303,7 @@ public class XxlJobTrigger {
         triggerParam.setBroadcastTotal(total);
 
         // 3、init address
+        long routeStart = System.currentTimeMillis();
         String address = null;
         ReturnT<String> routeAddressResult = null;
         if (group.getRegistryList()!=null && !group.getRegistryList().isEmpty()) {
@@ -158,44 +323,95 @@ public class XxlJobTrigger {
             routeAddressResult = new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobconf_trigger_address_empty"));
         }
 
-        // 4、trigger remote executor
-        ReturnT<String> triggerResult = null;
-        if (address != null) {
-            triggerResult = runExecutor(triggerParam, address);
-        } else {
-            triggerResult = new ReturnT<String>(ReturnT.FAIL_CODE, null);
-        }
+        final long routeCost = System.currentTimeMillis() - routeStart;
 
-        // 5、collection trigger info
-        StringBuffer triggerMsgSb = new StringBuffer();
-        triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：").append(IpUtil.getIp());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：")
-                .append( (group.getAddressType() == 0)?I18nUtil.getString("jobgroup_field_addressType_0"):I18nUtil.getString("jobgroup_field_addressType_1") );
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regaddress")).append("：").append(group.getRegistryList());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：").append(executorRouteStrategyEnum.getTitle());
-        if (shardingParam != null) {
-            triggerMsgSb.append("("+shardingParam+")");
-        }
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：").append(blockStrategy.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：").append(jobInfo.getExecutorTimeout());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：").append(finalFailRetryCount);
+        // 5、6、trigger complete: collection trigger info, save log trigger-info
+        final String finalAddress = address;
+        final ReturnT<String> finalRouteAddressResult = routeAddressResult;
+        final long rpcStart = System.currentTimeMillis();
+        Function<ReturnT<String>, ReturnT<String>> triggerComplete = triggerResult -> {
+            long rpcCost = finalAddress!=null ? System.currentTimeMillis() - rpcStart : 0;
+            // 5、collection trigger info
+            StringBuffer triggerMsgSb = new StringBuffer();
+            triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
+            if (coalesceCount > 0) {
+                triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_coalesce_count")).append("：").append(coalesceCount);
+            }
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：").append(IpUtil.getIp());
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：")
+                    .append( (group.getAddressType() == 0)?I18nUtil.getString("jobgroup_field_addressType_0"):I18nUtil.getString("jobgroup_field_addressType_1") );
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regaddress")).append("：").append(group.getRegistryList());
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：").append(executorRouteStrategyEnum.getTitle());
+            if (shardingParam != null) {
+                triggerMsgSb.append("("+shardingParam+")");
+            }
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：").append(blockStrategy.getTitle());
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：").append(jobInfo.getExecutorTimeout());
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：").append(finalFailRetryCount);
+            triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_cost")).append("：")
+                    .append(waitCost>=0?"wait "+waitCost+"ms / ":"")
+                    .append("log ").append(logCost).append("ms").append(waitCost>=0?"(batch)":"")
+                    .append(" / route ").append(routeCost).append("ms")
+                    .append(" / rpc ").append(rpcCost).append("ms");
 
-        triggerMsgSb.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_run") +"<<<<<<<<<<< </span><br>")
-                .append((routeAddressResult!=null&&routeAddressResult.getMsg()!=null)?routeAddressResult.getMsg()+"<br><br>":"").append(triggerResult.getMsg()!=null?triggerResult.getMsg():"");
+            triggerMsgSb.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_run") +"<<<<<<<<<<< </span><br>")
+                    .append((finalRouteAddressResult!=null&&finalRouteAddressResult.getMsg()!=null)?finalRouteAddressResult.getMsg()+"<br><br>":"").append(triggerResult.getMsg()!=null?triggerResult.getMsg():"");
 
-        // 6、save log trigger-info
-        jobLog.setExecutorAddress(address);
-        jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
-        jobLog.setExecutorParam(jobInfo.getExecutorParam());
-        jobLog.setExecutorShardingParam(shardingParam);
-        jobLog.setExecutorFailRetryCount(finalFailRetryCount);
-        //jobLog.setTriggerTime();
-        jobLog.setTriggerCode(triggerResult.getCode());
-        jobLog.setTriggerMsg(triggerMsgSb.toString());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+            // 6、save log trigger-info
+            jobLog.setExecutorAddress(finalAddress);
+            jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
+            jobLog.setExecutorParam(finalExecutorParam);
+            jobLog.setExecutorShardingParam(shardingParam);
+            jobLog.setExecutorFailRetryCount(finalFailRetryCount);
+            //jobLog.setTriggerTime();
+            jobLog.setTriggerCode(triggerResult.getCode());
+            jobLog.setTriggerMsg(triggerMsgSb.toString());
+            long updateStart = System.currentTimeMillis();
+            if (logAsyncWrite) {
+                JobLogWriteHelper.getInstance().add(jobLog);
+            } else {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+            }
+            JobMetrics.recordTriggerDb(logCost + System.currentTimeMillis() - updateStart);
+            logger.debug(">>>>>>>>>>> xxl-job trigger end, jobId:{}", jobLog.getId());
+            return triggerResult;
+        };
+
+        // 4、trigger remote executor (trigger async: trigger thread not wait, complete in rpc callback; trigger batch: sent with other trigger to same address)
+        if (address == null) {
+            return CompletableFuture.completedFuture(triggerComplete.apply(new ReturnT<String>(ReturnT.FAIL_CODE, null)));
+        }
+        boolean triggerAsync = XxlJobAdminConfig.getAdminConfig().isTriggerAsyncEnable();
+        if (!triggerAsync && !JobTriggerBatchHelper.getInstance().isEnable()) {
+            ReturnT<String> triggerResult = runExecutor(triggerParam, address);
+            JobMetrics.recordTriggerRpc(System.currentTimeMillis() - rpcStart);
+            return CompletableFuture.completedFuture(triggerComplete.apply(triggerResult));
+        }
+        if (!triggerAsync) {
+            ReturnT<String> triggerResult = runExecutorBatch(triggerParam, address).join();
+            JobMetrics.recordTriggerRpc(System.currentTimeMillis() - rpcStart);
+            return CompletableFuture.completedFuture(triggerComplete.apply(triggerResult));
+        }
 
-        logger.debug(">>>>>>>>>>> xxl-job trigger end, jobId:{}", jobLog.getId());
+        // trigger async, in flight bounded (wait for permit, released after trigger complete)
+        try {
+            JobTriggerPoolHelper.acquireTriggerInflight();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(triggerComplete.apply(new ReturnT<String>(ReturnT.FAIL_CODE, "trigger interrupted, admin stopping.")));
+        }
+        try {
+            CompletableFuture<ReturnT<String>> runFuture = JobTriggerBatchHelper.getInstance().isEnable()
+                    ? runExecutorBatch(triggerParam, address)
+                    : runExecutorAsync(triggerParam, address);
+            return runFuture
+                    .whenComplete((triggerResult, e) -> JobMetrics.recordTriggerRpc(System.currentTimeMillis() - rpcStart))
+                    .thenApplyAsync(triggerComplete, JobTriggerPoolHelper.getTriggerCompleteExecutor())     // leave rpc io thread, log update may write db
+                    .whenComplete((triggerResult, e) -> JobTriggerPoolHelper.releaseTriggerInflight());
+        } catch (Throwable e) {
+            JobTriggerPoolHelper.releaseTriggerInflight();
+            throw e;
+        }
     }
 
     /**
@@ -213,7 +429,50 @@ public class XxlJobTrigger {
             logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", address, e);
             runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
         }
+        return runResultMsg(runResult, address);
+    }
+
+    /**
+     * run executor, non-blocking
+     * @param triggerParam
+     * @param address
+     * @return  complete when executor responded, never exceptionally
+     */
+    public static CompletableFuture<ReturnT<String>> runExecutorAsync(TriggerParam triggerParam, final String address){
+        CompletableFuture<ReturnT<String>> runFuture = null;
+        try {
+            ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+            runFuture = executorBiz.runAsync(triggerParam);
+        } catch (Exception e) {
+            runFuture = new CompletableFuture<>();
+            runFuture.completeExceptionally(e);
+        }
+
+        return runFuture.handle((runResult, e) -> {
+            if (e != null) {
+                logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", address, e);
+                runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
+            }
+            return runResultMsg(runResult, address);
+        });
+    }
+
+    /**
+     * run executor, sent in batch with other trigger to same address
+     * @param triggerParam
+     * @param address
+     * @return  complete when executor responded, never exceptionally
+     */
+    public static CompletableFuture<ReturnT<String>> runExecutorBatch(TriggerParam triggerParam, final String address){
+        return JobTriggerBatchHelper.getInstance().run(triggerParam, address).thenApply(runResult -> {
+            if (runResult.getCode() != ReturnT.SUCCESS_CODE) {
+                logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running. msg:{}", address, runResult.getMsg());
+            }
+            return runResultMsg(runResult, address);
+        });
+    }
 
+    private static ReturnT<String> runResultMsg(ReturnT<String> runResult, String address){
         StringBuffer runResultSB = new StringBuffer(I18nUtil.getString("jobconf_trigger_run") + "：");
         runResultSB.append("<br>address：").append(address);
         runResultSB.append("<br>code：").append(runResult.getCode());
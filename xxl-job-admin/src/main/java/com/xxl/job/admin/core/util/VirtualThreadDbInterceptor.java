@@ -0,0 +1,45 @@
+package com.xxl.job.admin.core.util;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * virtual thread mode, mapper db access of virtual thread wait for permit (datasource pool size less reserved), see VirtualThreadUtil
+ *
+ *      1、virtual thread (trigger / registry / callback pool): permit held for one statement, not re-entered (nested select run in same executor);
+ *      2、platform thread not wait: schedule thread run mapper statement while holding "for update" lock on its own connection, not queued behind virtual thread;
+ *
+ * @author xuxueli 2024-12-04
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class})
+})
+public class VirtualThreadDbInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Semaphore dbPermits = VirtualThreadUtil.getDbPermits();
+        if (dbPermits == null || !VirtualThreadUtil.isVirtualThread()) {
+            return invocation.proceed();
+        }
+
+        dbPermits.acquire();
+        try {
+            return invocation.proceed();
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+}
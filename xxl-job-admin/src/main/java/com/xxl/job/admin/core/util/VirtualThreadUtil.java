@@ -0,0 +1,187 @@
+package com.xxl.job.admin.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * virtual thread util, admin thread pool (trigger / registry / callback) run on virtual thread
+ *
+ *      1、jdk21+: virtual thread (by reflection, compiled on jdk8), blocking jdbc / http not hold platform thread;
+ *      2、virtual thread mode: pool size "virtualMaxPoolSize", thread start for each task (not wait in queue) until max;
+ *      3、not supported (jdk < 21) or not enabled: platform thread pool, as before;
+ *      4、virtual thread mode, db access of virtual thread limited to datasource pool size less reserved (see VirtualThreadDbInterceptor), not thousands wait for connection and time out;
+ *          platform thread (schedule thread holding lock connection, monitor, web) not limited, and connection reserved for it;
+ *
+ * @author xuxueli 2024-12-04
+ */
+public class VirtualThreadUtil {
+    private static Logger logger = LoggerFactory.getLogger(VirtualThreadUtil.class);
+
+    /**
+     * datasource connection reserved for platform thread, virtual thread mode
+     */
+    public static final int DB_PLATFORM_RESERVED = 5;
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method IS_VIRTUAL;
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method isVirtual = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            isVirtual = Thread.class.getMethod("isVirtual");
+
+            // preview on jdk19/20, throw UnsupportedOperationException
+            ofVirtual.invoke(null);
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private static volatile boolean enable = false;
+    private static volatile int virtualMaxPoolSize = 10000;
+    private static volatile Semaphore dbPermits = null;
+
+    /**
+     * virtual thread supported, jdk21+
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * current thread is virtual thread
+     */
+    public static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * virtual thread mode enabled (and supported)
+     */
+    public static boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * init, before thread pool created
+     *
+     * @param enableVirtualThread
+     * @param maxPoolSize           pool size each pool, virtual thread mode
+     * @param dbMaxConcurrency      datasource pool size, virtual thread db access limited to it less "DB_PLATFORM_RESERVED" (at least 1); 0 not limit
+     */
+    public static void init(boolean enableVirtualThread, int maxPoolSize, int dbMaxConcurrency) {
+        virtualMaxPoolSize = maxPoolSize;
+        if (enableVirtualThread && !isSupported()) {
+            logger.warn(">>>>>>>>>>> xxl-job, virtual thread not supported (jdk21+ required), fallback to platform thread, java.version:{}", System.getProperty("java.version"));
+        }
+        enable = enableVirtualThread && isSupported();
+        int dbVirtualConcurrency = Math.max(dbMaxConcurrency - DB_PLATFORM_RESERVED, 1);
+        dbPermits = (enable && dbMaxConcurrency > 0) ? new Semaphore(dbVirtualConcurrency, true) : null;
+        if (enable) {
+            logger.info(">>>>>>>>> init xxl-job admin virtual thread mode success, max pool size = {}, db max concurrency (virtual thread) = {}.", maxPoolSize, dbMaxConcurrency > 0 ? dbVirtualConcurrency : 0);
+        }
+    }
+
+    /**
+     * db access permit of virtual thread, virtual thread mode
+     *
+     * @return  null if not limited
+     */
+    public static Semaphore getDbPermits() {
+        return dbPermits;
+    }
+
+    /**
+     * virtual thread factory, thread named "namePrefix" + counter
+     *
+     * @return  null if not supported
+     */
+    public static ThreadFactory newVirtualThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (Throwable e) {
+            logger.error(">>>>>>>>>>> xxl-job, virtual thread factory create fail, fallback to platform thread.", e);
+            return null;
+        }
+    }
+
+    /**
+     * new thread pool, virtual thread if enabled, else platform thread
+     *
+     * @param threadNamePrefix
+     * @param corePoolSize          platform thread
+     * @param maxPoolSize           platform thread
+     * @param keepAliveSeconds
+     * @param workQueue
+     * @param handler               null: abort
+     * @return
+     */
+    public static ThreadPoolExecutor newThreadPool(final String threadNamePrefix,
+                                                   int corePoolSize,
+                                                   int maxPoolSize,
+                                                   long keepAliveSeconds,
+                                                   BlockingQueue<Runnable> workQueue,
+                                                   RejectedExecutionHandler handler) {
+        if (handler == null) {
+            handler = new ThreadPoolExecutor.AbortPolicy();
+        }
+
+        // virtual thread
+        ThreadFactory virtualThreadFactory = enable ? newVirtualThreadFactory(threadNamePrefix) : null;
+        if (virtualThreadFactory != null) {
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                    virtualMaxPoolSize,
+                    virtualMaxPoolSize,
+                    keepAliveSeconds,
+                    TimeUnit.SECONDS,
+                    workQueue,
+                    virtualThreadFactory,
+                    handler);
+            threadPool.allowCoreThreadTimeOut(true);
+            return threadPool;
+        }
+
+        // platform thread
+        return new ThreadPoolExecutor(
+                corePoolSize,
+                maxPoolSize,
+                keepAliveSeconds,
+                TimeUnit.SECONDS,
+                workQueue,
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, threadNamePrefix + r.hashCode());
+                    }
+                },
+                handler);
+    }
+
+}
@@ -4,6 +4,7 @@ import com.xxl.job.admin.core.model.XxlJobGroup;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -16,14 +17,26 @@ public interface XxlJobGroupDao {
 
     public List<XxlJobGroup> findByAddressType(@Param("addressType") int addressType);
 
+    public List<XxlJobGroup> findByAppname(@Param("appname") String appname,
+                                           @Param("addressType") int addressType);
+
     public int save(XxlJobGroup xxlJobGroup);
 
     public int update(XxlJobGroup xxlJobGroup);
 
+    public int updateAddressList(@Param("id") int id,
+                                 @Param("addressList") String addressList,
+                                 @Param("updateTime") Date updateTime);
+
     public int remove(@Param("id") int id);
 
     public XxlJobGroup load(@Param("id") int id);
 
+    /**
+     * find group version (id, update_time) changed since, for group metadata cache sync
+     */
+    public List<XxlJobGroup> findUpdateVersion(@Param("updateTimeFrom") Date updateTimeFrom);
+
     public List<XxlJobGroup> pageList(@Param("offset") int offset,
                                       @Param("pagesize") int pagesize,
                                       @Param("appname") String appname,
@@ -0,0 +1,42 @@
+package com.xxl.job.admin.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * id segment (pre-allocated id range, each admin take a segment "(maxId - step, maxId]" each time)
+ *
+ * @author xuxueli 2024-11-28
+ */
+@Mapper
+public interface XxlJobIdSegmentDao {
+
+    /**
+     * init segment, skip exists
+     *
+     * @param bizTag
+     * @return
+     */
+    public int initSegment(@Param("bizTag") String bizTag);
+
+    /**
+     * load segment max id
+     *
+     * @param bizTag
+     * @return
+     */
+    public Long loadMaxId(@Param("bizTag") String bizTag);
+
+    /**
+     * update segment max id, limit "max_id = oldMaxId" (compare and set, segment taken by only one admin)
+     *
+     * @param bizTag
+     * @param oldMaxId
+     * @param newMaxId
+     * @return
+     */
+    public int updateMaxId(@Param("bizTag") String bizTag,
+                           @Param("oldMaxId") long oldMaxId,
+                           @Param("newMaxId") long newMaxId);
+
+}
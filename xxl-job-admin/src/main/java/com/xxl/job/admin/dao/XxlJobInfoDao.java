@@ -4,6 +4,7 @@ import com.xxl.job.admin.core.model.XxlJobInfo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 
@@ -42,13 +43,30 @@ public interface XxlJobInfoDao {
 	public int findAllCount();
 
 	/**
-	 * find schedule job, limit "trigger_status = 1"
+	 * find schedule job, limit "trigger_status = 1" (schedule column only)
 	 *
 	 * @param maxNextTime
 	 * @param pagesize
+	 * @param slotCount		schedule partition slot count, work with slotIds
+	 * @param slotIds		null: all job; not null: limit "id % slotCount in slotIds"
 	 * @return
 	 */
-	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime, @Param("pagesize") int pagesize );
+	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime,
+											 @Param("pagesize") int pagesize,
+											 @Param("slotCount") int slotCount,
+											 @Param("slotIds") List<Integer> slotIds);
+
+	/**
+	 * load schedule job, for in-memory schedule index (schedule column only)
+	 *
+	 * @param updateTimeFrom	null: all running job (limit "trigger_status = 1"); not null: job changed since, include stopped job
+	 * @param slotCount			schedule partition slot count, work with slotIds
+	 * @param slotIds			limit "id % slotCount in slotIds"
+	 * @return
+	 */
+	public List<XxlJobInfo> scheduleJobLoad(@Param("updateTimeFrom") Date updateTimeFrom,
+											@Param("slotCount") int slotCount,
+											@Param("slotIds") List<Integer> slotIds);
 
 	/**
 	 * update schedule job, limit "trigger_status = 1"（avoid stopping tasks from being opened）
@@ -58,5 +76,21 @@ public interface XxlJobInfoDao {
 	 */
 	public int scheduleUpdate(XxlJobInfo xxlJobInfo);
 
+	/**
+	 * batch update schedule job in one statement, limit "trigger_status = 1"
+	 *
+	 * @param jobList
+	 * @return
+	 */
+	public int scheduleUpdateBatch(@Param("jobList") List<XxlJobInfo> jobList);
+
+	/**
+	 * find job version (id, update_time) changed since, for job metadata cache sync
+	 *
+	 * @param updateTimeFrom
+	 * @return
+	 */
+	public List<XxlJobInfo> findUpdateVersion(@Param("updateTimeFrom") Date updateTimeFrom);
+
 
 }
@@ -35,8 +35,39 @@ public interface XxlJobLogDao {
 
 	public long save(XxlJobLog xxlJobLog);
 
+	/**
+	 * batch save log (trigger info updated later), multi-row insert, id generated and set back
+	 *
+	 * @param logList
+	 * @return
+	 */
+	public int saveInitBatch(@Param("logList") List<XxlJobLog> logList);
+
+	/**
+	 * batch save log (id pre-allocated), multi-row insert
+	 *
+	 * @param logList
+	 * @return
+	 */
+	public int saveBatch(@Param("logList") List<XxlJobLog> logList);
+
+	/**
+	 * max log id, 0 if empty
+	 *
+	 * @return
+	 */
+	public long findMaxId();
+
 	public int updateTriggerInfo(XxlJobLog xxlJobLog);
 
+	/**
+	 * batch update trigger info in one statement
+	 *
+	 * @param logList
+	 * @return
+	 */
+	public int updateTriggerInfoBatch(@Param("logList") List<XxlJobLog> logList);
+
 	public int updateHandleInfo(XxlJobLog xxlJobLog);
 	
 	public int delete(@Param("jobId") int jobId);
@@ -21,11 +21,20 @@ public interface XxlJobRegistryDao {
     public List<XxlJobRegistry> findAll(@Param("timeout") int timeout,
                                         @Param("nowTime") Date nowTime);
 
+    public List<XxlJobRegistry> findByKey(@Param("registryGroup") String registryGroup,
+                                          @Param("registryKey") String registryKey,
+                                          @Param("timeout") int timeout,
+                                          @Param("nowTime") Date nowTime);
+
     public int registrySaveOrUpdate(@Param("registryGroup") String registryGroup,
                             @Param("registryKey") String registryKey,
                             @Param("registryValue") String registryValue,
+                            @Param("weight") int weight,
+                            @Param("maxConcurrency") int maxConcurrency,
                             @Param("updateTime") Date updateTime);
 
+    public int registryBatchSaveOrUpdate(@Param("registryList") List<XxlJobRegistry> registryList);
+
     /*public int registryUpdate(@Param("registryGroup") String registryGroup,
                               @Param("registryKey") String registryKey,
                               @Param("registryValue") String registryValue,
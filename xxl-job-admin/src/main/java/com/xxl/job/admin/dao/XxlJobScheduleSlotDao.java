@@ -0,0 +1,58 @@
+package com.xxl.job.admin.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * schedule slot (partitioned schedule, job belong to slot "id % slotCount")
+ *
+ * @author xuxueli 2024-11-20
+ */
+@Mapper
+public interface XxlJobScheduleSlotDao {
+
+    /**
+     * init slot, skip exists
+     *
+     * @param slotIds
+     * @return
+     */
+    public int initSlot(@Param("slotIds") List<Integer> slotIds);
+
+    /**
+     * find slot owned by node, and lease not expired
+     *
+     * @param owner
+     * @param nowTime
+     * @return
+     */
+    public List<Integer> findOwnedSlot(@Param("owner") String owner,
+                                       @Param("nowTime") long nowTime);
+
+    /**
+     * claim (or renew) slot, limit "owned by self or lease expired"
+     *
+     * @param owner
+     * @param slotIds
+     * @param nowTime
+     * @param leaseTime
+     * @return
+     */
+    public int claimSlot(@Param("owner") String owner,
+                         @Param("slotIds") List<Integer> slotIds,
+                         @Param("nowTime") long nowTime,
+                         @Param("leaseTime") long leaseTime);
+
+    /**
+     * release slot owned by node
+     *
+     * @param owner
+     * @param slotIds   null: release all
+     * @return
+     */
+    public int releaseSlot(@Param("owner") String owner,
+                           @Param("slotIds") List<Integer> slotIds);
+
+}
@@ -1,6 +1,6 @@
 package com.xxl.job.admin.service.impl;
 
-import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
@@ -10,6 +10,7 @@ import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
 import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
+import com.xxl.job.admin.core.trigger.JobMetadataCache;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.*;
@@ -51,6 +52,12 @@ public class XxlJobServiceImpl implements XxlJobService {
 		// page list
 		List<XxlJobInfo> list = xxlJobInfoDao.pageList(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author);
 		int list_count = xxlJobInfoDao.pageListCount(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author);
+
+		// trigger cost, slow job
+		for (XxlJobInfo jobInfo: list) {
+			jobInfo.setTriggerCostAvg(JobTriggerPoolHelper.getJobTriggerCostAvg(jobInfo.getId()));
+			jobInfo.setTriggerSlow(JobTriggerPoolHelper.isSlowJob(jobInfo.getId()));
+		}
 		
 		// package result
 		Map<String, Object> maps = new HashMap<String, Object>();
@@ -81,7 +88,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("schedule_type")+I18nUtil.getString("system_unvalid")) );
 		}
 		if (scheduleTypeEnum == ScheduleTypeEnum.CRON) {
-			if (jobInfo.getScheduleConf()==null || !CronExpression.isValidExpression(jobInfo.getScheduleConf())) {
+			if (jobInfo.getScheduleConf()==null || !CronExpressionCache.isValidExpression(jobInfo.getScheduleConf())) {
 				return new ReturnT<String>(ReturnT.FAIL_CODE, "Cron"+I18nUtil.getString("system_unvalid"));
 			}
 		} else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE/* || scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY*/) {
@@ -159,6 +166,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 		if (jobInfo.getId() < 1) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("jobinfo_field_add")+I18nUtil.getString("system_fail")) );
 		}
+		JobScheduleHelper.getInstance().onJobChange(jobInfo);
 
 		return new ReturnT<String>(String.valueOf(jobInfo.getId()));
 	}
@@ -189,7 +197,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("schedule_type")+I18nUtil.getString("system_unvalid")) );
 		}
 		if (scheduleTypeEnum == ScheduleTypeEnum.CRON) {
-			if (jobInfo.getScheduleConf()==null || !CronExpression.isValidExpression(jobInfo.getScheduleConf())) {
+			if (jobInfo.getScheduleConf()==null || !CronExpressionCache.isValidExpression(jobInfo.getScheduleConf())) {
 				return new ReturnT<String>(ReturnT.FAIL_CODE, "Cron"+I18nUtil.getString("system_unvalid") );
 			}
 		} else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE /*|| scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY*/) {
@@ -293,6 +301,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		exists_jobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(exists_jobInfo);
+		JobScheduleHelper.getInstance().onJobChange(exists_jobInfo);
+		JobMetadataCache.getInstance().invalidateJob(exists_jobInfo.getId());
 
 
 		return ReturnT.SUCCESS;
@@ -308,6 +318,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 		xxlJobInfoDao.delete(id);
 		xxlJobLogDao.delete(id);
 		xxlJobLogGlueDao.deleteByJobId(id);
+		JobScheduleHelper.getInstance().onJobRemove(id);
+		JobMetadataCache.getInstance().invalidateJob(id);
 		return ReturnT.SUCCESS;
 	}
 
@@ -340,6 +352,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobScheduleHelper.getInstance().onJobChange(xxlJobInfo);
+		JobMetadataCache.getInstance().invalidateJob(xxlJobInfo.getId());
 		return ReturnT.SUCCESS;
 	}
 
@@ -353,6 +367,8 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobScheduleHelper.getInstance().onJobChange(xxlJobInfo);
+		JobMetadataCache.getInstance().invalidateJob(xxlJobInfo.getId());
 		return ReturnT.SUCCESS;
 	}
 
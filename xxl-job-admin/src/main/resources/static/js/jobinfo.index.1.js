@@ -95,11 +95,17 @@ $(function() {
 						"width":'10%',
 	                	"visible" : true,
 	                	"render": function ( data, type, row ) {
+                            // slow job, trigger in slow pool
+                            var slowLabel = '';
+                            if (row.triggerSlow) {
+                                slowLabel = ' <small class="label label-warning" title="' + I18n.jobinfo_field_triggerCostAvg + '：' + row.triggerCostAvg + 'ms" >SLOW</small>';
+                            }
+
                             // status
                             if (1 == data) {
-                                return '<small class="label label-success" >RUNNING</small>';
+                                return '<small class="label label-success" >RUNNING</small>' + slowLabel;
                             } else {
-                                return '<small class="label label-default" >STOP</small>';
+                                return '<small class="label label-default" >STOP</small>' + slowLabel;
                             }
 	                		return data;
 	                	}
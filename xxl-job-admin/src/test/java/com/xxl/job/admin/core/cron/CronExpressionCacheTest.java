@@ -0,0 +1,48 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * compiled cron expression cache test
+ *
+ * @author xuxueli 2024-11-23
+ */
+public class CronExpressionCacheTest {
+
+    @Test
+    public void cache() throws Exception {
+        String cron = "0/5 * * * * ? *";
+
+        // compiled once, shared
+        FastCronExpression expression = CronExpressionCache.get(cron);
+        Assertions.assertSame(expression, CronExpressionCache.get(cron));
+
+        // key by time zone
+        FastCronExpression utcExpression = CronExpressionCache.get(cron, TimeZone.getTimeZone("UTC"));
+        Assertions.assertTrue(expression != utcExpression || TimeZone.getDefault().getID().equals("UTC"));
+        Assertions.assertEquals("UTC", utcExpression.getTimeZone().getID());
+
+        // same result as parsing
+        Date fromTime = new Date();
+        Assertions.assertEquals(new CronExpression(cron).getNextValidTimeAfter(fromTime), expression.getNextValidTimeAfter(fromTime));
+    }
+
+    @Test
+    public void valid() {
+        Assertions.assertTrue(CronExpressionCache.isValidExpression("0 0 0 * * ? *"));
+        Assertions.assertFalse(CronExpressionCache.isValidExpression("0 0 0 * *"));
+    }
+
+    @Test
+    public void bounded() throws Exception {
+        for (int i = 0; i < 12000; i++) {
+            CronExpressionCache.get("0 0 0 * * ? " + (2100 + i % 800) + "-2999/" + (1 + i / 800));
+        }
+        Assertions.assertTrue(CronExpressionCache.size() <= 10000);
+    }
+
+}
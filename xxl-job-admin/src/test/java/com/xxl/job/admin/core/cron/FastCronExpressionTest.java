@@ -0,0 +1,244 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * bitmask cron expression test, next time same as CronExpression
+ *
+ * @author xuxueli 2024-11-24
+ */
+public class FastCronExpressionTest {
+    private static Logger logger = LoggerFactory.getLogger(FastCronExpressionTest.class);
+
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    private static final long MIN_TIME = 946684800000L;     // 2000-01-01
+    private static final long MAX_TIME = 4102444800000L;    // 2100-01-01
+
+    @Test
+    public void fixedCase() throws Exception {
+        String[] crons = {
+                "0/5 * * * * ? *",
+                "0 0 0 * * ?",
+                "0 15 10 ? * 6L",
+                "0 15 10 ? * 6#3",
+                "0 15 10 L * ?",
+                "0 15 10 L-2 * ?",
+                "0 15 10 LW * ?",
+                "0 15 10 15W * ?",
+                "0 15 10 1W * ?",
+                "0 0 0 29W * ?",
+                "0 0 0 30W * ?",
+                "0 0 0 31W * ?",
+                "0 0 12 ? * MON-FRI",
+                "0 0/30 8-10 ? JAN,JUL * 2030-2040",
+                "0 0 0 29 2 ? *",
+                "0 0 0 30 2 ? *",
+                "59 59 23 31 12 ? 2099",
+                "0 0 0 1 1 ? 1999",
+        };
+        for (String cron: crons) {
+            differential(cron, TimeZone.getTimeZone("UTC"), new Random(cron.hashCode()), 2000);
+            differential(cron, TimeZone.getTimeZone("Asia/Shanghai"), new Random(cron.hashCode()), 2000);
+            differential(cron, TimeZone.getTimeZone("America/New_York"), new Random(cron.hashCode()), 200);     // daylight saving, delegate
+        }
+    }
+
+    @Test
+    public void nearestWeekdayPastMonthEnd() throws Exception {
+        TimeZone timeZone = TimeZone.getTimeZone("UTC");
+        FastCronExpression cron = new FastCronExpression("0 0 0 31W * ?", timeZone);
+
+        // 2032-05-01 saturday, "31W" of april is 04-30
+        Assertions.assertEquals(1966896000000L, cron.getNextValidTimeAfter(1964390400000L));     // 2032-04-01 -> 2032-04-30
+        // 2008-05-01 thursday, april skipped, 2008-05-31 saturday
+        Assertions.assertEquals(1212105600000L, cron.getNextValidTimeAfter(1207008000000L));     // 2008-04-01 -> 2008-05-30
+    }
+
+    /**
+     * random expression and instant, compare with CronExpression
+     */
+    @Test
+    public void randomDifferential() throws Exception {
+        Random random = new Random(20241124);
+        TimeZone[] timeZones = {TimeZone.getTimeZone("UTC"), TimeZone.getTimeZone("Asia/Shanghai"), TimeZone.getTimeZone("Asia/Kolkata")};
+
+        int expressionCount = 200000;
+        int instantCount = 5;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < expressionCount; i++) {
+            differential(randomCron(random), timeZones[i % timeZones.length], random, instantCount);
+        }
+        logger.info(">>>>>>>>>>> FastCronExpression differential, expression = {}, compare = {}, cost = {} ms",
+                expressionCount, expressionCount * instantCount, System.currentTimeMillis() - start);
+    }
+
+    private static void differential(String cron, TimeZone timeZone, Random random, int instantCount) throws Exception {
+        CronExpression expected;
+        try {
+            expected = new CronExpression(cron);
+        } catch (ParseException e) {
+            // same parser, same syntax
+            Assertions.assertFalse(CronExpressionCache.isValidExpression(cron), "cron = " + cron);
+            return;
+        }
+        expected.setTimeZone(timeZone);
+        FastCronExpression actual = new FastCronExpression(cron, timeZone);
+
+        for (int i = 0; i < instantCount; i++) {
+            long time = MIN_TIME + (long) (random.nextDouble() * (MAX_TIME - MIN_TIME));
+            if (i % 2 == 1 || cron.contains("W")) {
+                // second aligned; CronExpression "W" compare with a calendar holding current millisecond, only stable on second aligned time
+                time = time - time % 1000;
+            }
+            Date fromTime = new Date(time);
+            Date expectedTime = expected.getNextValidTimeAfter(fromTime);
+            Date actualTime = actual.getNextValidTimeAfter(fromTime);
+            Assertions.assertEquals(expectedTime, actualTime, "cron = " + cron + ", timeZone = " + timeZone.getID() + ", fromTime = " + time);
+        }
+    }
+
+    // ---------------------- random cron ----------------------
+
+    private static String randomCron(Random random) {
+        boolean dayOfWeekRule = random.nextBoolean();
+        StringBuilder cron = new StringBuilder();
+        cron.append(randomField(random, 0, 59, null)).append(" ");
+        cron.append(randomField(random, 0, 59, null)).append(" ");
+        cron.append(randomField(random, 0, 23, null)).append(" ");
+        cron.append(dayOfWeekRule ? "?" : randomDayOfMonth(random)).append(" ");
+        cron.append(randomField(random, 1, 12, MONTH_NAMES)).append(" ");
+        cron.append(dayOfWeekRule ? randomDayOfWeek(random) : "?");
+        switch (random.nextInt(4)) {
+            case 0:
+                break;
+            case 1:
+                cron.append(" *");
+                break;
+            case 2:
+                cron.append(" ").append(2000 + random.nextInt(110));
+                break;
+            default:
+                int startYear = 2000 + random.nextInt(100);
+                cron.append(" ").append(startYear).append("-").append(startYear + random.nextInt(30));
+                break;
+        }
+        return cron.toString();
+    }
+
+    private static String randomField(Random random, int min, int max, String[] names) {
+        int range = max - min + 1;
+        switch (random.nextInt(7)) {
+            case 0:
+                return "*";
+            case 1:
+                int value = min + random.nextInt(range);
+                return (names != null && random.nextBoolean()) ? names[value - min] : String.valueOf(value);
+            case 2: {
+                int count = 2 + random.nextInt(4);
+                StringBuilder list = new StringBuilder();
+                for (int i = 0; i < count; i++) {
+                    list.append(i > 0 ? "," : "").append(min + random.nextInt(range));
+                }
+                return list.toString();
+            }
+            case 3: {
+                int start = min + random.nextInt(range);
+                int end = min + random.nextInt(range);
+                if (names != null && random.nextBoolean()) {
+                    return names[start - min] + "-" + names[end - min];
+                }
+                return start + "-" + end;
+            }
+            case 4: {
+                int start = min + random.nextInt(range);
+                int end = start + random.nextInt(max - start + 1);
+                return start + "-" + end + "/" + (1 + random.nextInt(range - 1));
+            }
+            case 5:
+                return "*/" + (1 + random.nextInt(range - 1));
+            default:
+                return (min + random.nextInt(range)) + "/" + (1 + random.nextInt(range - 1));
+        }
+    }
+
+    private static String randomDayOfMonth(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return "L";
+            case 1:
+                return "L-" + random.nextInt(28);
+            case 2:
+                return "LW";
+            case 3:
+                return (1 + random.nextInt(31)) + "W";
+            default:
+                return randomField(random, 1, 31, null);
+        }
+    }
+
+    private static String randomDayOfWeek(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return (1 + random.nextInt(7)) + "L";
+            case 1:
+                return (1 + random.nextInt(7)) + "#" + (1 + random.nextInt(5));
+            case 2:
+                return DAY_NAMES[random.nextInt(7)] + "#" + (1 + random.nextInt(5));
+            case 3:
+                return "L";
+            default:
+                return randomField(random, 1, 7, DAY_NAMES);
+        }
+    }
+
+    // ---------------------- benchmark ----------------------
+
+    @Test
+    public void benchmark() throws Exception {
+        String[] crons = {"0/5 * * * * ? *", "0 0 2 * * ?", "0 15 10 ? * 6L", "0 15 10 LW * ?", "0 0/30 8-18 ? * MON-FRI"};
+        int count = 200000;
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");
+
+        for (String cron: crons) {
+            CronExpression cronExpression = new CronExpression(cron);
+            cronExpression.setTimeZone(timeZone);
+            FastCronExpression fastCronExpression = new FastCronExpression(cron, timeZone);
+
+            // from time: in 1000 hours
+            long fromTime = System.currentTimeMillis();
+            long check = 0;
+
+            // warm up
+            for (int i = 0; i < count / 10; i++) {
+                check += cronExpression.getNextValidTimeAfter(new Date(fromTime + (i % 1000) * 3600 * 1000L)).getTime();
+                check += fastCronExpression.getNextValidTimeAfter(fromTime + (i % 1000) * 3600 * 1000L);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                check += cronExpression.getNextValidTimeAfter(new Date(fromTime + (i % 1000) * 3600 * 1000L)).getTime();
+            }
+            long cost = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                check -= fastCronExpression.getNextValidTimeAfter(fromTime + (i % 1000) * 3600 * 1000L);
+            }
+            long fastCost = System.nanoTime() - start;
+
+            logger.info(">>>>>>>>>>> cron benchmark, cron = {}, CronExpression = {} ns/op, FastCronExpression = {} ns/op, check = {}",
+                    cron, cost / count, fastCost / count, check);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * executor registry cache, online / offline event
+ *
+ * @author xuxueli 2024-12-09
+ */
+public class ExecutorRegistryCacheTest {
+
+    private static final long DEAD_TIMEOUT_MS = RegistryConfig.DEAD_TIMEOUT * 1000L;
+
+    @Test
+    public void beat() {
+        ExecutorRegistryCache cache = ExecutorRegistryCache.getInstance();
+        long nowTime = System.currentTimeMillis();
+
+        // first beat online, next beat not
+        Assertions.assertTrue(cache.beat("app-beat", "beat-a:9999", nowTime));
+        Assertions.assertTrue(cache.beat("app-beat", "beat-b:9999", nowTime));
+        Assertions.assertFalse(cache.beat("app-beat", "beat-a:9999", nowTime + 30 * 1000));
+
+        List<String> addressList = cache.findAddress("app-beat");
+        Collections.sort(addressList);
+        Assertions.assertEquals(Arrays.asList("beat-a:9999", "beat-b:9999"), addressList);
+
+        // beat after dead timeout, online again
+        Assertions.assertTrue(cache.beat("app-beat", "beat-b:9999", nowTime + DEAD_TIMEOUT_MS + 1));
+
+        // remove
+        Assertions.assertTrue(cache.remove("app-beat", "beat-a:9999"));
+        Assertions.assertFalse(cache.remove("app-beat", "beat-a:9999"));
+        Assertions.assertEquals(Arrays.asList("beat-b:9999"), cache.findAddress("app-beat"));
+        Assertions.assertTrue(cache.remove("app-beat", "beat-b:9999"));
+        Assertions.assertTrue(cache.findAddress("app-beat").isEmpty());
+    }
+
+    @Test
+    public void removeDead() {
+        ExecutorRegistryCache cache = ExecutorRegistryCache.getInstance();
+        long nowTime = System.currentTimeMillis();
+
+        cache.beat("app-dead", "dead-a:9999", nowTime - DEAD_TIMEOUT_MS - 1000);
+        cache.beat("app-dead", "dead-b:9999", nowTime);
+        cache.beat("app-alive", "alive-a:9999", nowTime);
+
+        Set<String> deadAppnameSet = cache.removeDead(nowTime);
+        Assertions.assertTrue(deadAppnameSet.contains("app-dead"));
+        Assertions.assertFalse(deadAppnameSet.contains("app-alive"));
+        Assertions.assertEquals(Arrays.asList("dead-b:9999"), cache.findAddress("app-dead"));
+
+        // beat out of order, keep latest
+        Assertions.assertFalse(cache.beat("app-alive", "alive-a:9999", nowTime - DEAD_TIMEOUT_MS - 1000));
+        Assertions.assertTrue(cache.removeDead(nowTime).isEmpty());
+    }
+
+}
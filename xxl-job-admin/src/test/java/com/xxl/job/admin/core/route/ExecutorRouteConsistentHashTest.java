@@ -0,0 +1,118 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteConsistentHash;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * consistent hash route, cached ring
+ *
+ * @author xuxueli 2024-12-05
+ */
+public class ExecutorRouteConsistentHashTest {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorRouteConsistentHashTest.class);
+
+    private static List<String> addressList(int count) {
+        List<String> addressList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://192.168.1." + i + ":9999/");
+        }
+        return addressList;
+    }
+
+    @Test
+    public void md5Compatible() {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        for (int count : new int[]{1, 2, 3, 10, 50}) {
+            List<String> addressList = addressList(count);
+            for (int jobId = 1; jobId <= 2000; jobId++) {
+                Assertions.assertEquals(legacyHashJob(jobId, addressList), router.hashJob(jobId, addressList, false), "jobId=" + jobId + ", count=" + count);
+            }
+        }
+    }
+
+    @Test
+    public void addressChange() {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = addressList(5);
+        String address = router.hashJob(1, addressList, true);
+        Assertions.assertTrue(addressList.contains(address));
+
+        // caller list changed, ring rebuilt
+        addressList.remove(address);
+        String newAddress = router.hashJob(1, addressList, true);
+        Assertions.assertNotEquals(address, newAddress);
+        Assertions.assertTrue(addressList.contains(newAddress));
+
+        // fast hash, job spread on all address
+        Set<String> routed = new HashSet<>();
+        for (int jobId = 1; jobId <= 1000; jobId++) {
+            routed.add(router.hashJob(jobId, addressList, true));
+        }
+        Assertions.assertEquals(addressList.size(), routed.size());
+    }
+
+    /**
+     * log only, wall-clock cost not asserted
+     */
+    @Test
+    public void benchmark() {
+        List<String> addressList = addressList(20);
+        int routeCount = 20000;
+
+        // legacy: ring built each route
+        long start = System.nanoTime();
+        for (int jobId = 0; jobId < routeCount / 20; jobId++) {
+            legacyHashJob(jobId, addressList);
+        }
+        long legacyCost = (System.nanoTime() - start) * 20;
+
+        // cached ring
+        for (boolean fast : new boolean[]{false, true}) {
+            ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+            router.hashJob(0, addressList, fast);
+            start = System.nanoTime();
+            for (int jobId = 0; jobId < routeCount; jobId++) {
+                router.hashJob(jobId, addressList, fast);
+            }
+            long cost = System.nanoTime() - start;
+            logger.info(">>>>>>>>>>> xxl-job benchmark, consistent hash route, address = {}, fast = {}, route cost = {}ns, legacy route cost = {}ns",
+                    addressList.size(), fast, cost / routeCount, legacyCost / routeCount);
+        }
+    }
+
+
+    // ---------------------- legacy, ring built each route ----------------------
+
+    private static long legacyHash(String key) {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            byte[] digest = md5.digest(key.getBytes(StandardCharsets.UTF_8));
+            long hashCode = ((long) (digest[3] & 0xFF) << 24)
+                    | ((long) (digest[2] & 0xFF) << 16)
+                    | ((long) (digest[1] & 0xFF) << 8)
+                    | (digest[0] & 0xFF);
+            return hashCode & 0xffffffffL;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String legacyHashJob(int jobId, List<String> addressList) {
+        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+        for (String address : addressList) {
+            for (int i = 0; i < 100; i++) {
+                addressRing.put(legacyHash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+        SortedMap<Long, String> lastRing = addressRing.tailMap(legacyHash(String.valueOf(jobId)));
+        return !lastRing.isEmpty() ? lastRing.get(lastRing.firstKey()) : addressRing.firstEntry().getValue();
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLFU;
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLRU;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * lfu / lru route, concurrent stress
+ *
+ * @author xuxueli 2024-12-05
+ */
+public class ExecutorRouteLFULRUTest {
+
+    private static final int threadCount = 16;
+    private static final int routeCount = 20000;
+
+    private static List<String> addressList(int from, int to) {
+        List<String> addressList = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            addressList.add("http://192.168.1." + i + ":9999/");
+        }
+        return Collections.unmodifiableList(addressList);
+    }
+
+    /**
+     * route count of each address, all thread route same job concurrently
+     */
+    private static Map<String, AtomicInteger> stress(final Router router, final int jobId, final List<String> addressList) throws Exception {
+        final ConcurrentMap<String, AtomicInteger> countMap = new ConcurrentHashMap<>();
+        for (String address : addressList) {
+            countMap.put(address, new AtomicInteger());
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startLatch.await();
+                    for (int i = 0; i < routeCount; i++) {
+                        countMap.get(router.route(jobId, addressList)).incrementAndGet();
+                    }
+                    return null;
+                }
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executorService.shutdown();
+        return countMap;
+    }
+
+    private static void assertBalanced(Map<String, AtomicInteger> countMap, int maxDiff) {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int total = 0;
+        for (AtomicInteger count : countMap.values()) {
+            min = Math.min(min, count.get());
+            max = Math.max(max, count.get());
+            total += count.get();
+        }
+        Assertions.assertEquals(threadCount * routeCount, total);
+        Assertions.assertTrue(max - min <= maxDiff, "min=" + min + ", max=" + max);
+    }
+
+    @Test
+    public void lfuConcurrent() throws Exception {
+        final ExecutorRouteLFU router = new ExecutorRouteLFU();
+        List<String> addressList = addressList(0, 10);
+        Map<String, AtomicInteger> countMap = stress(new Router() {
+            @Override
+            public String route(int jobId, List<String> addressList) {
+                return router.route(jobId, addressList);
+            }
+        }, 1001, addressList);
+
+        // random init count in [0, size), least used first
+        assertBalanced(countMap, addressList.size());
+    }
+
+    @Test
+    public void lruConcurrent() throws Exception {
+        final ExecutorRouteLRU router = new ExecutorRouteLRU();
+        List<String> addressList = addressList(0, 10);
+        Map<String, AtomicInteger> countMap = stress(new Router() {
+            @Override
+            public String route(int jobId, List<String> addressList) {
+                return router.route(jobId, addressList);
+            }
+        }, 1002, addressList);
+
+        // eldest first, each address in turn
+        assertBalanced(countMap, 1);
+    }
+
+    @Test
+    public void addressChange() throws Exception {
+        final ExecutorRouteLFU lfu = new ExecutorRouteLFU();
+        final ExecutorRouteLRU lru = new ExecutorRouteLRU();
+        final List<String> listA = addressList(0, 8);
+        final List<String> listB = addressList(4, 12);
+        final AtomicReference<List<String>> current = new AtomicReference<>(listA);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        // route with address list changed concurrently
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount + 1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < routeCount; i++) {
+                            List<String> addressList = current.get();
+                            Assertions.assertTrue(addressList.contains(lfu.route(1003, addressList)));
+                            Assertions.assertTrue(addressList.contains(lru.route(1003, addressList)));
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            });
+        }
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                while (doneLatch.getCount() > 0) {
+                    current.set(current.get() == listA ? listB : listA);
+                    Thread.yield();
+                }
+            }
+        });
+        Assertions.assertTrue(doneLatch.await(1, TimeUnit.MINUTES));
+        executorService.shutdown();
+        Assertions.assertNull(error.get());
+
+        // new address join (lfu: count from current min, not flooded; lru: after known address in turn)
+        List<String> listC = addressList(4, 13);
+        String newAddress = listC.get(listC.size() - 1);
+        int lfuUsed = 0;
+        boolean lruUsed = false;
+        for (int i = 0; i < listC.size() * listC.size(); i++) {
+            lfuUsed += newAddress.equals(lfu.route(1003, listC)) ? 1 : 0;
+        }
+        for (int i = 0; i < listC.size(); i++) {
+            lruUsed |= newAddress.equals(lru.route(1003, listC));
+        }
+        Assertions.assertTrue(lfuUsed > 0 && lfuUsed <= listC.size() * 2, "lfuUsed=" + lfuUsed);
+        Assertions.assertTrue(lruUsed);
+    }
+
+    private interface Router {
+        String route(int jobId, List<String> addressList);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLeastLoad;
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * least load route, executor load reported in registry beat
+ *
+ * @author xuxueli 2024-12-07
+ */
+public class ExecutorRouteLeastLoadTest {
+
+    private static RegistryParam loadParam(String address, int jobThreadCount, int triggerQueueSize, double cpuLoad) {
+        RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), "xxl-job-executor-sample", address);
+        registryParam.setJobThreadCount(jobThreadCount);
+        registryParam.setTriggerQueueSize(triggerQueueSize);
+        registryParam.setBizThreadActive(0);
+        registryParam.setCpuLoad(cpuLoad);
+        return registryParam;
+    }
+
+    private static Map<String, Integer> route(List<String> addressList, int routeCount) {
+        ExecutorRouteLeastLoad router = new ExecutorRouteLeastLoad();
+        Map<String, Integer> countMap = new HashMap<>();
+        for (int i = 0; i < routeCount; i++) {
+            String address = router.route(addressList);
+            countMap.put(address, countMap.getOrDefault(address, 0) + 1);
+        }
+        return countMap;
+    }
+
+    @Test
+    public void reportedLoad() {
+        List<String> addressList = Arrays.asList("load-a:9999", "load-b:9999", "load-c:9999", "load-d:9999");
+
+        // a: slow handler, work piled up; d: cpu busy
+        ExecutorLoadTracker.getInstance().report(loadParam("load-a:9999", 20, 200, 0.1));
+        ExecutorLoadTracker.getInstance().report(loadParam("load-b:9999", 2, 0, 0.1));
+        ExecutorLoadTracker.getInstance().report(loadParam("load-c:9999", 2, 0, 0.1));
+        ExecutorLoadTracker.getInstance().report(loadParam("load-d:9999", 2, 0, 3));
+
+        Map<String, Integer> countMap = route(addressList, 300);
+        Assertions.assertTrue(countMap.getOrDefault("load-a:9999", 0) < countMap.get("load-d:9999"), countMap.toString());
+        Assertions.assertTrue(countMap.get("load-d:9999") < countMap.get("load-b:9999"), countMap.toString());
+        Assertions.assertTrue(countMap.get("load-d:9999") < countMap.get("load-c:9999"), countMap.toString());
+
+        // next report, dispatched work counted in report
+        ExecutorLoadTracker.getInstance().report(loadParam("load-b:9999", 2, 0, 0.1));
+        Assertions.assertEquals(2.2, ExecutorLoadTracker.getInstance().outstandingWork("load-b:9999"), 0.001);
+    }
+
+    @Test
+    public void notReported() {
+        // old executor, balanced by dispatched of this admin
+        List<String> addressList = Arrays.asList("old-a:9999", "old-b:9999", "old-c:9999");
+        ExecutorLoadTracker.getInstance().report(new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), "xxl-job-executor-sample", "old-a:9999"));
+
+        Map<String, Integer> countMap = route(addressList, 3000);
+        for (String address : addressList) {
+            Assertions.assertTrue(Math.abs(countMap.get(address) - 1000) <= 50, countMap.toString());
+        }
+    }
+
+    @Test
+    public void singleAddress() {
+        Map<String, Integer> countMap = route(Arrays.asList("single:9999"), 10);
+        Assertions.assertEquals(10, countMap.get("single:9999").intValue());
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteWeightRound;
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * weighted round route, executor capacity declared in registry
+ *
+ * @author xuxueli 2024-12-08
+ */
+public class ExecutorRouteWeightRoundTest {
+
+    private static XxlJobRegistry registry(String address, int weight, int maxConcurrency) {
+        XxlJobRegistry registry = new XxlJobRegistry();
+        registry.setRegistryGroup(RegistryConfig.RegistType.EXECUTOR.name());
+        registry.setRegistryKey("xxl-job-executor-sample");
+        registry.setRegistryValue(address);
+        registry.setWeight(weight);
+        registry.setMaxConcurrency(maxConcurrency);
+        return registry;
+    }
+
+    private static Map<String, Integer> route(int jobId, List<String> addressList, int routeCount) {
+        ExecutorRouteWeightRound router = new ExecutorRouteWeightRound();
+        Map<String, Integer> countMap = new HashMap<>();
+        for (int i = 0; i < routeCount; i++) {
+            String address = router.route(jobId, addressList);
+            countMap.put(address, countMap.getOrDefault(address, 0) + 1);
+        }
+        return countMap;
+    }
+
+    @Test
+    public void weighted() {
+        // 4-core and 64-core box, same appname
+        List<XxlJobRegistry> registryList = new ArrayList<>();
+        registryList.add(registry("weight-small:9999", 4, 0));
+        registryList.add(registry("weight-large:9999", 64, 0));
+        ExecutorCapacityCache.getInstance().fresh(registryList);
+
+        Map<String, Integer> countMap = route(2001, Arrays.asList("weight-small:9999", "weight-large:9999"), 680);
+        Assertions.assertTrue(Math.abs(countMap.get("weight-small:9999") - 40) <= 1, countMap.toString());
+        Assertions.assertTrue(Math.abs(countMap.get("weight-large:9999") - 640) <= 1, countMap.toString());
+
+        // not declared, weight 1
+        Assertions.assertEquals(1, ExecutorCapacityCache.getInstance().getWeight("weight-unknown:9999"));
+        ExecutorCapacityCache.getInstance().put("weight-unknown:9999", 0, -1);
+        Assertions.assertEquals(1, ExecutorCapacityCache.getInstance().getWeight("weight-unknown:9999"));
+        Assertions.assertEquals(0, ExecutorCapacityCache.getInstance().getMaxConcurrency("weight-unknown:9999"));
+    }
+
+    @Test
+    public void maxConcurrency() {
+        ExecutorCapacityCache.getInstance().put("full-a:9999", 10, 5);
+        ExecutorCapacityCache.getInstance().put("full-b:9999", 1, 0);
+
+        // a: max concurrency reached after 5 dispatched, then b only
+        Map<String, Integer> countMap = route(2002, Arrays.asList("full-a:9999", "full-b:9999"), 50);
+        Assertions.assertEquals(5, countMap.get("full-a:9999").intValue(), countMap.toString());
+        Assertions.assertEquals(45, countMap.get("full-b:9999").intValue(), countMap.toString());
+
+        // all reached, limit ignored
+        ExecutorCapacityCache.getInstance().put("full-b:9999", 1, 45);
+        countMap = route(2002, Arrays.asList("full-a:9999", "full-b:9999"), 33);
+        Assertions.assertTrue(countMap.containsKey("full-a:9999") && countMap.containsKey("full-b:9999"), countMap.toString());
+    }
+
+}
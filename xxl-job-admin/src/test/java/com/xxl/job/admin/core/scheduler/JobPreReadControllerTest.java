@@ -0,0 +1,76 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * adaptive schedule pre-read controller test
+ *
+ * @author xuxueli 2024-11-25
+ */
+public class JobPreReadControllerTest {
+
+    @Test
+    public void lightLoad() {
+        JobPreReadController controller = new JobPreReadController(5000, 300);
+        Assertions.assertEquals(5000, controller.getWindowMs());
+        Assertions.assertEquals(6000, controller.getPageSize());
+
+        // nothing due, keep max window, wait to next window
+        controller.feedback(0, 50, 0, 3000);
+        Assertions.assertEquals(5000, controller.getWindowMs());
+        Assertions.assertEquals(4500, controller.waitMs(1500));
+
+        // some due, scan next second
+        controller.feedback(10, 50, 0, 3000);
+        Assertions.assertEquals(500, controller.waitMs(1500));
+    }
+
+    @Test
+    public void pageFull() {
+        JobPreReadController controller = new JobPreReadController(5000, 300);
+        int pageSize = controller.getPageSize();
+
+        // page full, shrink window and scan again immediately
+        controller.feedback(pageSize, 50, 0, 3000);
+        Assertions.assertEquals(2500, controller.getWindowMs());
+        Assertions.assertEquals(0, controller.waitMs(1500));
+
+        controller.feedback(controller.getPageSize(), 50, 0, 3000);
+        controller.feedback(controller.getPageSize(), 50, 0, 3000);
+        Assertions.assertEquals(JobPreReadController.MIN_WINDOW_MS, controller.getWindowMs());
+
+        // drained, grow back to max window
+        for (int i = 0; i < 10; i++) {
+            controller.feedback(0, 50, 0, 3000);
+        }
+        Assertions.assertEquals(5000, controller.getWindowMs());
+    }
+
+    @Test
+    public void slowTrigger() {
+        JobPreReadController controller = new JobPreReadController(5000, 300);
+
+        // trigger slow, page follow trigger capacity
+        controller.feedback(100, 1000, 0, 3000);
+        Assertions.assertEquals(1500, controller.getPageSize());
+
+        controller.feedback(100, 100000, 0, 3000);
+        Assertions.assertEquals(JobPreReadController.MIN_PAGE_SIZE, controller.getPageSize());
+    }
+
+    @Test
+    public void queuePressure() {
+        JobPreReadController controller = new JobPreReadController(5000, 300);
+
+        // trigger pool queue backlog, shrink window and page
+        controller.feedback(100, 50, 2400, 3000);
+        Assertions.assertEquals(2500, controller.getWindowMs());
+        Assertions.assertTrue(controller.getPageSize() < 6000);
+
+        // queue full, min page
+        controller.feedback(100, 50, 3000, 3000);
+        Assertions.assertEquals(JobPreReadController.MIN_PAGE_SIZE, controller.getPageSize());
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * in-memory job schedule index test
+ *
+ * @author xuxueli 2024-11-22
+ */
+public class JobScheduleIndexTest {
+
+    private static XxlJobInfo job(int id, int triggerStatus, long triggerNextTime) {
+        XxlJobInfo jobInfo = new XxlJobInfo();
+        jobInfo.setId(id);
+        jobInfo.setScheduleType("FIX_RATE");
+        jobInfo.setScheduleConf("10");
+        jobInfo.setTriggerStatus(triggerStatus);
+        jobInfo.setTriggerNextTime(triggerNextTime);
+        return jobInfo;
+    }
+
+    @Test
+    public void pollAndReschedule() {
+        JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+        scheduleIndex.put(job(1, 1, 3000));
+        scheduleIndex.put(job(2, 1, 1000));
+        scheduleIndex.put(job(3, 1, 2000));
+        scheduleIndex.put(job(4, 0, 0));        // stopped, not indexed
+        scheduleIndex.put(job(5, 1, 9000));
+        Assertions.assertEquals(4, scheduleIndex.size());
+
+        // order by next time, limit
+        List<XxlJobInfo> dueList = scheduleIndex.pollDue(5000, 2);
+        Assertions.assertEquals(2, dueList.size());
+        Assertions.assertEquals(2, dueList.get(0).getId());
+        Assertions.assertEquals(3, dueList.get(1).getId());
+
+        // reschedule, dirty
+        dueList.get(0).setTriggerNextTime(11000);
+        Assertions.assertTrue(scheduleIndex.reschedule(dueList.get(0)));
+        Assertions.assertTrue(scheduleIndex.reschedule(dueList.get(1)));
+        Assertions.assertEquals(2, scheduleIndex.drainDirty().size());
+        Assertions.assertEquals(0, scheduleIndex.drainDirty().size());
+
+        dueList = scheduleIndex.pollDue(5000, 100);
+        Assertions.assertEquals(2, dueList.size());
+        Assertions.assertEquals(3, dueList.get(0).getId());
+        Assertions.assertEquals(1, dueList.get(1).getId());
+    }
+
+    @Test
+    public void changeWhilePolled() {
+        JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+        scheduleIndex.put(job(1, 1, 1000));
+        scheduleIndex.put(job(2, 1, 1000));
+
+        List<XxlJobInfo> dueList = scheduleIndex.pollDue(1000, 100);
+
+        // stop job 1, update job 2 while polled
+        scheduleIndex.put(job(1, 0, 0));
+        scheduleIndex.put(job(2, 1, 50000));
+
+        // stale reschedule discarded
+        for (XxlJobInfo jobInfo: dueList) {
+            jobInfo.setTriggerNextTime(2000);
+            Assertions.assertFalse(scheduleIndex.reschedule(jobInfo));
+        }
+        Assertions.assertEquals(0, scheduleIndex.drainDirty().size());
+        Assertions.assertEquals(1, scheduleIndex.size());
+        Assertions.assertEquals(0, scheduleIndex.pollDue(2000, 100).size());
+        Assertions.assertEquals(2, scheduleIndex.pollDue(50000, 100).get(0).getId());
+    }
+
+    @Test
+    public void retainSlot() {
+        JobScheduleIndex scheduleIndex = new JobScheduleIndex();
+        for (int id = 1; id <= 100; id++) {
+            scheduleIndex.put(job(id, 1, 1000 + id));
+        }
+        scheduleIndex.retainSlot(4, new HashSet<>(Arrays.asList(0, 1)));
+        Assertions.assertEquals(50, scheduleIndex.size());
+
+        List<XxlJobInfo> dueList = scheduleIndex.pollDue(Long.MAX_VALUE, 1000);
+        Assertions.assertEquals(50, dueList.size());
+        for (XxlJobInfo jobInfo: dueList) {
+            Assertions.assertTrue(jobInfo.getId() % 4 <= 1);
+        }
+    }
+
+}
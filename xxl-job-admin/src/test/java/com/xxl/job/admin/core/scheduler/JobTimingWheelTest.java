@@ -0,0 +1,132 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * hierarchical timing wheel test
+ *
+ * @author xuxueli 2024-11-21
+ */
+public class JobTimingWheelTest {
+    private static Logger logger = LoggerFactory.getLogger(JobTimingWheelTest.class);
+
+    @Test
+    public void fireAtExactTime() {
+        long startTime = System.currentTimeMillis();
+        final JobTimingWheel timingWheel = new JobTimingWheel(startTime);
+
+        // ms / second / minute / overflow tier
+        Random random = new Random(1);
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            long fireTime = startTime + 1 + random.nextInt(2 * 60 * 60 * 1000);
+            Assertions.assertTrue(timingWheel.add(i, fireTime));
+        }
+        Assertions.assertFalse(timingWheel.add(-1, startTime));
+        Assertions.assertEquals(count, timingWheel.size());
+
+        final AtomicInteger fireCount = new AtomicInteger();
+        final AtomicInteger wrongTimeCount = new AtomicInteger();
+        timingWheel.advance(startTime + 2 * 60 * 60 * 1000 + 1, new JobTimingWheel.ExpireHandler() {
+            @Override
+            public void expire(int jobId, long fireTime) {
+                fireCount.incrementAndGet();
+                if (timingWheel.getCurrentTime() != fireTime) {
+                    wrongTimeCount.incrementAndGet();
+                }
+            }
+        });
+
+        Assertions.assertEquals(count, fireCount.get());
+        Assertions.assertEquals(0, wrongTimeCount.get());
+        Assertions.assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    public void concurrentProducer() throws InterruptedException {
+        final long startTime = System.currentTimeMillis();
+        final JobTimingWheel timingWheel = new JobTimingWheel(startTime);
+
+        final int threadCount = 8;
+        final int countPerThread = 100000;
+        final AtomicInteger accepted = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int threadIndex = t;
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < countPerThread; i++) {
+                        if (timingWheel.add(threadIndex * countPerThread + i, startTime + 1 + (i % 5000))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        // advance concurrently with producer
+        final AtomicInteger fireCount = new AtomicInteger();
+        JobTimingWheel.ExpireHandler handler = new JobTimingWheel.ExpireHandler() {
+            @Override
+            public void expire(int jobId, long fireTime) {
+                fireCount.incrementAndGet();
+            }
+        };
+        timingWheel.advance(startTime + 1000, handler);
+        for (Thread producer: producers) {
+            producer.join();
+        }
+        timingWheel.advance(startTime + 5001, handler);
+
+        // entry added after its tick is rejected (fire directly by caller), each accepted entry expired exactly once
+        Assertions.assertEquals(0, timingWheel.size());
+        Assertions.assertEquals(accepted.get(), fireCount.get());
+    }
+
+    @Test
+    public void benchmark() {
+        long startTime = System.currentTimeMillis();
+        JobTimingWheel timingWheel = new JobTimingWheel(startTime);
+
+        int count = 1000000;
+        long[] fireTimes = new long[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            fireTimes[i] = startTime + 1 + random.nextInt(5 * 60 * 1000);
+        }
+
+        // insert
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            timingWheel.add(i, fireTimes[i]);
+        }
+        long insertCost = System.nanoTime() - start;
+
+        // expire
+        final AtomicInteger fireCount = new AtomicInteger();
+        start = System.nanoTime();
+        timingWheel.advance(startTime + 5 * 60 * 1000 + 1, new JobTimingWheel.ExpireHandler() {
+            @Override
+            public void expire(int jobId, long fireTime) {
+                fireCount.incrementAndGet();
+            }
+        });
+        long expireCost = System.nanoTime() - start;
+
+        Assertions.assertEquals(count, fireCount.get());
+        logger.info(">>>>>>>>>>> JobTimingWheel benchmark, pending = {}, insert = {} ns/op, expire = {} ns/op (include 300000 ms tick)",
+                count, insertCost / count, expireCost / count);
+    }
+
+}
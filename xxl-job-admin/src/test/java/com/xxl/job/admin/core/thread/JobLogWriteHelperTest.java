@@ -0,0 +1,177 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.dao.XxlJobLogDao;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * job log async write: log written before trigger, log id not conflict with auto increment id
+ *
+ * @author xuxueli 2024-11-28
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobLogWriteHelperTest {
+
+    @Resource
+    private XxlJobLogDao xxlJobLogDao;
+
+    /**
+     * admin crash after trigger, before trigger info written: log found by callback and lost-monitor
+     */
+    @Test
+    public void crashBeforeFlush() {
+        // write thread not started, pending trigger info never written (as admin crash)
+        JobLogWriteHelper helper = new JobLogWriteHelper();
+        XxlJobLog jobLog = newJobLog(1);
+        try {
+            helper.persist(Collections.singletonList(jobLog));
+
+            // triggered, trigger info pending
+            jobLog.setTriggerCode(ReturnT.SUCCESS_CODE);
+            jobLog.setTriggerMsg("trigger");
+            jobLog.setExecutorAddress("http://127.0.0.1:9999/");
+            helper.add(jobLog);
+
+            XxlJobLog dbLog = xxlJobLogDao.load(jobLog.getId());
+            Assertions.assertNotNull(dbLog);
+            Assertions.assertEquals(0, dbLog.getTriggerCode());
+            Assertions.assertNull(dbLog.getTriggerMsg());
+
+            // lost-monitor find it
+            List<Long> lostIds = xxlJobLogDao.findLostJobIds(new Date(System.currentTimeMillis() + 60 * 1000));
+            Assertions.assertTrue(lostIds.contains(jobLog.getId()));
+
+            // callback find it
+            XxlJobLog handleLog = new XxlJobLog();
+            handleLog.setId(jobLog.getId());
+            handleLog.setHandleTime(new Date());
+            handleLog.setHandleCode(ReturnT.SUCCESS_CODE);
+            handleLog.setHandleMsg("callback");
+            Assertions.assertEquals(1, xxlJobLogDao.updateHandleInfo(handleLog));
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, xxlJobLogDao.load(jobLog.getId()).getHandleCode());
+        } finally {
+            xxlJobLogDao.clearLog(Collections.singletonList(jobLog.getId()));
+        }
+    }
+
+    /**
+     * trigger thread wait for log written in batch, trigger info written after
+     */
+    @Test
+    public void groupCommit() throws InterruptedException {
+        JobLogWriteHelper helper = new JobLogWriteHelper();
+        helper.startWriteThread();
+
+        int threadCount = 20;
+        List<XxlJobLog> logList = new CopyOnWriteArrayList<>();
+        List<Throwable> errorList = new CopyOnWriteArrayList<>();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                new Thread(() -> {
+                    try {
+                        startLatch.await();
+                        XxlJobLog jobLog = newJobLog(1);
+                        helper.persist(Collections.singletonList(jobLog));
+                        logList.add(jobLog);
+
+                        // written before trigger
+                        Assertions.assertNotNull(xxlJobLogDao.load(jobLog.getId()));
+
+                        jobLog.setTriggerCode(ReturnT.SUCCESS_CODE);
+                        jobLog.setTriggerMsg("trigger-" + jobLog.getId());
+                        helper.add(jobLog);
+                    } catch (Throwable e) {
+                        errorList.add(e);
+                    } finally {
+                        endLatch.countDown();
+                    }
+                }).start();
+            }
+            startLatch.countDown();
+            endLatch.await();
+            helper.toStop();
+
+            Assertions.assertTrue(errorList.isEmpty(), "error: " + errorList);
+            Assertions.assertEquals(threadCount, logList.size());
+            for (XxlJobLog jobLog: logList) {
+                XxlJobLog dbLog = xxlJobLogDao.load(jobLog.getId());
+                Assertions.assertEquals(ReturnT.SUCCESS_CODE, dbLog.getTriggerCode());
+                Assertions.assertEquals("trigger-" + jobLog.getId(), dbLog.getTriggerMsg());
+            }
+        } finally {
+            helper.toStop();
+            List<Long> logIds = new ArrayList<>();
+            for (XxlJobLog jobLog: logList) {
+                logIds.add(jobLog.getId());
+            }
+            if (!logIds.isEmpty()) {
+                xxlJobLogDao.clearLog(logIds);
+            }
+        }
+    }
+
+    /**
+     * log written with auto increment id (admin with async write disabled) take id in segment, segment log written with new id
+     */
+    @Test
+    public void mixedAllocation() {
+        JobLogWriteHelper helper = new JobLogWriteHelper();
+        helper.startWriteThread();
+
+        List<Long> logIds = new ArrayList<>();
+        try {
+            // segment loaded
+            XxlJobLog segmentLog = newJobLog(1);
+            helper.persist(Collections.singletonList(segmentLog));
+            logIds.add(segmentLog.getId());
+
+            // auto increment id, next to segment log
+            XxlJobLog autoLog = newJobLog(2);
+            xxlJobLogDao.save(autoLog);
+            logIds.add(autoLog.getId());
+
+            // segment log, until id past auto increment log
+            Set<Long> segmentIds = new HashSet<>();
+            segmentIds.add(segmentLog.getId());
+            long lastId = segmentLog.getId();
+            for (int i = 0; i < JobLogWriteHelper.SEGMENT_STEP * 2 && lastId < autoLog.getId(); i++) {
+                XxlJobLog jobLog = newJobLog(1);
+                helper.persist(Collections.singletonList(jobLog));
+                logIds.add(jobLog.getId());
+
+                Assertions.assertNotEquals(autoLog.getId(), jobLog.getId());
+                Assertions.assertTrue(segmentIds.add(jobLog.getId()));
+                lastId = jobLog.getId();
+            }
+            Assertions.assertTrue(lastId > autoLog.getId());
+
+            // each log kept
+            Assertions.assertEquals(2, xxlJobLogDao.load(autoLog.getId()).getJobId());
+            for (long segmentId: segmentIds) {
+                Assertions.assertEquals(1, xxlJobLogDao.load(segmentId).getJobId());
+            }
+        } finally {
+            helper.toStop();
+            xxlJobLogDao.clearLog(logIds);
+        }
+    }
+
+    private XxlJobLog newJobLog(int jobId) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setJobGroup(1);
+        jobLog.setJobId(jobId);
+        jobLog.setTriggerTime(new Date());
+        return jobLog;
+    }
+
+}
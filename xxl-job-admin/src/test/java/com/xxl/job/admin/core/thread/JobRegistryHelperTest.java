@@ -0,0 +1,166 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.dao.XxlJobRegistryDao;
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job registry helper test, executor beat held in memory and flushed in batch
+ *
+ * @author xuxueli 2024-12-10
+ */
+public class JobRegistryHelperTest {
+
+    /**
+     * mock registry dao, batch upsert recorded (fail when "fail" set)
+     */
+    private static XxlJobRegistryDao registryDao(final List<List<XxlJobRegistry>> batchList, final boolean[] fail) {
+        return (XxlJobRegistryDao) Proxy.newProxyInstance(XxlJobRegistryDao.class.getClassLoader(), new Class[]{XxlJobRegistryDao.class}, new InvocationHandler() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("registryBatchSaveOrUpdate".equals(method.getName())) {
+                    if (fail[0]) {
+                        throw new RuntimeException("db down");
+                    }
+                    batchList.add(new ArrayList<XxlJobRegistry>((List<XxlJobRegistry>) args[0]));
+                    return ((List<XxlJobRegistry>) args[0]).size();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static RegistryParam beat(String address) {
+        return new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), "xxl-job-executor-sample", address);
+    }
+
+    @Test
+    public void coalesce() {
+        JobRegistryHelper helper = new JobRegistryHelper();
+        List<List<XxlJobRegistry>> batchList = new ArrayList<>();
+        XxlJobRegistryDao registryDao = registryDao(batchList, new boolean[]{false});
+
+        // same executor beat 3 times, latest flushed
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date(1000));
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date(2000));
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date(3000));
+        helper.bufferBeat(beat("127.0.0.1:9998"), new Date(3000));
+
+        Assertions.assertEquals(2, helper.flushBeat(registryDao));
+        Assertions.assertEquals(1, batchList.size());
+        for (XxlJobRegistry item: batchList.get(0)) {
+            Assertions.assertEquals(3000, item.getUpdateTime().getTime());
+        }
+
+        // nothing left
+        Assertions.assertEquals(0, helper.flushBeat(registryDao));
+        Assertions.assertEquals(1, batchList.size());
+    }
+
+    @Test
+    public void batch() {
+        JobRegistryHelper helper = new JobRegistryHelper();
+        List<List<XxlJobRegistry>> batchList = new ArrayList<>();
+
+        // 5000 executor, one flush, batch of 500
+        for (int i = 0; i < 5000; i++) {
+            helper.bufferBeat(beat("10.0." + (i / 250) + "." + (i % 250) + ":9999"), new Date());
+        }
+        Assertions.assertEquals(5000, helper.flushBeat(registryDao(batchList, new boolean[]{false})));
+        Assertions.assertEquals(10, batchList.size());
+        for (List<XxlJobRegistry> item: batchList) {
+            Assertions.assertEquals(500, item.size());
+        }
+    }
+
+    @Test
+    public void flushFail() {
+        JobRegistryHelper helper = new JobRegistryHelper();
+        List<List<XxlJobRegistry>> batchList = new ArrayList<>();
+        boolean[] fail = new boolean[]{true};
+        XxlJobRegistryDao registryDao = registryDao(batchList, fail);
+
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date(1000));
+        helper.bufferBeat(beat("127.0.0.1:9998"), new Date(1000));
+        Assertions.assertEquals(0, helper.flushBeat(registryDao));
+
+        // kept for next flush, newer beat not overwritten
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date(2000));
+        fail[0] = false;
+        Assertions.assertEquals(2, helper.flushBeat(registryDao));
+        for (XxlJobRegistry item: batchList.get(0)) {
+            Assertions.assertEquals("127.0.0.1:9999".equals(item.getRegistryValue()) ? 2000 : 1000, item.getUpdateTime().getTime());
+        }
+    }
+
+    @Test
+    public void removeDuringFlush() throws InterruptedException {
+        final JobRegistryHelper helper = new JobRegistryHelper();
+        final List<String> opList = new CopyOnWriteArrayList<>();
+        final CountDownLatch flushStartLatch = new CountDownLatch(1);
+        final CountDownLatch flushReleaseLatch = new CountDownLatch(1);
+
+        // batch upsert blocked until released, as slow db
+        final XxlJobRegistryDao registryDao = (XxlJobRegistryDao) Proxy.newProxyInstance(XxlJobRegistryDao.class.getClassLoader(), new Class[]{XxlJobRegistryDao.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws InterruptedException {
+                if ("registryBatchSaveOrUpdate".equals(method.getName())) {
+                    flushStartLatch.countDown();
+                    flushReleaseLatch.await(10, TimeUnit.SECONDS);
+                    opList.add("upsert");
+                    return 1;
+                }
+                if ("registryDelete".equals(method.getName())) {
+                    opList.add("delete");
+                    return 1;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        helper.bufferBeat(beat("127.0.0.1:9999"), new Date());
+        Thread flushThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                helper.flushBeat(registryDao);
+            }
+        });
+        flushThread.start();
+        Assertions.assertTrue(flushStartLatch.await(10, TimeUnit.SECONDS));
+
+        // beat drained by flush, remove wait for flush; delete after upsert, registry not written back
+        Thread removeThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                helper.removeBeat(registryDao, beat("127.0.0.1:9999"));
+            }
+        });
+        removeThread.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertTrue(opList.isEmpty());
+
+        flushReleaseLatch.countDown();
+        flushThread.join(10000);
+        removeThread.join(10000);
+        Assertions.assertEquals(Arrays.asList("upsert", "delete"), opList);
+
+        // nothing left to flush
+        Assertions.assertEquals(0, helper.flushBeat(registryDao));
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * job route probe helper test, hedged probe and probe result cache
+ *
+ * @author xuxueli 2024-12-06
+ */
+public class JobRouteProbeHelperTest {
+
+    private static final List<String> addressList = Arrays.asList("address-1", "address-2", "address-3", "address-4");
+
+    @AfterEach
+    public void after() {
+        JobRouteProbeHelper.getInstance().toStop();
+    }
+
+    /**
+     * mock probe: address-1 / address-2 down (read timeout 1s, not aborted by interrupt, as blocking http read), others alive
+     */
+    private static Function<String, ReturnT<String>> probeCall(final AtomicInteger probeCount, final CountDownLatch timeoutLatch) {
+        return new Function<String, ReturnT<String>>() {
+            @Override
+            public ReturnT<String> apply(String address) {
+                probeCount.incrementAndGet();
+                if ("address-1".equals(address) || "address-2".equals(address)) {
+                    long deadline = System.currentTimeMillis() + 1000;
+                    while (System.currentTimeMillis() < deadline) {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(deadline - System.currentTimeMillis());
+                        } catch (InterruptedException e) {
+                            // blocking read, interrupt ignored
+                        }
+                    }
+                    timeoutLatch.countDown();
+                    return new ReturnT<String>(ReturnT.FAIL_CODE, "timeout");
+                }
+                return ReturnT.SUCCESS;
+            }
+        };
+    }
+
+    @Test
+    public void sequential() {
+        JobRouteProbeHelper.getInstance().start(1, 100, 0);
+
+        long start = System.currentTimeMillis();
+        ReturnT<String> result = JobRouteProbeHelper.getInstance().probe(addressList, "beat", true, "beat", probeCall(new AtomicInteger(), new CountDownLatch(2)));
+        long cost = System.currentTimeMillis() - start;
+
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, result.getCode());
+        Assertions.assertEquals("address-3", result.getContent());
+        Assertions.assertTrue(cost >= 2000, "cost=" + cost);
+    }
+
+    @Test
+    public void hedged() throws InterruptedException {
+        JobRouteProbeHelper.getInstance().start(3, 50, 0);
+
+        AtomicInteger probeCount = new AtomicInteger();
+        CountDownLatch timeoutLatch = new CountDownLatch(2);
+        long start = System.currentTimeMillis();
+        ReturnT<String> result = JobRouteProbeHelper.getInstance().probe(addressList, "beat", true, "beat", probeCall(probeCount, timeoutLatch));
+        long cost = System.currentTimeMillis() - start;
+
+        // address-3 probed after 2 hedge delay, slow probe not waited, address-4 not probed
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, result.getCode());
+        Assertions.assertEquals("address-3", result.getContent());
+        Assertions.assertTrue(cost < 500, "cost=" + cost);
+        Assertions.assertEquals(3, probeCount.get());
+
+        // slow probe not aborted, ends by its read timeout
+        Assertions.assertEquals(2, timeoutLatch.getCount());
+        Assertions.assertTrue(timeoutLatch.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void allFail() {
+        JobRouteProbeHelper.getInstance().start(2, 0, 0);
+
+        ReturnT<String> result = JobRouteProbeHelper.getInstance().probe(addressList.subList(0, 2), "beat", true, "beat", probeCall(new AtomicInteger(), new CountDownLatch(2)));
+        Assertions.assertEquals(ReturnT.FAIL_CODE, result.getCode());
+        Assertions.assertTrue(result.getMsg().contains("address-1") && result.getMsg().contains("address-2"));
+    }
+
+    @Test
+    public void cache() {
+        JobRouteProbeHelper.getInstance().start(1, 100, 60 * 1000);
+        AtomicInteger probeCount = new AtomicInteger();
+
+        // first: address-1 / address-2 fail, address-3 success
+        ReturnT<String> result = JobRouteProbeHelper.getInstance().probe(addressList, "beat", true, "beat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals("address-3", result.getContent());
+        Assertions.assertEquals(3, probeCount.get());
+
+        // cached: fail address probed last, success address used at once
+        long start = System.currentTimeMillis();
+        result = JobRouteProbeHelper.getInstance().probe(addressList, "beat", true, "beat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals("address-3", result.getContent());
+        Assertions.assertEquals(3, probeCount.get());
+        Assertions.assertTrue(System.currentTimeMillis() - start < 500);
+
+        // success not cached: probed again, fail address still last
+        result = JobRouteProbeHelper.getInstance().probe(addressList, "idleBeat-1", false, "idleBeat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals(6, probeCount.get());
+        result = JobRouteProbeHelper.getInstance().probe(addressList, "idleBeat-1", false, "idleBeat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals("address-3", result.getContent());
+        Assertions.assertEquals(7, probeCount.get());
+    }
+
+    @Test
+    public void cacheBounded() {
+        JobRouteProbeHelper.getInstance().start(1, 100, 60 * 1000);
+        AtomicInteger probeCount = new AtomicInteger();
+
+        // probe result of each job cached, LRU bounded
+        for (int i = 0; i < JobRouteProbeHelper.CACHE_MAX + 100; i++) {
+            JobRouteProbeHelper.getInstance().probe(addressList.subList(3, 4), "idleBeat-" + i, true, "idleBeat", probeCall(probeCount, new CountDownLatch(2)));
+        }
+        Assertions.assertEquals(JobRouteProbeHelper.CACHE_MAX, JobRouteProbeHelper.getInstance().getCacheSize());
+
+        // recent kept, eldest evicted
+        int count = probeCount.get();
+        JobRouteProbeHelper.getInstance().probe(addressList.subList(3, 4), "idleBeat-" + (JobRouteProbeHelper.CACHE_MAX + 99), true, "idleBeat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals(count, probeCount.get());
+        JobRouteProbeHelper.getInstance().probe(addressList.subList(3, 4), "idleBeat-0", true, "idleBeat", probeCall(probeCount, new CountDownLatch(2)));
+        Assertions.assertEquals(count + 1, probeCount.get());
+    }
+
+}
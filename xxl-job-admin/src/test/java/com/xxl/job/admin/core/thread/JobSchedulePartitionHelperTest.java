@@ -0,0 +1,291 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
+import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.dao.XxlJobInfoDao;
+import com.xxl.job.admin.dao.XxlJobScheduleSlotDao;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * several in-process admin against one db, each job must be scheduled by only one admin
+ *
+ * @author xuxueli 2024-11-20
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobSchedulePartitionHelperTest {
+
+    private static final int SLOT_COUNT = 16;
+
+    @Resource
+    private XxlJobScheduleSlotDao xxlJobScheduleSlotDao;
+    @Resource
+    private XxlJobInfoDao xxlJobInfoDao;
+    @Resource
+    private DataSource dataSource;
+
+    @Test
+    public void noJobFireTwice() {
+        List<JobSchedulePartitionHelper> nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JobSchedulePartitionHelper node = new JobSchedulePartitionHelper("test-node-" + i + "-" + System.currentTimeMillis(), SLOT_COUNT);
+            node.start();
+            nodes.add(node);
+        }
+        try {
+            // rebalance, all slot owned
+            beatRound(nodes, 3);
+            assertEachJobOwnedOnce(nodes);
+
+            // admin dead, slot take over by other admin
+            JobSchedulePartitionHelper deadNode = nodes.remove(1);
+            deadNode.toStop();
+            assertNoJobOwnedTwice(nodes);
+
+            beatRound(nodes, 3);
+            assertEachJobOwnedOnce(nodes);
+
+            // admin join
+            JobSchedulePartitionHelper newNode = new JobSchedulePartitionHelper("test-node-new-" + System.currentTimeMillis(), SLOT_COUNT);
+            newNode.start();
+            nodes.add(newNode);
+            assertNoJobOwnedTwice(nodes);
+
+            beatRound(nodes, 3);
+            assertEachJobOwnedOnce(nodes);
+        } finally {
+            for (JobSchedulePartitionHelper node: nodes) {
+                node.toStop();
+            }
+        }
+    }
+
+    /**
+     * two admin schedule at the same time, one admin leave and another join while scheduling (rebalance),
+     * each due fire of each job triggered exactly once
+     *
+     *      schedule round as schedule thread: lock owned slot row, query due job of owned slot and update next time by the schedule mapper ("scheduleJobQuery", "scheduleUpdateBatch"), commit;
+     *      fixture job fire on a virtual clock far in the future (year 2100), never due for the running admin;
+     */
+    @Test
+    public void eachFireTriggeredOnce() throws Exception {
+        final int jobCount = 64;
+        final int tickCount = 30;
+        final long baseTime = 4102444800000L;
+
+        // fixture job, fire at "baseTime + n * 1000"
+        final List<Integer> jobIds = new ArrayList<>();
+        for (int i = 0; i < jobCount; i++) {
+            XxlJobInfo info = new XxlJobInfo();
+            info.setJobGroup(1);
+            info.setJobDesc("partition test");
+            info.setScheduleType(ScheduleTypeEnum.FIX_RATE.name());
+            info.setScheduleConf(String.valueOf(1));
+            info.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+            info.setGlueType("BEAN");
+            info.setAddTime(new Date());
+            info.setUpdateTime(new Date());
+            info.setGlueUpdatetime(new Date());
+            info.setTriggerStatus(1);
+            info.setTriggerNextTime(baseTime);
+            xxlJobInfoDao.save(info);
+            jobIds.add(info.getId());
+        }
+
+        final ConcurrentMap<String, AtomicInteger> fireCount = new ConcurrentHashMap<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        final long[] virtualNow = new long[]{baseTime};
+        List<ScheduleRunner> runners = new ArrayList<>();
+        try {
+            runners.add(new ScheduleRunner(new JobSchedulePartitionHelper("test-node-a-" + System.currentTimeMillis(), SLOT_COUNT), jobIds, virtualNow, fireCount, errors));
+            runners.add(new ScheduleRunner(new JobSchedulePartitionHelper("test-node-b-" + System.currentTimeMillis(), SLOT_COUNT), jobIds, virtualNow, fireCount, errors));
+
+            for (int tick = 0; tick <= tickCount; tick++) {
+                // rebalance: admin leave (stop schedule, then release slot), admin join
+                if (tick == tickCount / 3) {
+                    runners.remove(0).stop();
+                    runners.add(new ScheduleRunner(new JobSchedulePartitionHelper("test-node-c-" + System.currentTimeMillis(), SLOT_COUNT), jobIds, virtualNow, fireCount, errors));
+                }
+                if (tick == tickCount * 2 / 3) {
+                    runners.add(new ScheduleRunner(new JobSchedulePartitionHelper("test-node-d-" + System.currentTimeMillis(), SLOT_COUNT), jobIds, virtualNow, fireCount, errors));
+                }
+
+                synchronized (virtualNow) {
+                    virtualNow[0] = baseTime + tick * 1000L;
+                }
+                for (ScheduleRunner runner: runners) {
+                    runner.node.beat();
+                }
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+
+            // wait all fire done
+            long waitEnd = System.currentTimeMillis() + 30 * 1000;
+            while (fireCount.size() < jobCount * (tickCount + 1) && System.currentTimeMillis() < waitEnd) {
+                for (ScheduleRunner runner: runners) {
+                    runner.node.beat();
+                }
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        } finally {
+            for (ScheduleRunner runner: runners) {
+                runner.stop();
+            }
+            for (Integer jobId: jobIds) {
+                xxlJobInfoDao.delete(jobId);
+            }
+        }
+
+        Assertions.assertTrue(errors.isEmpty(), "schedule error: " + errors);
+        for (Integer jobId: jobIds) {
+            for (int tick = 0; tick <= tickCount; tick++) {
+                AtomicInteger count = fireCount.get(jobId + "@" + (baseTime + tick * 1000L));
+                Assertions.assertNotNull(count, "fire missed, jobId = " + jobId + ", tick = " + tick);
+                Assertions.assertEquals(1, count.get(), "fire triggered more than once, jobId = " + jobId + ", tick = " + tick);
+            }
+        }
+        Assertions.assertEquals(jobCount * (tickCount + 1), fireCount.size());
+    }
+
+    /**
+     * admin node and its schedule thread
+     */
+    private class ScheduleRunner {
+        private final JobSchedulePartitionHelper node;
+        private final Thread scheduleThread;
+        private volatile boolean toStop = false;
+
+        private ScheduleRunner(final JobSchedulePartitionHelper node, final List<Integer> jobIds, final long[] virtualNow,
+                               final ConcurrentMap<String, AtomicInteger> fireCount, final List<Throwable> errors) {
+            this.node = node;
+            node.start();
+            scheduleThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (!toStop) {
+                        long nowTime;
+                        synchronized (virtualNow) {
+                            nowTime = virtualNow[0];
+                        }
+                        try {
+                            scheduleRound(node, nowTime, jobIds, fireCount);
+                        } catch (Throwable e) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            });
+            scheduleThread.start();
+        }
+
+        private void stop() throws InterruptedException {
+            toStop = true;
+            scheduleThread.join();
+            node.toStop();
+        }
+    }
+
+    private void scheduleRound(JobSchedulePartitionHelper node, long nowTime, List<Integer> jobIds, ConcurrentMap<String, AtomicInteger> fireCount) throws Exception {
+        Connection conn = dataSource.getConnection();
+        boolean connAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            List<Integer> slotIds = node.lockOwnedSlot(conn);
+            if (!slotIds.isEmpty()) {
+
+                // due job of owned slot (other job in db also due on the virtual clock, not touched)
+                List<XxlJobInfo> scheduleList = xxlJobInfoDao.scheduleJobQuery(nowTime, jobIds.size() + 1000, node.getSlotCount(), slotIds);
+                List<XxlJobInfo> fixtureList = new ArrayList<>();
+                for (XxlJobInfo jobInfo: scheduleList) {
+                    if (!jobIds.contains(jobInfo.getId())) {
+                        continue;
+                    }
+
+                    // trigger
+                    String fireKey = jobInfo.getId() + "@" + jobInfo.getTriggerNextTime();
+                    AtomicInteger count = fireCount.get(fireKey);
+                    if (count == null) {
+                        AtomicInteger newCount = new AtomicInteger();
+                        count = fireCount.putIfAbsent(fireKey, newCount);
+                        if (count == null) {
+                            count = newCount;
+                        }
+                    }
+                    count.incrementAndGet();
+
+                    // fresh next
+                    Date nextValidTime = JobScheduleHelper.generateNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+                    jobInfo.setTriggerLastTime(jobInfo.getTriggerNextTime());
+                    jobInfo.setTriggerNextTime(nextValidTime.getTime());
+                    fixtureList.add(jobInfo);
+                }
+
+                // update trigger info
+                if (!fixtureList.isEmpty()) {
+                    xxlJobInfoDao.scheduleUpdateBatch(fixtureList);
+                }
+            }
+            conn.commit();
+        } catch (Exception e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(connAutoCommit);
+            conn.close();
+        }
+    }
+
+    private void beatRound(List<JobSchedulePartitionHelper> nodes, int round) {
+        for (int i = 0; i < round; i++) {
+            for (JobSchedulePartitionHelper node: nodes) {
+                node.beat();
+                assertNoJobOwnedTwice(nodes);
+            }
+        }
+    }
+
+    private Map<Integer, Integer> jobOwnerCount(List<JobSchedulePartitionHelper> nodes) {
+        Map<Integer, Set<Integer>> nodeSlots = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            List<Integer> slots = xxlJobScheduleSlotDao.findOwnedSlot(nodes.get(i).getNodeId(), System.currentTimeMillis());
+            nodeSlots.put(i, new HashSet<>(slots));
+        }
+
+        Map<Integer, Integer> ownerCount = new HashMap<>();
+        for (int jobId = 1; jobId <= 1000; jobId++) {
+            int count = 0;
+            for (Set<Integer> slots: nodeSlots.values()) {
+                if (slots.contains(jobId % SLOT_COUNT)) {
+                    count++;
+                }
+            }
+            ownerCount.put(jobId, count);
+        }
+        return ownerCount;
+    }
+
+    private void assertNoJobOwnedTwice(List<JobSchedulePartitionHelper> nodes) {
+        for (Map.Entry<Integer, Integer> item: jobOwnerCount(nodes).entrySet()) {
+            Assertions.assertTrue(item.getValue() <= 1, "job scheduled by more than one admin, jobId = " + item.getKey());
+        }
+    }
+
+    private void assertEachJobOwnedOnce(List<JobSchedulePartitionHelper> nodes) {
+        for (Map.Entry<Integer, Integer> item: jobOwnerCount(nodes).entrySet()) {
+            Assertions.assertEquals(1, (int) item.getValue(), "job not scheduled by exactly one admin, jobId = " + item.getKey());
+        }
+    }
+
+}
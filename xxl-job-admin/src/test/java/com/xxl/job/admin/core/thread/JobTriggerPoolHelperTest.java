@@ -0,0 +1,170 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job trigger pool helper test
+ *
+ * @author xuxueli 2024-12-02
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobTriggerPoolHelperTest {
+
+    // job not exists, trigger run without executor call
+    private static final int JOB_ID_1 = Integer.MAX_VALUE - 1;
+    private static final int JOB_ID_2 = Integer.MAX_VALUE - 2;
+
+    @Test
+    public void broadcastParallel() throws InterruptedException {
+        int maxPoolSize = 30;
+        ThreadPoolExecutor broadcastTriggerPool = JobTriggerPoolHelper.newBroadcastTriggerPool(maxPoolSize);
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(50);
+        try {
+            // shard more than pool max, blocked until released
+            for (int i = 0; i < 50; i++) {
+                broadcastTriggerPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            int current = running.incrementAndGet();
+                            maxRunning.accumulateAndGet(current, Math::max);
+                            releaseLatch.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            running.decrementAndGet();
+                            endLatch.countDown();
+                        }
+                    }
+                });
+            }
+
+            // parallel up to pool max (not core 10), rest queued
+            long deadline = System.currentTimeMillis() + 5000;
+            while (maxRunning.get() < maxPoolSize && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assertions.assertEquals(maxPoolSize, maxRunning.get());
+            Assertions.assertEquals(20, broadcastTriggerPool.getQueue().size());
+
+            releaseLatch.countDown();
+            Assertions.assertTrue(endLatch.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(maxPoolSize, maxRunning.get());
+        } finally {
+            releaseLatch.countDown();
+            broadcastTriggerPool.shutdownNow();
+        }
+    }
+
+    // ---------------------- coalesce ----------------------
+
+    /**
+     * trigger pool, one thread, blocked by first task until released
+     */
+    private ThreadPoolExecutor newBlockedTriggerPool(final CountDownLatch releaseLatch) {
+        ThreadPoolExecutor triggerPool = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(100));
+        triggerPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    releaseLatch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        return triggerPool;
+    }
+
+    private void waitPoolIdle(ThreadPoolExecutor triggerPool) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((triggerPool.getActiveCount() > 0 || !triggerPool.getQueue().isEmpty()) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    @Test
+    public void coalescePending() throws InterruptedException {
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        ThreadPoolExecutor triggerPool = newBlockedTriggerPool(releaseLatch);
+        JobTriggerPoolHelper poolHelper = new JobTriggerPoolHelper();
+        poolHelper.start(triggerPool, triggerPool, true);
+        try {
+            // cron / misfire fire of pending job collapsed
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.MISFIRE, -1, null, null, null);
+            poolHelper.addTrigger(JOB_ID_2, TriggerTypeEnum.CRON, -1, null, null, null);
+            Assertions.assertEquals(2, poolHelper.getPendingTriggerCount());
+            Assertions.assertEquals(2, triggerPool.getQueue().size());
+
+            // manual trigger not collapsed
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.MANUAL, -1, null, null, null);
+            Assertions.assertEquals(3, triggerPool.getQueue().size());
+        } finally {
+            releaseLatch.countDown();
+            poolHelper.stop();
+        }
+    }
+
+    @Test
+    public void coalesceReleaseAfterRun() throws InterruptedException {
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        ThreadPoolExecutor triggerPool = newBlockedTriggerPool(releaseLatch);
+        JobTriggerPoolHelper poolHelper = new JobTriggerPoolHelper();
+        poolHelper.start(triggerPool, triggerPool, true);
+        try {
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            Assertions.assertEquals(1, poolHelper.getPendingTriggerCount());
+
+            // pending trigger run, released
+            releaseLatch.countDown();
+            waitPoolIdle(triggerPool);
+            Assertions.assertEquals(0, poolHelper.getPendingTriggerCount());
+
+            // later fire queued again
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            waitPoolIdle(triggerPool);
+            Assertions.assertEquals(0, poolHelper.getPendingTriggerCount());
+            Assertions.assertEquals(3, triggerPool.getCompletedTaskCount());
+        } finally {
+            releaseLatch.countDown();
+            poolHelper.stop();
+        }
+    }
+
+    @Test
+    public void coalesceStop() throws InterruptedException {
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        ThreadPoolExecutor triggerPool = newBlockedTriggerPool(releaseLatch);
+        JobTriggerPoolHelper poolHelper = new JobTriggerPoolHelper();
+        poolHelper.start(triggerPool, triggerPool, true);
+        try {
+            poolHelper.addTrigger(JOB_ID_1, TriggerTypeEnum.CRON, -1, null, null, null);
+            poolHelper.addTrigger(JOB_ID_2, TriggerTypeEnum.CRON, -1, null, null, null);
+            Assertions.assertEquals(2, poolHelper.getPendingTriggerCount());
+
+            // pending trigger dropped by stop, not left pending
+            poolHelper.stop();
+            Assertions.assertEquals(0, poolHelper.getPendingTriggerCount());
+        } finally {
+            releaseLatch.countDown();
+            poolHelper.stop();
+        }
+    }
+
+}
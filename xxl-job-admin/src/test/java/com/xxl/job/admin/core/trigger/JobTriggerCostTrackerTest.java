@@ -0,0 +1,127 @@
+package com.xxl.job.admin.core.trigger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * job trigger cost tracker test, slow job classify
+ *
+ * @author xuxueli 2024-12-02
+ */
+public class JobTriggerCostTrackerTest {
+
+    @Test
+    public void minSample() {
+        JobTriggerCostTracker tracker = new JobTriggerCostTracker(500, 200, 60 * 1000);
+        long now = 1000000;
+
+        // first slow trigger (cold start, network blip) not classify
+        tracker.record(1, 5000, now += 1000);
+        Assertions.assertEquals(5000, tracker.getCostAvg(1));
+        Assertions.assertFalse(tracker.isSlow(1));
+
+        // followed by fast trigger, never slow
+        for (int i = 1; i < JobTriggerCostTracker.MIN_SAMPLE_COUNT * 2; i++) {
+            tracker.record(1, 10, now += 60 * 1000);
+            Assertions.assertFalse(tracker.isSlow(1));
+        }
+
+        // slow on each sample, classified at min sample count
+        for (int i = 1; i < JobTriggerCostTracker.MIN_SAMPLE_COUNT; i++) {
+            tracker.record(2, 2000, now += 1000);
+            Assertions.assertFalse(tracker.isSlow(2));
+        }
+        tracker.record(2, 2000, now += 1000);
+        Assertions.assertTrue(tracker.isSlow(2));
+        Assertions.assertEquals(1, tracker.getSlowCount());
+    }
+
+    @Test
+    public void slowAndRecover() {
+        JobTriggerCostTracker tracker = new JobTriggerCostTracker(500, 200, 60 * 1000);
+        long now = 1000000;
+        Assertions.assertFalse(tracker.isSlow(1));
+        Assertions.assertEquals(-1, tracker.getCostAvg(1));
+
+        // fire each second, fast
+        for (int i = 0; i < 10; i++) {
+            tracker.record(1, 50, now += 1000);
+        }
+        Assertions.assertFalse(tracker.isSlow(1));
+        Assertions.assertEquals(50, tracker.getCostAvg(1));
+
+        // slow after a few slow trigger
+        int slowAfter = 0;
+        while (!tracker.isSlow(1)) {
+            tracker.record(1, 2000, now += 1000);
+            slowAfter++;
+        }
+        Assertions.assertTrue(slowAfter <= 5);
+        Assertions.assertEquals(1, tracker.getSlowCount());
+
+        // keep slow in hysteresis range, not flip back each minute
+        for (int i = 0; i < 300; i++) {
+            tracker.record(1, 300, now += 1000);
+            Assertions.assertTrue(tracker.isSlow(1));
+        }
+
+        // back to fast
+        for (int i = 0; i < 100; i++) {
+            tracker.record(1, 50, now += 1000);
+        }
+        Assertions.assertFalse(tracker.isSlow(1));
+        Assertions.assertEquals(0, tracker.getSlowCount());
+    }
+
+    @Test
+    public void decayWithTime() {
+        JobTriggerCostTracker tracker = new JobTriggerCostTracker(500, 200, 60 * 1000);
+        long now = 1000000;
+        for (int i = 0; i < JobTriggerCostTracker.MIN_SAMPLE_COUNT; i++) {
+            tracker.record(1, 2000, now += 1000);
+        }
+        Assertions.assertTrue(tracker.isSlow(1));
+
+        // fire after long time, old cost avg mostly decayed
+        tracker.record(1, 50, now + 60 * 60 * 1000);
+        Assertions.assertEquals(50, tracker.getCostAvg(1));
+        Assertions.assertFalse(tracker.isSlow(1));
+    }
+
+    @Test
+    public void manyJob() throws Exception {
+        final JobTriggerCostTracker tracker = new JobTriggerCostTracker(500, 200, 60 * 1000);
+        final int jobCount = 100000;
+        final CountDownLatch latch = new CountDownLatch(4);
+        List<Thread> threadList = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < JobTriggerCostTracker.MIN_SAMPLE_COUNT; i++) {
+                        for (int jobId = 1 + offset; jobId <= jobCount; jobId += 4) {
+                            tracker.record(jobId, jobId % 10 == 0 ? 1000 : 10);
+                        }
+                    }
+                    latch.countDown();
+                }
+            });
+            threadList.add(thread);
+            thread.start();
+        }
+        latch.await();
+
+        Assertions.assertEquals(jobCount / 10, tracker.getSlowCount());
+        for (int jobId = 1; jobId <= jobCount; jobId++) {
+            Assertions.assertEquals(jobId % 10 == 0, tracker.isSlow(jobId));
+        }
+        Assertions.assertFalse(tracker.isSlow(0));
+        Assertions.assertFalse(tracker.isSlow(jobCount + 1));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.xxl.job.admin.core.trigger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * job trigger rate limiter test
+ *
+ * @author xuxueli 2024-12-03
+ */
+public class JobTriggerRateLimiterTest {
+
+    @Test
+    public void jobRate() {
+        JobTriggerRateLimiter rateLimiter = new JobTriggerRateLimiter(0, 0, 10);
+        Assertions.assertTrue(rateLimiter.isEnable());
+
+        // burst of one second
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, rateLimiter.acquire(1, 1, 0));
+        }
+        Assertions.assertEquals(-1, rateLimiter.acquire(1, 1, 0));
+
+        // other job not limited
+        Assertions.assertEquals(0, rateLimiter.acquire(2, 1, 0));
+
+        // delay, token reserved
+        long waitMs = rateLimiter.acquire(1, 1, 10 * 1000);
+        Assertions.assertTrue(waitMs > 0 && waitMs <= 100, "waitMs=" + waitMs);
+        long waitMs2 = rateLimiter.acquire(1, 1, 10 * 1000);
+        Assertions.assertTrue(waitMs2 > waitMs && waitMs2 <= 200, "waitMs2=" + waitMs2);
+    }
+
+    @Test
+    public void groupAndGlobalRate() {
+        JobTriggerRateLimiter rateLimiter = new JobTriggerRateLimiter(100, 5, 0);
+
+        // group
+        for (int jobId = 1; jobId <= 5; jobId++) {
+            Assertions.assertEquals(0, rateLimiter.acquire(jobId, 1, 0));
+        }
+        Assertions.assertEquals(-1, rateLimiter.acquire(6, 1, 0));
+        Assertions.assertEquals(0, rateLimiter.acquire(6, 2, 0));
+
+        // global, rejected group token given back
+        int accepted = 6;
+        for (int group = 3; group < 100; group++) {
+            if (rateLimiter.acquire(1, group, 0) == 0) {
+                accepted++;
+            }
+        }
+        Assertions.assertTrue(accepted >= 100 && accepted <= 101, "accepted=" + accepted);
+        Assertions.assertEquals(-1, rateLimiter.acquire(1, 99, 0));
+    }
+
+    @Test
+    public void release() {
+        JobTriggerRateLimiter rateLimiter = new JobTriggerRateLimiter(0, 0, 1);
+        Assertions.assertEquals(0, rateLimiter.acquire(1, 0, 0));
+        Assertions.assertEquals(-1, rateLimiter.acquire(1, 0, 0));
+
+        rateLimiter.release(1, 0);
+        Assertions.assertEquals(0, rateLimiter.acquire(1, 0, 0));
+    }
+
+    @Test
+    public void evictIdle() {
+        JobTriggerRateLimiter rateLimiter = new JobTriggerRateLimiter(0, 10, 10);
+        long now = System.currentTimeMillis();
+        for (int jobId = 1; jobId <= 100; jobId++) {
+            Assertions.assertEquals(0, rateLimiter.acquire(jobId, jobId, 0));
+        }
+        Assertions.assertEquals(200, rateLimiter.getBucketCount());
+
+        // not evict interval
+        rateLimiter.evictIdle(now + 1000);
+        Assertions.assertEquals(200, rateLimiter.getBucketCount());
+
+        // idle (job / group deleted), evicted
+        rateLimiter.evictIdle(now + JobTriggerRateLimiter.EVICT_INTERVAL_MS + 1);
+        Assertions.assertEquals(0, rateLimiter.getBucketCount());
+
+        // evicted bucket same as new one
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, rateLimiter.acquire(1, 1, 0));
+        }
+        Assertions.assertEquals(-1, rateLimiter.acquire(1, 1, 0));
+    }
+
+    @Test
+    public void disabled() {
+        JobTriggerRateLimiter rateLimiter = new JobTriggerRateLimiter(0, 0, 0);
+        Assertions.assertFalse(rateLimiter.isEnable());
+        Assertions.assertEquals(0, rateLimiter.acquire(1, 1, 0));
+        Assertions.assertEquals(JobTriggerRateLimiter.Overflow.COALESCE, JobTriggerRateLimiter.Overflow.match(" coalesce", null));
+        Assertions.assertEquals(JobTriggerRateLimiter.Overflow.DELAY, JobTriggerRateLimiter.Overflow.match("unknown", JobTriggerRateLimiter.Overflow.DELAY));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.xxl.job.admin.core.util;
+
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * trigger pool benchmark, platform thread vs virtual thread (jdk21+); mock trigger, not the real trigger path (no db and executor)
+ *
+ *      10k mock trigger in flight: db access 5ms (virtual thread mode: limited by VirtualThreadDbInterceptor, datasource pool 30 less reserved), blocking rpc 100ms
+ *
+ * @author xuxueli 2024-12-04
+ */
+public class VirtualThreadBenchmarkTest {
+    private static Logger logger = LoggerFactory.getLogger(VirtualThreadBenchmarkTest.class);
+
+    private static final int triggerCount = 10000;
+    private static final long rpcMs = 100;
+    private static final long dbMs = 5;
+    private static final int dbPoolSize = 30;
+
+    @Test
+    public void platformThread() throws Exception {
+        VirtualThreadUtil.init(false, triggerCount, dbPoolSize);
+        benchmark("platform");
+    }
+
+    @Test
+    public void virtualThread() throws Exception {
+        Assumptions.assumeTrue(VirtualThreadUtil.isSupported(), "virtual thread not supported, jdk21+ required");
+        VirtualThreadUtil.init(true, triggerCount, dbPoolSize);
+        try {
+            int maxDbActive = benchmark("virtual");
+            Assertions.assertTrue(maxDbActive <= dbPoolSize - VirtualThreadUtil.DB_PLATFORM_RESERVED, "maxDbActive=" + maxDbActive);
+        } finally {
+            VirtualThreadUtil.init(false, triggerCount, 0);
+        }
+    }
+
+    /**
+     * platform thread (schedule thread, holding lock connection) not wait for db permit, even if all taken by virtual thread
+     */
+    @Test
+    public void platformThreadNotWaitDbPermit() throws Throwable {
+        Assumptions.assumeTrue(VirtualThreadUtil.isSupported(), "virtual thread not supported, jdk21+ required");
+        VirtualThreadUtil.init(true, triggerCount, dbPoolSize);
+        Semaphore dbPermits = VirtualThreadUtil.getDbPermits();
+        int permits = dbPermits.drainPermits();
+        try {
+            Assertions.assertEquals(dbPoolSize - VirtualThreadUtil.DB_PLATFORM_RESERVED, permits);
+            Assertions.assertFalse(VirtualThreadUtil.isVirtualThread());
+
+            MockDb mockDb = new MockDb();
+            new VirtualThreadDbInterceptor().intercept(new Invocation(mockDb, MockDb.class.getMethod("access"), new Object[0]));
+            Assertions.assertEquals(1, mockDb.maxActive.get());
+        } finally {
+            dbPermits.release(permits);
+            VirtualThreadUtil.init(false, triggerCount, 0);
+        }
+    }
+
+    /**
+     * mock db, track concurrent access
+     */
+    public static class MockDb {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        public Object access() throws InterruptedException {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(dbMs);
+            } finally {
+                active.decrementAndGet();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return max concurrent db access
+     */
+    private int benchmark(String mode) throws Exception {
+        final VirtualThreadDbInterceptor dbInterceptor = new VirtualThreadDbInterceptor();
+        final MockDb mockDb = new MockDb();
+        final Method dbAccess = MockDb.class.getMethod("access");
+
+        // fast trigger pool at max size (platform thread: 200), queue hold all trigger
+        ThreadPoolExecutor triggerPool = VirtualThreadUtil.newThreadPool(
+                "xxl-job, benchmark triggerPool-",
+                200,
+                200,
+                60L,
+                new LinkedBlockingQueue<Runnable>(triggerCount),
+                null);
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        System.gc();
+        long memoryBefore = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+        final CountDownLatch latch = new CountDownLatch(triggerCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < triggerCount; i++) {
+            triggerPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // mock db, trigger log
+                        dbInterceptor.intercept(new Invocation(mockDb, dbAccess, new Object[0]));
+
+                        // mock executor, blocking rpc
+                        TimeUnit.MILLISECONDS.sleep(rpcMs);
+                    } catch (Throwable e) {
+                        return;
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        long memoryInFlight = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        Assertions.assertTrue(latch.await(2, TimeUnit.MINUTES));
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        triggerPool.shutdownNow();
+
+        logger.info(">>>>>>>>>>> xxl-job benchmark, trigger pool {} (mock trigger), triggers = {}, db = {}ms, rpc = {}ms, cost = {}ms, triggers/sec = {}, max db active = {}, peak platform threads = {}, heap in flight = {}KB",
+                mode, triggerCount, dbMs, rpcMs, cost, triggerCount * 1000L / Math.max(cost, 1), mockDb.maxActive.get(),
+                threadMXBean.getPeakThreadCount(), Math.max(memoryInFlight - memoryBefore, 0) / 1024);
+        return mockDb.maxActive.get();
+    }
+
+}
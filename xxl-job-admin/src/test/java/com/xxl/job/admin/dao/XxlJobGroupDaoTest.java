@@ -38,6 +38,11 @@ public class XxlJobGroupDaoTest {
 
         int ret2 = xxlJobGroupDao.update(group2);
 
+        List<XxlJobGroup> list3 = xxlJobGroupDao.findByAppname("setAppName2", 2);
+        int ret4 = xxlJobGroupDao.updateAddressList(group.getId(), "setAddressList3", new Date());
+
+        List<XxlJobGroup> versionList = xxlJobGroupDao.findUpdateVersion(new Date(System.currentTimeMillis() - 60 * 1000));
+
         int ret3 = xxlJobGroupDao.remove(group.getId());
     }
 
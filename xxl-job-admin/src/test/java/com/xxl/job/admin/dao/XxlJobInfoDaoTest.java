@@ -3,12 +3,15 @@ package com.xxl.job.admin.dao;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -83,4 +86,85 @@ public class XxlJobInfoDaoTest {
 
 	}
 
+	/**
+	 * schedule update benchmark, 10k job: update one by one vs batch
+	 *
+	 * 	fixture job inserted stopped, and started with trigger time far in future: never due, not triggered by the running admin
+	 */
+	@Test
+	public void scheduleUpdateBenchmark(){
+		int count = 10000;
+		long baseTime = System.currentTimeMillis() + 365L * 24 * 60 * 60 * 1000;
+
+		// prepare job (stopped)
+		List<XxlJobInfo> jobList = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			XxlJobInfo info = new XxlJobInfo();
+			info.setJobGroup(1);
+			info.setJobDesc("benchmark");
+			info.setScheduleType(ScheduleTypeEnum.FIX_RATE.name());
+			info.setScheduleConf(String.valueOf(10));
+			info.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+			info.setGlueType("BEAN");
+			info.setGlueSource("benchmark glue source, not loaded by schedule query");
+			info.setAddTime(new Date());
+			info.setUpdateTime(new Date());
+			info.setGlueUpdatetime(new Date());
+			info.setTriggerStatus(0);
+			info.setTriggerNextTime(baseTime);
+			xxlJobInfoDao.save(info);
+			jobList.add(info);
+		}
+
+		try {
+			// start job, schedule update only applied to running job
+			for (XxlJobInfo info: jobList) {
+				info.setTriggerStatus(1);
+				xxlJobInfoDao.update(info);
+			}
+
+			// query (schedule column only)
+			long start = System.currentTimeMillis();
+			List<XxlJobInfo> scheduleList = xxlJobInfoDao.scheduleJobQuery(baseTime + 5000, count * 2, 0, null);
+			long queryCost = System.currentTimeMillis() - start;
+
+			// update one by one
+			for (XxlJobInfo info: jobList) {
+				info.setTriggerLastTime(info.getTriggerNextTime());
+				info.setTriggerNextTime(info.getTriggerNextTime() + 10000);
+			}
+			start = System.currentTimeMillis();
+			for (XxlJobInfo info: jobList) {
+				xxlJobInfoDao.scheduleUpdate(info);
+			}
+			long updateCost = System.currentTimeMillis() - start;
+
+			// update batch
+			for (XxlJobInfo info: jobList) {
+				info.setTriggerLastTime(info.getTriggerNextTime());
+				info.setTriggerNextTime(info.getTriggerNextTime() + 10000);
+			}
+			start = System.currentTimeMillis();
+			for (int from = 0; from < jobList.size(); from += JobScheduleHelper.UPDATE_BATCH_SIZE) {
+				xxlJobInfoDao.scheduleUpdateBatch(jobList.subList(from, Math.min(from + JobScheduleHelper.UPDATE_BATCH_SIZE, jobList.size())));
+			}
+			long updateBatchCost = System.currentTimeMillis() - start;
+
+			logger.info(">>>>>>>>>>> schedule benchmark, job = {}, query = {} ms, update = {} ms, updateBatch = {} ms",
+					scheduleList.size(), queryCost, updateCost, updateBatchCost);
+
+			// batch update persisted
+			for (XxlJobInfo info: jobList) {
+				XxlJobInfo persisted = xxlJobInfoDao.loadById(info.getId());
+				Assertions.assertEquals(baseTime + 10000, persisted.getTriggerLastTime());
+				Assertions.assertEquals(baseTime + 20000, persisted.getTriggerNextTime());
+				Assertions.assertEquals(1, persisted.getTriggerStatus());
+			}
+		} finally {
+			for (XxlJobInfo info: jobList) {
+				xxlJobInfoDao.delete(info.getId());
+			}
+		}
+	}
+
 }
@@ -1,10 +1,12 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobLog;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -43,6 +45,54 @@ public class XxlJobLogDaoTest {
         dto = xxlJobLogDao.load(log.getId());
 
 
+        // batch save, pre-allocated id
+        long maxId = xxlJobLogDao.findMaxId();
+        List<XxlJobLog> logList = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            XxlJobLog batchLog = new XxlJobLog();
+            batchLog.setId(maxId + i);
+            batchLog.setJobGroup(1);
+            batchLog.setJobId(1);
+            batchLog.setTriggerTime(new Date());
+            batchLog.setTriggerCode(200);
+            batchLog.setTriggerMsg("batch");
+            batchLog.setExecutorAddress("1");
+            logList.add(batchLog);
+        }
+        int ret3 = xxlJobLogDao.saveBatch(logList);
+        Assertions.assertEquals(3, ret3);
+        Assertions.assertEquals(maxId + 3, xxlJobLogDao.findMaxId());
+        Assertions.assertEquals("batch", xxlJobLogDao.load(maxId + 2).getTriggerMsg());
+
+        // batch update trigger info
+        for (XxlJobLog batchLog: logList) {
+            batchLog.setTriggerMsg("batch-" + batchLog.getId());
+            batchLog.setExecutorHandler("handler");
+        }
+        int ret6 = xxlJobLogDao.updateTriggerInfoBatch(logList);
+        Assertions.assertEquals(3, ret6);
+        for (XxlJobLog batchLog: logList) {
+            XxlJobLog batchDto = xxlJobLogDao.load(batchLog.getId());
+            Assertions.assertEquals("batch-" + batchLog.getId(), batchDto.getTriggerMsg());
+            Assertions.assertEquals("handler", batchDto.getExecutorHandler());
+        }
+
+        // batch save, generated id
+        List<XxlJobLog> initLogList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            XxlJobLog initLog = new XxlJobLog();
+            initLog.setJobGroup(1);
+            initLog.setJobId(1);
+            initLog.setTriggerTime(new Date());
+            initLogList.add(initLog);
+        }
+        int ret5 = xxlJobLogDao.saveInitBatch(initLogList);
+        Assertions.assertEquals(3, ret5);
+        for (XxlJobLog initLog: initLogList) {
+            Assertions.assertTrue(initLog.getId() > maxId + 3);
+            Assertions.assertEquals(1, xxlJobLogDao.load(initLog.getId()).getJobId());
+        }
+
         List<Long> ret4 = xxlJobLogDao.findClearLogIds(1, 1, new Date(), 100, 100);
 
         int ret2 = xxlJobLogDao.delete(log.getJobId());
@@ -1,6 +1,7 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -18,7 +19,7 @@ public class XxlJobRegistryDaoTest {
 
     @Test
     public void test(){
-        int ret = xxlJobRegistryDao.registrySaveOrUpdate("g1", "k1", "v1", new Date());
+        int ret = xxlJobRegistryDao.registrySaveOrUpdate("g1", "k1", "v1", 4, 100, new Date());
         /*int ret = xxlJobRegistryDao.registryUpdate("g1", "k1", "v1", new Date());
         if (ret < 1) {
             ret = xxlJobRegistryDao.registrySave("g1", "k1", "v1", new Date());
@@ -26,14 +27,34 @@ public class XxlJobRegistryDaoTest {
 
         List<XxlJobRegistry> list = xxlJobRegistryDao.findAll(1, new Date());
 
+        List<XxlJobRegistry> list2 = xxlJobRegistryDao.findByKey("g1", "k1", 1, new Date());
+
+        // batch upsert, update (v1) and insert (v2)
+        int ret3 = xxlJobRegistryDao.registryBatchSaveOrUpdate(Arrays.asList(newBeat("v1"), newBeat("v2")));
+        Assertions.assertEquals(2, xxlJobRegistryDao.findByKey("g1", "k1", 90, new Date()).size());
+
         int ret2 = xxlJobRegistryDao.removeDead(Arrays.asList(1));
+
+        xxlJobRegistryDao.registryDelete("g1", "k1", "v1");
+        xxlJobRegistryDao.registryDelete("g1", "k1", "v2");
+    }
+
+    private XxlJobRegistry newBeat(String registryValue) {
+        XxlJobRegistry beat = new XxlJobRegistry();
+        beat.setRegistryGroup("g1");
+        beat.setRegistryKey("k1");
+        beat.setRegistryValue(registryValue);
+        beat.setWeight(1);
+        beat.setMaxConcurrency(0);
+        beat.setUpdateTime(new Date());
+        return beat;
     }
 
     @Test
     public void test2() throws InterruptedException {
         for (int i = 0; i < 100; i++) {
             new Thread(()->{
-                int ret = xxlJobRegistryDao.registrySaveOrUpdate("g1", "k1", "v1", new Date());
+                int ret = xxlJobRegistryDao.registrySaveOrUpdate("g1", "k1", "v1", 1, 0, new Date());
                 System.out.println(ret);
 
                 /*int ret = xxlJobRegistryDao.registryUpdate("g1", "k1", "v1", new Date());
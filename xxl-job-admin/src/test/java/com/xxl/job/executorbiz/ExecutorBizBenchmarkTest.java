@@ -0,0 +1,117 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.server.EmbedServer;
+import com.xxl.job.core.util.XxlJobRemotingAsyncUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * executor rpc benchmark (requests/sec), against local embed server
+ *
+ * @author xuxueli 2024-11-30
+ */
+public class ExecutorBizBenchmarkTest {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorBizBenchmarkTest.class);
+
+    private static final int port = 19999;
+    private static final String addressUrl = "http://127.0.0.1:" + port + "/";
+    private static final String accessToken = "benchmark_token";
+
+    private static final int threadCount = 16;
+    private static final int requestCount = 20000;
+
+    private static EmbedServer embedServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        embedServer = new EmbedServer();
+        embedServer.start(addressUrl, port, null, accessToken);
+
+        // wait server ready
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+        for (int i = 0; i < 50; i++) {
+            if (executorBiz.beat().getCode() == ReturnT.SUCCESS_CODE) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assertions.fail("embed server start fail.");
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        XxlJobRemotingAsyncUtil.shutdown();
+        embedServer.stop();
+    }
+
+    @Test
+    public void beatSync() throws Exception {
+        final ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+        final AtomicInteger successCount = new AtomicInteger(0);
+        final AtomicInteger requestIndex = new AtomicInteger(0);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futureList = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threadCount; i++) {
+            futureList.add(executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    while (requestIndex.getAndIncrement() < requestCount) {
+                        if (executorBiz.beat().getCode() == ReturnT.SUCCESS_CODE) {
+                            successCount.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future: futureList) {
+            future.get();
+        }
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executorService.shutdown();
+
+        logger.info(">>>>>>>>>>> xxl-job benchmark, beat sync, threads = {}, requests = {}, cost = {}ms, requests/sec = {}",
+                threadCount, requestCount, cost, requestCount * 1000L / Math.max(cost, 1));
+        Assertions.assertEquals(requestCount, successCount.get());
+    }
+
+    @Test
+    public void runAsync() throws Exception {
+        final ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+        final AtomicInteger completeCount = new AtomicInteger(0);
+        final Semaphore inFlight = new Semaphore(threadCount * 8);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requestCount; i++) {
+            inFlight.acquire();
+            // invalid glue type, executor respond fail directly (round trip only)
+            executorBiz.runAsync(new TriggerParam()).whenComplete((result, e) -> {
+                if (result != null) {
+                    completeCount.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(threadCount * 8);
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        logger.info(">>>>>>>>>>> xxl-job benchmark, run async, in-flight = {}, requests = {}, cost = {}ms, requests/sec = {}",
+                threadCount * 8, requestCount, cost, requestCount * 1000L / Math.max(cost, 1));
+        Assertions.assertEquals(requestCount, completeCount.get());
+    }
+
+}
@@ -8,6 +8,10 @@ import com.xxl.job.core.glue.GlueTypeEnum;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * executor api test
  *
@@ -71,6 +75,58 @@ public class ExecutorBizTest {
         Assertions.assertNotNull(retval);
     }
 
+    @Test
+    public void runAsync() throws Exception {
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+
+        // trigger data
+        final TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(1);
+        triggerParam.setExecutorHandler("demoJobHandler");
+        triggerParam.setExecutorParams(null);
+        triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.COVER_EARLY.name());
+        triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+        triggerParam.setGlueSource(null);
+        triggerParam.setGlueUpdatetime(System.currentTimeMillis());
+        triggerParam.setLogId(1);
+        triggerParam.setLogDateTime(System.currentTimeMillis());
+
+        // Act
+        final ReturnT<String> retval = executorBiz.runAsync(triggerParam).get(5, TimeUnit.SECONDS);
+
+        // Assert result
+        Assertions.assertNotNull(retval);
+    }
+
+    @Test
+    public void runBatch(){
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
+
+        // trigger data
+        List<TriggerParam> triggerParamList = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            final TriggerParam triggerParam = new TriggerParam();
+            triggerParam.setJobId(i);
+            triggerParam.setExecutorHandler("demoJobHandler");
+            triggerParam.setExecutorParams(null);
+            triggerParam.setExecutorBlockStrategy(ExecutorBlockStrategyEnum.COVER_EARLY.name());
+            triggerParam.setGlueType(GlueTypeEnum.BEAN.name());
+            triggerParam.setGlueSource(null);
+            triggerParam.setGlueUpdatetime(System.currentTimeMillis());
+            triggerParam.setLogId(i);
+            triggerParam.setLogDateTime(System.currentTimeMillis());
+            triggerParamList.add(triggerParam);
+        }
+
+        // Act
+        final ReturnT<RunBatchResult> retval = executorBiz.runBatch(triggerParamList);
+
+        // Assert result, one result each trigger
+        Assertions.assertNotNull(retval);
+        Assertions.assertEquals(200, retval.getCode());
+        Assertions.assertEquals(triggerParamList.size(), retval.getContent().getResultList().size());
+    }
+
     @Test
     public void kill(){
         ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, accessToken);
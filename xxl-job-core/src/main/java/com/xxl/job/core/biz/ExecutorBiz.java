@@ -2,6 +2,10 @@ package com.xxl.job.core.biz;
 
 import com.xxl.job.core.biz.model.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Created by xuxueli on 17/3/1.
  */
@@ -28,6 +32,39 @@ public interface ExecutorBiz {
      */
     public ReturnT<String> run(TriggerParam triggerParam);
 
+    /**
+     * run, non-blocking (default: run in caller)
+     * @param triggerParam
+     * @return
+     */
+    default CompletableFuture<ReturnT<String>> runAsync(TriggerParam triggerParam) {
+        return CompletableFuture.completedFuture(run(triggerParam));
+    }
+
+    /**
+     * run batch, many trigger in one request (same executor) (default: run one by one)
+     * @param triggerParamList
+     * @return  result each trigger param, same order
+     */
+    default ReturnT<RunBatchResult> runBatch(List<TriggerParam> triggerParamList) {
+        List<ReturnT<String>> resultList = new ArrayList<>();
+        if (triggerParamList != null) {
+            for (TriggerParam triggerParam: triggerParamList) {
+                resultList.add(run(triggerParam));
+            }
+        }
+        return new ReturnT<RunBatchResult>(new RunBatchResult(resultList));
+    }
+
+    /**
+     * run batch, non-blocking (default: run in caller)
+     * @param triggerParamList
+     * @return
+     */
+    default CompletableFuture<ReturnT<RunBatchResult>> runBatchAsync(List<TriggerParam> triggerParamList) {
+        return CompletableFuture.completedFuture(runBatch(triggerParamList));
+    }
+
     /**
      * kill
      * @param killParam
@@ -2,8 +2,12 @@ package com.xxl.job.core.biz.client;
 
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.util.XxlJobRemotingAsyncUtil;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * admin api test
  *
@@ -43,6 +47,21 @@ public class ExecutorBizClient implements ExecutorBiz {
         return XxlJobRemotingUtil.postBody(addressUrl + "run", accessToken, timeout, triggerParam, String.class);
     }
 
+    @Override
+    public CompletableFuture<ReturnT<String>> runAsync(TriggerParam triggerParam) {
+        return XxlJobRemotingAsyncUtil.postBodyAsync(addressUrl + "run", accessToken, timeout, triggerParam, String.class);
+    }
+
+    @Override
+    public ReturnT<RunBatchResult> runBatch(List<TriggerParam> triggerParamList) {
+        return XxlJobRemotingUtil.postBody(addressUrl + "runBatch", accessToken, timeout, triggerParamList, RunBatchResult.class);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<RunBatchResult>> runBatchAsync(List<TriggerParam> triggerParamList) {
+        return XxlJobRemotingAsyncUtil.postBodyAsync(addressUrl + "runBatch", accessToken, timeout, triggerParamList, RunBatchResult.class);
+    }
+
     @Override
     public ReturnT<String> kill(KillParam killParam) {
         return XxlJobRemotingUtil.postBody(addressUrl + "kill", accessToken, timeout, killParam, String.class);
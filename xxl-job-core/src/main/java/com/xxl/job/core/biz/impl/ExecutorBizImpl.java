@@ -11,10 +11,13 @@ import com.xxl.job.core.handler.impl.GlueJobHandler;
 import com.xxl.job.core.handler.impl.ScriptJobHandler;
 import com.xxl.job.core.log.XxlJobFileAppender;
 import com.xxl.job.core.thread.JobThread;
+import com.xxl.job.core.util.ThrowableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Created by xuxueli on 17/3/1.
@@ -148,6 +151,25 @@ public class ExecutorBizImpl implements ExecutorBiz {
         return pushResult;
     }
 
+    @Override
+    public ReturnT<RunBatchResult> runBatch(List<TriggerParam> triggerParamList) {
+        List<ReturnT<String>> resultList = new ArrayList<>();
+        if (triggerParamList != null) {
+            for (TriggerParam triggerParam: triggerParamList) {
+                // run each, one fail not affect others
+                ReturnT<String> runResult;
+                try {
+                    runResult = run(triggerParam);
+                } catch (Throwable e) {
+                    logger.error(e.getMessage(), e);
+                    runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
+                }
+                resultList.add(runResult);
+            }
+        }
+        return new ReturnT<RunBatchResult>(new RunBatchResult(resultList));
+    }
+
     @Override
     public ReturnT<String> kill(KillParam killParam) {
         // kill handlerThread, and create new one
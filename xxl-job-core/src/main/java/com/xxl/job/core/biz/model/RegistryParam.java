@@ -12,6 +12,16 @@ public class RegistryParam implements Serializable {
     private String registryKey;
     private String registryValue;
 
+    // executor capacity, declared in registry
+    private int weight = 1;                 // capacity weight, weighted route; <= 0 as 1
+    private int maxConcurrency = 0;         // max concurrent trigger hint, 0 not limit
+
+    // executor load, reported in registry beat (-1: not reported, old executor)
+    private int jobThreadCount = -1;        // active job thread, running or has trigger queue
+    private int triggerQueueSize = -1;      // trigger queued, all job thread
+    private int bizThreadActive = -1;       // active thread of embed server biz thread pool
+    private double cpuLoad = -1;            // system load average per processor
+
     public RegistryParam(){}
     public RegistryParam(String registryGroup, String registryKey, String registryValue) {
         this.registryGroup = registryGroup;
@@ -43,12 +53,66 @@ public class RegistryParam implements Serializable {
         this.registryValue = registryValue;
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getJobThreadCount() {
+        return jobThreadCount;
+    }
+
+    public void setJobThreadCount(int jobThreadCount) {
+        this.jobThreadCount = jobThreadCount;
+    }
+
+    public int getTriggerQueueSize() {
+        return triggerQueueSize;
+    }
+
+    public void setTriggerQueueSize(int triggerQueueSize) {
+        this.triggerQueueSize = triggerQueueSize;
+    }
+
+    public int getBizThreadActive() {
+        return bizThreadActive;
+    }
+
+    public void setBizThreadActive(int bizThreadActive) {
+        this.bizThreadActive = bizThreadActive;
+    }
+
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public void setCpuLoad(double cpuLoad) {
+        this.cpuLoad = cpuLoad;
+    }
+
     @Override
     public String toString() {
         return "RegistryParam{" +
                 "registryGroup='" + registryGroup + '\'' +
                 ", registryKey='" + registryKey + '\'' +
                 ", registryValue='" + registryValue + '\'' +
+                ", weight=" + weight +
+                ", maxConcurrency=" + maxConcurrency +
+                ", jobThreadCount=" + jobThreadCount +
+                ", triggerQueueSize=" + triggerQueueSize +
+                ", bizThreadActive=" + bizThreadActive +
+                ", cpuLoad=" + cpuLoad +
                 '}';
     }
 }
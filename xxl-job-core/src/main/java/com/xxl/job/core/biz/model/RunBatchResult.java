@@ -0,0 +1,31 @@
+package com.xxl.job.core.biz.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * run batch result, one result each trigger param (same order)
+ *
+ * @author xuxueli 2024-12-01
+ */
+public class RunBatchResult implements Serializable {
+    private static final long serialVersionUID = 42L;
+
+    public RunBatchResult() {
+    }
+    public RunBatchResult(List<ReturnT<String>> resultList) {
+        this.resultList = resultList;
+    }
+
+    private List<ReturnT<String>> resultList;
+
+
+    public List<ReturnT<String>> getResultList() {
+        return resultList;
+    }
+
+    public void setResultList(List<ReturnT<String>> resultList) {
+        this.resultList = resultList;
+    }
+
+}
@@ -12,6 +12,7 @@ import com.xxl.job.core.thread.JobThread;
 import com.xxl.job.core.thread.TriggerCallbackThread;
 import com.xxl.job.core.util.IpUtil;
 import com.xxl.job.core.util.NetUtil;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +38,10 @@ public class XxlJobExecutor  {
     private int port;
     private String logPath;
     private int logRetentionDays;
+    private String trustStorePath;
+    private String trustStorePassword;
+    private int weight = 1;
+    private int maxConcurrency = 0;
 
     public void setAdminAddresses(String adminAddresses) {
         this.adminAddresses = adminAddresses;
@@ -62,6 +67,18 @@ public class XxlJobExecutor  {
     public void setLogRetentionDays(int logRetentionDays) {
         this.logRetentionDays = logRetentionDays;
     }
+    public void setTrustStorePath(String trustStorePath) {
+        this.trustStorePath = trustStorePath;
+    }
+    public void setTrustStorePassword(String trustStorePassword) {
+        this.trustStorePassword = trustStorePassword;
+    }
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
 
 
     // ---------------------- start + stop ----------------------
@@ -70,6 +87,9 @@ public class XxlJobExecutor  {
         // init logpath
         XxlJobFileAppender.initLogPath(logPath);
 
+        // init https trust store (default trust all)
+        XxlJobRemotingUtil.initTrustStore(trustStorePath, trustStorePassword);
+
         // init invoker, admin-client
         initAdminBizList(adminAddresses, accessToken);
 
@@ -81,7 +101,7 @@ public class XxlJobExecutor  {
         TriggerCallbackThread.getInstance().start();
 
         // init executor-server
-        initEmbedServer(address, ip, port, appname, accessToken);
+        initEmbedServer(address, ip, port, appname, accessToken, weight, maxConcurrency);
     }
 
     public void destroy(){
@@ -140,7 +160,7 @@ public class XxlJobExecutor  {
     // ---------------------- executor-server (rpc provider) ----------------------
     private EmbedServer embedServer = null;
 
-    private void initEmbedServer(String address, String ip, int port, String appname, String accessToken) throws Exception {
+    private void initEmbedServer(String address, String ip, int port, String appname, String accessToken, int weight, int maxConcurrency) throws Exception {
 
         // fill ip port
         port = port>0?port: NetUtil.findAvailablePort(9999);
@@ -159,7 +179,7 @@ public class XxlJobExecutor  {
 
         // start
         embedServer = new EmbedServer();
-        embedServer.start(address, port, appname, accessToken);
+        embedServer.start(address, port, appname, accessToken, weight, maxConcurrency);
     }
 
     private void stopEmbedServer() {
@@ -268,4 +288,21 @@ public class XxlJobExecutor  {
     public static JobThread loadJobThread(int jobId){
         return jobThreadRepository.get(jobId);
     }
+
+    /**
+     * load of job thread
+     *
+     * @return  [active job thread count (running or has trigger queue), trigger queue size]
+     */
+    public static int[] loadJobThreadStat(){
+        int activeCount = 0;
+        int queueSize = 0;
+        for (JobThread jobThread: jobThreadRepository.values()) {
+            if (jobThread.isRunningOrHasQueue()) {
+                activeCount++;
+            }
+            queueSize += jobThread.getTriggerQueueSize();
+        }
+        return new int[]{activeCount, queueSize};
+    }
 }
@@ -20,6 +20,7 @@ import io.netty.util.CharsetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -32,8 +33,23 @@ public class EmbedServer {
 
     private ExecutorBiz executorBiz;
     private Thread thread;
+    private static volatile ThreadPoolExecutor bizThreadPoolRef;
+
+    /**
+     * active thread of biz thread pool, executor load
+     *
+     * @return  -1 if server not started
+     */
+    public static int getBizThreadActiveCount() {
+        ThreadPoolExecutor bizThreadPool = bizThreadPoolRef;
+        return bizThreadPool != null ? bizThreadPool.getActiveCount() : -1;
+    }
 
     public void start(final String address, final int port, final String appname, final String accessToken) {
+        start(address, port, appname, accessToken, 1, 0);
+    }
+
+    public void start(final String address, final int port, final String appname, final String accessToken, final int weight, final int maxConcurrency) {
         executorBiz = new ExecutorBizImpl();
         thread = new Thread(new Runnable() {
             @Override
@@ -59,6 +75,7 @@ public class EmbedServer {
                                 throw new RuntimeException("xxl-job, EmbedServer bizThreadPool is EXHAUSTED!");
                             }
                         });
+                bizThreadPoolRef = bizThreadPool;
                 try {
                     // start server
                     ServerBootstrap bootstrap = new ServerBootstrap();
@@ -82,7 +99,7 @@ public class EmbedServer {
                     logger.info(">>>>>>>>>>> xxl-job remoting server start success, nettype = {}, port = {}", EmbedServer.class, port);
 
                     // start registry
-                    startRegistry(appname, address);
+                    startRegistry(appname, address, weight, maxConcurrency);
 
                     // wait util stop
                     future.channel().closeFuture().sync();
@@ -191,6 +208,9 @@ public class EmbedServer {
                     case "/run":
                         TriggerParam triggerParam = GsonTool.fromJson(requestData, TriggerParam.class);
                         return executorBiz.run(triggerParam);
+                    case "/runBatch":
+                        List<TriggerParam> triggerParamList = GsonTool.fromJsonList(requestData, TriggerParam.class);
+                        return executorBiz.runBatch(triggerParamList);
                     case "/kill":
                         KillParam killParam = GsonTool.fromJson(requestData, KillParam.class);
                         return executorBiz.kill(killParam);
@@ -244,9 +264,9 @@ public class EmbedServer {
 
     // ---------------------- registry ----------------------
 
-    public void startRegistry(final String appname, final String address) {
+    public void startRegistry(final String appname, final String address, final int weight, final int maxConcurrency) {
         // start registry
-        ExecutorRegistryThread.getInstance().start(appname, address);
+        ExecutorRegistryThread.getInstance().start(appname, address, weight, maxConcurrency);
     }
 
     public void stopRegistry() {
@@ -5,9 +5,11 @@ import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
 import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.server.EmbedServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,7 +25,7 @@ public class ExecutorRegistryThread {
 
     private Thread registryThread;
     private volatile boolean toStop = false;
-    public void start(final String appname, final String address){
+    public void start(final String appname, final String address, final int weight, final int maxConcurrency){
 
         // valid
         if (appname==null || appname.trim().length()==0) {
@@ -43,6 +45,9 @@ public class ExecutorRegistryThread {
                 while (!toStop) {
                     try {
                         RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), appname, address);
+                        registryParam.setWeight(weight);
+                        registryParam.setMaxConcurrency(maxConcurrency);
+                        fillLoad(registryParam);
                         for (AdminBiz adminBiz: XxlJobExecutor.getAdminBizList()) {
                             try {
                                 ReturnT<String> registryResult = adminBiz.registry(registryParam);
@@ -111,6 +116,25 @@ public class ExecutorRegistryThread {
         registryThread.start();
     }
 
+    /**
+     * executor load, for admin load-aware route
+     */
+    private void fillLoad(RegistryParam registryParam) {
+        try {
+            int[] jobThreadStat = XxlJobExecutor.loadJobThreadStat();
+            registryParam.setJobThreadCount(jobThreadStat[0]);
+            registryParam.setTriggerQueueSize(jobThreadStat[1]);
+            registryParam.setBizThreadActive(EmbedServer.getBizThreadActiveCount());
+
+            double loadAverage = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+            if (loadAverage >= 0) {
+                registryParam.setCpuLoad(loadAverage / Runtime.getRuntime().availableProcessors());
+            }
+        } catch (Throwable e) {
+            logger.warn(">>>>>>>>>>> xxl-job, executor load collect fail, error msg:{}", e.getMessage());
+        }
+    }
+
     public void toStop() {
         toStop = true;
 
@@ -93,6 +93,14 @@ public class JobThread extends Thread{
         return running || triggerQueue.size()>0;
     }
 
+    /**
+     * trigger queued, not running
+     * @return
+     */
+    public int getTriggerQueueSize() {
+        return triggerQueue.size();
+    }
+
     @Override
 	public void run() {
 
@@ -0,0 +1,312 @@
+package com.xxl.job.core.util;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLParameters;
+import java.net.URI;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 非阻塞HTTP(S)通信工具类（netty），与 XxlJobRemotingUtil 协议一致，调用方不等待网络：
+ *
+ *      1、连接池：每个地址（scheme://host:port）一个有界连接池，keep-alive 复用连接，单连接同一时刻仅一个请求；
+ *      2、超时：连接/获取连接 3s，读超时 timeout 秒，超时关闭连接（不复用）；
+ *      3、空闲：连接空闲 60s 主动关闭（早于执行器端 90s），避免复用已被对端关闭的连接；
+ *      4、结果：future 总是正常完成，异常转换为 FAIL 结果（同 postBody）；回调在 IO 线程执行，耗时逻辑需切换线程；
+ *
+ * @author xuxueli 2024-11-29
+ */
+public class XxlJobRemotingAsyncUtil {
+    private static final Logger logger = LoggerFactory.getLogger(XxlJobRemotingAsyncUtil.class);
+
+    public static final int CONNECT_TIMEOUT_MS = 3 * 1000;
+    public static final int MAX_CONNECTIONS_PER_ADDRESS = 128;
+    public static final int MAX_PENDING_ACQUIRES_PER_ADDRESS = 2048;
+    public static final int MAX_CONTENT_LENGTH = 5 * 1024 * 1024;
+    public static final int IDLE_CLOSE_SECONDS = 60;
+
+    private static final AttributeKey<CompletableFuture<String>> RESPONSE_FUTURE = AttributeKey.valueOf("xxl-job-response-future");
+
+    private static volatile EventLoopGroup eventLoopGroup;
+    private static volatile SslContext sslContext;
+    private static final ConcurrentMap<String, FixedChannelPool> poolMap = new ConcurrentHashMap<>();
+
+
+    /**
+     * 异步发送POST请求，参数及结果同 XxlJobRemotingUtil.postBody
+     *
+     * @param url              目标服务的URL
+     * @param accessToken      访问令牌
+     * @param timeout          读取超时时间（单位：秒）
+     * @param requestObj       请求体对象，将被转换为JSON字符串发送
+     * @param returnTargClassOfT 响应体期望转换的目标类型
+     * @param <T>              返回类型泛型
+     * @return 响应结果 future，失败时以 FAIL 结果完成
+     */
+    public static <T> CompletableFuture<ReturnT<T>> postBodyAsync(final String url, String accessToken, int timeout, Object requestObj, final Class<T> returnTargClassOfT) {
+        CompletableFuture<String> responseFuture;
+        try {
+            responseFuture = send(new URI(url), accessToken, timeout, requestObj);
+        } catch (Exception e) {
+            responseFuture = new CompletableFuture<>();
+            responseFuture.completeExceptionally(e);
+        }
+
+        return responseFuture.handle((resultJson, e) -> {
+            if (e != null) {
+                Throwable cause = (e instanceof java.util.concurrent.CompletionException && e.getCause() != null) ? e.getCause() : e;
+                logger.error("xxl-job remoting error({}), for url : {}", cause.getMessage(), url, cause);
+                return new ReturnT<T>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ cause.getMessage() +"), for url : " + url);
+            }
+
+            // parse returnT
+            try {
+                return GsonTool.fromJsonReturnT(resultJson, returnTargClassOfT);
+            } catch (Exception e2) {
+                logger.error("xxl-job remoting (url={}) response content invalid({}).", url, resultJson, e2);
+                return new ReturnT<T>(ReturnT.FAIL_CODE, "xxl-job remoting (url="+url+") response content invalid("+ resultJson +").");
+            }
+        });
+    }
+
+    /**
+     * trust store changed (XxlJobRemotingUtil.initTrustStore), https connection rebuilt with new trust store
+     */
+    public static synchronized void resetSslContext() {
+        sslContext = null;
+        for (Iterator<Map.Entry<String, FixedChannelPool>> it = poolMap.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, FixedChannelPool> entry = it.next();
+            if (entry.getKey().regionMatches(true, 0, "https://", 0, 8)) {
+                entry.getValue().close();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * release connection and io thread
+     */
+    public static synchronized void shutdown() {
+        for (FixedChannelPool pool: poolMap.values()) {
+            pool.close();
+        }
+        poolMap.clear();
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully();
+            eventLoopGroup = null;
+        }
+    }
+
+
+    // ---------------------- send ----------------------
+
+    private static CompletableFuture<String> send(final URI uri, String accessToken, final int timeout, Object requestObj) throws Exception {
+        // request
+        String path = (uri.getRawPath()==null || uri.getRawPath().isEmpty()) ? "/" : uri.getRawPath();
+        byte[] requestBody = (requestObj != null ? GsonTool.toJson(requestObj) : "").getBytes(StandardCharsets.UTF_8);
+        final FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, path, Unpooled.wrappedBuffer(requestBody));
+        request.headers().set(HttpHeaderNames.HOST, uri.getHost() + ":" + port(uri));
+        request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=UTF-8");
+        request.headers().set(HttpHeaderNames.ACCEPT_CHARSET, "application/json;charset=UTF-8");
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, requestBody.length);
+        if (accessToken!=null && !accessToken.trim().isEmpty()) {
+            request.headers().set(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN, accessToken);
+        }
+
+        // acquire connection, write
+        final CompletableFuture<String> responseFuture = new CompletableFuture<>();
+        final FixedChannelPool pool = loadPool(uri);
+        pool.acquire().addListener(new FutureListener<Channel>() {
+            @Override
+            public void operationComplete(Future<Channel> acquireFuture) throws Exception {
+                if (!acquireFuture.isSuccess()) {
+                    request.release();
+                    responseFuture.completeExceptionally(acquireFuture.cause());
+                    return;
+                }
+                final Channel channel = acquireFuture.getNow();
+                channel.attr(RESPONSE_FUTURE).set(responseFuture);
+
+                // read timeout, close (response may arrive later)
+                final ScheduledFuture<?> timeoutFuture = channel.eventLoop().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (responseFuture.completeExceptionally(new TimeoutException("Read timed out"))) {
+                            channel.close();
+                        }
+                    }
+                }, timeout, TimeUnit.SECONDS);
+
+                // complete, release connection
+                responseFuture.whenComplete((resultJson, e) -> {
+                    timeoutFuture.cancel(false);
+                    channel.attr(RESPONSE_FUTURE).set(null);
+                    pool.release(channel);
+                });
+
+                channel.writeAndFlush(request).addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture writeFuture) throws Exception {
+                        if (!writeFuture.isSuccess()) {
+                            responseFuture.completeExceptionally(writeFuture.cause());
+                            channel.close();
+                        }
+                    }
+                });
+            }
+        });
+        return responseFuture;
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() > 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static FixedChannelPool loadPool(URI uri) throws Exception {
+        final boolean useHttps = "https".equalsIgnoreCase(uri.getScheme());
+        final String host = uri.getHost();
+        final int port = port(uri);
+        String poolKey = uri.getScheme() + "://" + host + ":" + port;
+
+        FixedChannelPool pool = poolMap.get(poolKey);
+        if (pool != null) {
+            return pool;
+        }
+        synchronized (XxlJobRemotingAsyncUtil.class) {
+            pool = poolMap.get(poolKey);
+            if (pool != null) {
+                return pool;
+            }
+
+            // io thread, daemon
+            if (eventLoopGroup == null) {
+                eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("xxl-job, remoting-async", true));
+            }
+            // trust-https (trust store same as XxlJobRemotingUtil, default trust all)
+            final boolean verifyHost = XxlJobRemotingUtil.getTrustManagerFactory() != null;
+            if (useHttps && sslContext == null) {
+                sslContext = SslContextBuilder.forClient()
+                        .trustManager(verifyHost?XxlJobRemotingUtil.getTrustManagerFactory():InsecureTrustManagerFactory.INSTANCE)
+                        .build();
+            }
+            final SslContext poolSslContext = sslContext;
+
+            Bootstrap bootstrap = new Bootstrap()
+                    .group(eventLoopGroup)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .option(ChannelOption.SO_KEEPALIVE, true)
+                    .remoteAddress(host, port);
+            pool = new FixedChannelPool(bootstrap, new AbstractChannelPoolHandler() {
+                @Override
+                public void channelCreated(Channel channel) throws Exception {
+                    if (useHttps) {
+                        SslHandler sslHandler = poolSslContext.newHandler(channel.alloc(), host, port);
+                        if (verifyHost) {
+                            SSLParameters sslParameters = sslHandler.engine().getSSLParameters();
+                            sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+                            sslHandler.engine().setSSLParameters(sslParameters);
+                        }
+                        channel.pipeline().addLast(sslHandler);
+                    }
+                    channel.pipeline()
+                            .addLast(new IdleStateHandler(0, 0, IDLE_CLOSE_SECONDS, TimeUnit.SECONDS))
+                            .addLast(new HttpClientCodec())
+                            .addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH))
+                            .addLast(new ResponseHandler());
+                }
+            }, ChannelHealthChecker.ACTIVE, FixedChannelPool.AcquireTimeoutAction.FAIL, CONNECT_TIMEOUT_MS, MAX_CONNECTIONS_PER_ADDRESS, MAX_PENDING_ACQUIRES_PER_ADDRESS);
+
+            poolMap.put(poolKey, pool);
+            return pool;
+        }
+    }
+
+    private static class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) throws Exception {
+            CompletableFuture<String> responseFuture = ctx.channel().attr(RESPONSE_FUTURE).get();
+            boolean keepAlive = HttpUtil.isKeepAlive(response);
+
+            if (responseFuture != null) {
+                // valid StatusCode
+                int statusCode = response.status().code();
+                if (statusCode != 200) {
+                    responseFuture.completeExceptionally(new IllegalStateException("StatusCode("+ statusCode +") invalid"));
+                } else {
+                    responseFuture.complete(response.content().toString(CharsetUtil.UTF_8));
+                }
+            }
+
+            // closed by peer, not reuse (dropped by health check)
+            if (!keepAlive) {
+                ctx.close();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            CompletableFuture<String> responseFuture = ctx.channel().attr(RESPONSE_FUTURE).get();
+            if (responseFuture != null) {
+                responseFuture.completeExceptionally(cause);
+            }
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            CompletableFuture<String> responseFuture = ctx.channel().attr(RESPONSE_FUTURE).get();
+            if (responseFuture != null) {
+                responseFuture.completeExceptionally(new ClosedChannelException());
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                ctx.close();
+            } else {
+                super.userEventTriggered(ctx, evt);
+            }
+        }
+    }
+
+}
@@ -5,14 +5,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.*;
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.InputStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 实用工具类，提供HTTP(S)通信相关的便捷方法，特别是用于与XXL-JOB系统间的远程调用。
@@ -23,26 +29,19 @@ public class XxlJobRemotingUtil {
     private static final Logger logger = LoggerFactory.getLogger(XxlJobRemotingUtil.class);
     // 访问令牌的常量标识，用于在HTTP请求头中携带身份验证信息
     public static final String XXL_JOB_ACCESS_TOKEN = "XXL-JOB-ACCESS-TOKEN";
+    // 连接超时时间（单位：毫秒）
+    public static final int CONNECT_TIMEOUT = 3 * 1000;
 
 
     // trust-https start
-    private static void trustAllHosts(HttpsURLConnection connection) {
-        try {
-            SSLContext sc = SSLContext.getInstance("TLS");
-            sc.init(null, trustAllCerts, new java.security.SecureRandom());
-            SSLSocketFactory newFactory = sc.getSocketFactory();
-
-            connection.setSSLSocketFactory(newFactory);
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
+    private static volatile TrustManagerFactory trustManagerFactory;     // null: trust all
+    private static volatile SSLSocketFactory sslSocketFactory;          // built once, reused (keep-alive cached connection keyed by factory)
+    private static final HostnameVerifier trustAllHostnameVerifier = new HostnameVerifier() {
+        @Override
+        public boolean verify(String hostname, SSLSession session) {
+            return true;
         }
-        connection.setHostnameVerifier(new HostnameVerifier() {
-            @Override
-            public boolean verify(String hostname, SSLSession session) {
-                return true;
-            }
-        });
-    }
+    };
     private static final TrustManager[] trustAllCerts = new TrustManager[]{new X509TrustManager() {
         @Override
         public java.security.cert.X509Certificate[] getAcceptedIssuers() {
@@ -55,16 +54,86 @@ public class XxlJobRemotingUtil {
         public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
         }
     }};
+
+    /**
+     * 初始化HTTPS信任库：未配置时信任全部证书（默认）；配置后校验证书及主机名。
+     *
+     * @param trustStorePath       信任库文件路径（JKS/PKCS12），为空时信任全部证书
+     * @param trustStorePassword   信任库密码，可为空
+     */
+    public static synchronized void initTrustStore(String trustStorePath, String trustStorePassword) throws Exception {
+        if (trustStorePath==null || trustStorePath.trim().isEmpty()) {
+            trustManagerFactory = null;
+        } else {
+            KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            try (InputStream inputStream = new FileInputStream(trustStorePath.trim())) {
+                trustStore.load(inputStream, trustStorePassword!=null?trustStorePassword.toCharArray():null);
+            }
+            TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            factory.init(trustStore);
+            trustManagerFactory = factory;
+        }
+        sslSocketFactory = null;
+        XxlJobRemotingAsyncUtil.resetSslContext();
+    }
+
+    /**
+     * 信任库，为空时信任全部证书
+     */
+    public static TrustManagerFactory getTrustManagerFactory() {
+        return trustManagerFactory;
+    }
+
+    private static SSLSocketFactory loadSslSocketFactory() throws Exception {
+        SSLSocketFactory factory = sslSocketFactory;
+        if (factory == null) {
+            synchronized (XxlJobRemotingUtil.class) {
+                factory = sslSocketFactory;
+                if (factory == null) {
+                    SSLContext sc = SSLContext.getInstance("TLS");
+                    sc.init(null, trustManagerFactory!=null?trustManagerFactory.getTrustManagers():trustAllCerts, new java.security.SecureRandom());
+                    factory = sc.getSocketFactory();
+                    sslSocketFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    private static void trustHosts(HttpsURLConnection connection) throws Exception {
+        connection.setSSLSocketFactory(loadSslSocketFactory());
+        if (trustManagerFactory == null) {
+            connection.setHostnameVerifier(trustAllHostnameVerifier);
+        }
+    }
     // trust-https end
 
 
+    // connection limit start
+    // 每个地址（scheme://host:port）同时进行的请求（连接）数上限；空闲连接由JDK keep-alive缓存复用（"-Dhttp.maxConnections"，默认每地址5个）
+    public static final int MAX_CONNECTIONS_PER_HOST = 64;
+    private static final ConcurrentMap<String, Semaphore> hostPermitMap = new ConcurrentHashMap<>();
+
+    private static Semaphore loadHostPermit(URL url) {
+        String hostKey = url.getProtocol() + "://" + url.getHost() + ":" + (url.getPort()>0?url.getPort():url.getDefaultPort());
+        Semaphore permit = hostPermitMap.get(hostKey);
+        if (permit == null) {
+            hostPermitMap.putIfAbsent(hostKey, new Semaphore(MAX_CONNECTIONS_PER_HOST));
+            permit = hostPermitMap.get(hostKey);
+        }
+        return permit;
+    }
+    // connection limit end
+
+
     /**
      * 发送POST请求至指定URL，包含访问令牌验证和超时设置。
      * 请求体可以是任意对象，响应结果自动转换为目标类型。
+     * 连接复用：正常响应读取完毕后关闭输入流（不断开连接），连接归还JDK keep-alive缓存。
      *
      * @param url              目标服务的URL
      * @param accessToken      访问令牌
-     * @param timeout          连接和读取超时时间（单位：毫秒）
+     * @param timeout          读取超时时间（单位：秒）
      * @param requestObj       请求体对象，将被转换为JSON字符串发送
      * @param returnTargClassOfT 响应体期望转换的目标类型
      * @param <T>              返回类型泛型
@@ -72,17 +141,32 @@ public class XxlJobRemotingUtil {
      */
     public static <T> ReturnT<T> postBody(String url, String accessToken, int timeout, Object requestObj, Class<T> returnTargClassOfT) {
         HttpURLConnection connection = null;
-        BufferedReader bufferedReader = null;
+        Semaphore hostPermit = null;
+        boolean reusable = false;
         try {
             // connection
             URL realUrl = new URL(url);
+
+            // connection limit
+            hostPermit = loadHostPermit(realUrl);
+            if (!hostPermit.tryAcquire(CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                hostPermit = null;
+                return new ReturnT<>(ReturnT.FAIL_CODE, "xxl-job remoting fail, too many connections(" + MAX_CONNECTIONS_PER_HOST + "). for url : " + url);
+            }
+
             connection = (HttpURLConnection) realUrl.openConnection();
 
             // trust-https
             boolean useHttps = url.startsWith("https");
             if (useHttps) {
                 HttpsURLConnection https = (HttpsURLConnection) connection;
-                trustAllHosts(https);
+                trustHosts(https);
+            }
+
+            // requestBody
+            byte[] requestBody = null;
+            if (requestObj != null) {
+                requestBody = GsonTool.toJson(requestObj).getBytes(StandardCharsets.UTF_8);
             }
 
             // connection setting
@@ -91,7 +175,7 @@ public class XxlJobRemotingUtil {
             connection.setDoInput(true);
             connection.setUseCaches(false);
             connection.setReadTimeout(timeout * 1000);
-            connection.setConnectTimeout(3 * 1000);
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
             connection.setRequestProperty("connection", "Keep-Alive");
             connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
             connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
@@ -104,36 +188,25 @@ public class XxlJobRemotingUtil {
             connection.connect();
 
             // write requestBody
-            if (requestObj != null) {
-                String requestBody = GsonTool.toJson(requestObj);
-
-                DataOutputStream dataOutputStream = new DataOutputStream(connection.getOutputStream());
-                dataOutputStream.write(requestBody.getBytes(StandardCharsets.UTF_8));
-                dataOutputStream.flush();
-                dataOutputStream.close();
+            if (requestBody != null) {
+                OutputStream outputStream = connection.getOutputStream();
+                outputStream.write(requestBody);
+                outputStream.flush();
+                outputStream.close();
             }
 
-            /*byte[] requestBodyBytes = requestBody.getBytes("UTF-8");
-            connection.setRequestProperty("Content-Length", String.valueOf(requestBodyBytes.length));
-            OutputStream outwritestream = connection.getOutputStream();
-            outwritestream.write(requestBodyBytes);
-            outwritestream.flush();
-            outwritestream.close();*/
-
             // valid StatusCode
             int statusCode = connection.getResponseCode();
             if (statusCode != 200) {
+                // drain error body, keep connection reusable
+                readFully(connection.getErrorStream());
+                reusable = true;
                 return new ReturnT<>(ReturnT.FAIL_CODE, "xxl-job remoting fail, StatusCode("+ statusCode +") invalid. for url : " + url);
             }
 
             // result
-            bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-            StringBuilder result = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                result.append(line);
-            }
-            String resultJson = result.toString();
+            String resultJson = new String(readFully(connection.getInputStream()), StandardCharsets.UTF_8);
+            reusable = true;
 
             // parse returnT
             try {
@@ -148,15 +221,36 @@ public class XxlJobRemotingUtil {
             return new ReturnT<>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ e.getMessage() +"), for url : " + url);
         } finally {
             try {
-                if (bufferedReader != null) {
-                    bufferedReader.close();
-                }
-                if (connection != null) {
+                // broken connection, not reuse
+                if (connection != null && !reusable) {
                     connection.disconnect();
                 }
             } catch (Exception e2) {
                 logger.error(e2.getMessage(), e2);
             }
+            if (hostPermit != null) {
+                hostPermit.release();
+            }
+        }
+    }
+
+    /**
+     * read all bytes, and close
+     */
+    private static byte[] readFully(InputStream inputStream) throws Exception {
+        if (inputStream == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                result.write(buffer, 0, length);
+            }
+            return result.toByteArray();
+        } finally {
+            inputStream.close();
         }
     }
 
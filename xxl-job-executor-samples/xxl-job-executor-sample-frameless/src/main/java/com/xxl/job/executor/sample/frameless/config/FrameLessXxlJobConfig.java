@@ -43,6 +43,8 @@ public class FrameLessXxlJobConfig {
         xxlJobExecutor.setPort(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.port")));
         xxlJobExecutor.setLogPath(xxlJobProp.getProperty("xxl.job.executor.logpath"));
         xxlJobExecutor.setLogRetentionDays(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.logretentiondays")));
+        xxlJobExecutor.setWeight(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.weight", "1")));
+        xxlJobExecutor.setMaxConcurrency(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.maxconcurrency", "0")));
 
         // registry job bean
         xxlJobExecutor.setXxlJobBeanList(Arrays.asList(new SampleXxlJob()));
@@ -40,6 +40,12 @@ public class XxlJobConfig {
     @Value("${xxl.job.executor.logretentiondays}")
     private int logRetentionDays;
 
+    @Value("${xxl.job.executor.weight:1}")
+    private int weight;
+
+    @Value("${xxl.job.executor.maxconcurrency:0}")
+    private int maxConcurrency;
+
 
     @Bean
     public XxlJobSpringExecutor xxlJobExecutor() {
@@ -53,6 +59,8 @@ public class XxlJobConfig {
         xxlJobSpringExecutor.setAccessToken(accessToken);
         xxlJobSpringExecutor.setLogPath(logPath);
         xxlJobSpringExecutor.setLogRetentionDays(logRetentionDays);
+        xxlJobSpringExecutor.setWeight(weight);
+        xxlJobSpringExecutor.setMaxConcurrency(maxConcurrency);
 
         return xxlJobSpringExecutor;
     }